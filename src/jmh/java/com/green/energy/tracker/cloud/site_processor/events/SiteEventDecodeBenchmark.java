@@ -0,0 +1,73 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.events.cloud.pubsub.v1.MessagePublishedData;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site_processor.config.ObjectMapperConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SiteEventDecodeBenchmark {
+
+    private final PubSubPushDecoder pubSubPushDecoder = new PubSubPushDecoder();
+    private final ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+    private ByteBuffer pushEnvelope;
+    private byte[] sitePayload;
+
+    @Setup
+    public void setUp() {
+        sitePayload = Site.newBuilder()
+                .setId("site-123")
+                .setName("Test Site")
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder().setLatitude(40.7128).setLongitude(-74.0060).build())
+                .build()
+                .toByteArray();
+        var envelope = "{\"message\":{\"data\":\"" + Base64.getEncoder().encodeToString(sitePayload) + "\","
+                + "\"attributes\":{\"entity_id\":\"site-123\",\"event_type\":\"UPDATE\"},"
+                + "\"messageId\":\"message-1\",\"publishTime\":\"2024-01-01T00:00:00Z\"},"
+                + "\"subscription\":\"projects/test-project/subscriptions/site-events\"}";
+        pushEnvelope = ByteBuffer.wrap(envelope.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    public Site decodePushEnvelope() throws IOException {
+        return pubSubPushDecoder.decode(pushEnvelope.duplicate()).site();
+    }
+
+    @Benchmark
+    public Site decodePushEnvelopeWithObjectMapper() throws IOException {
+        var envelope = pushEnvelope.duplicate();
+        var body = new byte[envelope.remaining()];
+        envelope.get(body);
+        return Site.parseFrom(objectMapper.readValue(body, MessagePublishedData.class).getMessage().getData());
+    }
+
+    @Benchmark
+    public Site parseSite() throws InvalidProtocolBufferException {
+        return Site.parseFrom(sitePayload);
+    }
+}
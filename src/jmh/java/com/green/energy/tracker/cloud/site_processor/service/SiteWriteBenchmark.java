@@ -0,0 +1,165 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import com.green.energy.tracker.cloud.site_processor.config.BulkheadProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FreshnessProperties;
+import com.green.energy.tracker.cloud.site_processor.config.HedgingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.IdempotencyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.LoggingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.RetryBudgetProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SequencerProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SiteCacheProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import com.green.energy.tracker.cloud.site_processor.events.PayloadBudget;
+import com.green.energy.tracker.cloud.site_processor.events.PubSubPushDecoder;
+import com.green.energy.tracker.cloud.site_processor.model.SiteMapper;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteDocumentOperations;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteRepository;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteWritePipeline;
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SiteWriteBenchmark {
+
+    @Param({"CREATE", "UPDATE", "DELETE"})
+    private SiteEventType eventType;
+
+    private final SiteMapper siteMapper = Mappers.getMapper(SiteMapper.class);
+    private Site site;
+    private SiteWriteDocument existing;
+    private SiteServiceImpl siteService;
+    private PubSubCloudEventServiceImpl pubSubCloudEventService;
+    private CloudEvent event;
+
+    @Setup
+    public void setUp() {
+        site = Site.newBuilder()
+                .setId("site-123")
+                .setName("Test Site")
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder().setLatitude(40.7128).setLongitude(-74.0060).build())
+                .build();
+
+        var meterRegistry = new SimpleMeterRegistry();
+        var siteEventMetrics = new SiteEventMetrics(meterRegistry);
+        var retry = Retry.ofDefaults("benchmark");
+        var redisKeyProperties = new RedisKeyProperties();
+        var siteCacheProperties = new SiteCacheProperties();
+        siteCacheProperties.setEnabled(false);
+        siteCacheProperties.getNegative().setEnabled(false);
+        var idempotencyProperties = new IdempotencyProperties();
+        idempotencyProperties.setEnabled(false);
+        var firestoreWriteProperties = new FirestoreWriteProperties();
+
+        siteService = new SiteServiceImpl(noOpRepository(), passThroughCircuitBreaker(), retry, TimeLimiter.of(Duration.ofSeconds(1)), TimeLimiter.of(Duration.ofSeconds(2)), siteMapper,
+                new SiteWritePipeline(null, siteMapper, firestoreWriteProperties), new SiteDocumentOperations(null), firestoreWriteProperties,
+                new SiteDocumentCache(null, retry, siteCacheProperties, redisKeyProperties, meterRegistry),
+                new MissingSiteCache(null, retry, siteCacheProperties, redisKeyProperties, meterRegistry),
+                siteEventMetrics,
+                new SiteEventBulkheads(BulkheadRegistry.ofDefaults(), new BulkheadProperties(), meterRegistry),
+                new HedgedReads(new HedgingProperties(), meterRegistry), new RetryBudget(new RetryBudgetProperties(), meterRegistry),
+                new SiteSpillover(new SpilloverProperties(), meterRegistry));
+        pubSubCloudEventService = new PubSubCloudEventServiceImpl(new PubSubPushDecoder(), siteService, new BatchProperties(),
+                new SiteEventSequencer(new SequencerProperties(), meterRegistry),
+                new IdempotencyService(null, retry, idempotencyProperties, redisKeyProperties, meterRegistry),
+                new SiteEventRouter(), siteEventMetrics,
+                new EventFreshness(new FreshnessProperties(), meterRegistry),
+                new EventLogSampler(new LoggingProperties()), new PayloadBudget(new PayloadBudgetProperties(), meterRegistry));
+        existing = siteService.buildDocument(site);
+
+        var envelope = "{\"message\":{\"data\":\"" + Base64.getEncoder().encodeToString(site.toByteArray()) + "\","
+                + "\"attributes\":{\"entity_id\":\"site-123\",\"event_type\":\"" + eventType.name() + "\"},"
+                + "\"messageId\":\"message-1\",\"publishTime\":\"2024-01-01T00:00:00Z\"},"
+                + "\"subscription\":\"projects/test-project/subscriptions/site-events\"}";
+        event = CloudEventBuilder.v1()
+                .withId("event-1")
+                .withSource(URI.create("//pubsub.googleapis.com/projects/test-project/topics/site-events"))
+                .withType("google.cloud.pubsub.topic.v1.messagePublished")
+                .withData("application/json", envelope.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    @Benchmark
+    public SiteWriteDocument buildDocument() {
+        return siteService.buildDocument(site);
+    }
+
+    @Benchmark
+    public SiteWriteDocument updateDoc() {
+        return siteMapper.updateDoc(site, existing.copy());
+    }
+
+    @Benchmark
+    public ResponseEntity<Void> handleSiteEvents() throws IOException {
+        return pubSubCloudEventService.handleSiteEvents(event).block();
+    }
+
+    private SiteRepository noOpRepository() {
+        return (SiteRepository) Proxy.newProxyInstance(SiteRepository.class.getClassLoader(), new Class<?>[]{SiteRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> Mono.just(args[0]);
+                    case "findById" -> Mono.just(existing.copy());
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "NoOpSiteRepository";
+                    default -> Flux.class.isAssignableFrom(method.getReturnType()) ? Flux.empty() : Mono.empty();
+                });
+    }
+
+    private ReactiveCircuitBreaker passThroughCircuitBreaker() {
+        return new ReactiveCircuitBreaker() {
+            @Override
+            public <T> Mono<T> run(Mono<T> toRun, Function<Throwable, Mono<T>> fallback) {
+                return toRun.onErrorResume(fallback);
+            }
+
+            @Override
+            public <T> Flux<T> run(Flux<T> toRun, Function<Throwable, Flux<T>> fallback) {
+                return toRun.onErrorResume(fallback);
+            }
+        };
+    }
+}
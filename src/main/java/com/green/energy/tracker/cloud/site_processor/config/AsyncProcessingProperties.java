@@ -0,0 +1,15 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.async")
+public class AsyncProcessingProperties {
+    private boolean enabled = false;
+    private int queueCapacity = 1000;
+    private int workers = 64;
+    private Duration drainTimeout = Duration.ofSeconds(8);
+}
@@ -0,0 +1,13 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.batch")
+public class BatchProperties {
+    private int maxEvents = 1000;
+    private int concurrency = 32;
+    private DataSize maxBodySize = DataSize.ofMegabytes(16);
+}
@@ -0,0 +1,10 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.bulkhead")
+public class BulkheadProperties {
+    private boolean enabled = true;
+}
@@ -0,0 +1,11 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.cloudevents")
+public class CloudEventCodecProperties {
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+}
@@ -0,0 +1,17 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private Duration latencyThreshold = Duration.ofMillis(500);
+}
@@ -0,0 +1,34 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.firestore")
+public class FirestoreWriteProperties {
+    private Batching batching = new Batching();
+    private UpdateMode updateMode = UpdateMode.READ_MODIFY_WRITE;
+    private DeleteMode deleteMode = DeleteMode.READ_THEN_DELETE;
+
+    public enum UpdateMode {
+        READ_MODIFY_WRITE,
+        PRECONDITION
+    }
+
+    public enum DeleteMode {
+        READ_THEN_DELETE,
+        PRECONDITION,
+        BLIND
+    }
+
+    @Data
+    public static class Batching {
+        private boolean enabled = false;
+        private int maxOps = 500;
+        private Duration maxDelay = Duration.ofMillis(20);
+        private int queueCapacity = 10000;
+        private Duration drainTimeout = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,13 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.freshness")
+public class FreshnessProperties {
+    private boolean enabled = true;
+    private Duration slo = Duration.ofSeconds(10);
+}
@@ -0,0 +1,18 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.hedging")
+public class HedgingProperties {
+    private boolean enabled = false;
+    private double percentile = 0.95;
+    private Duration initialDelay = Duration.ofMillis(100);
+    private Duration minDelay = Duration.ofMillis(10);
+    private Duration maxDelay = Duration.ofMillis(500);
+    private long minSamples = 100;
+    private Duration window = Duration.ofMinutes(1);
+}
@@ -0,0 +1,14 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = true;
+    private long localMaxSize = 100_000;
+    private Duration inProgressTtl = Duration.ofSeconds(60);
+}
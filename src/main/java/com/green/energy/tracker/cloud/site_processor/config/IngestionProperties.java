@@ -0,0 +1,19 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.ingestion")
+public class IngestionProperties {
+    private Mode mode = Mode.PUSH;
+    private String subscription = "site-events-sub";
+    private Duration shutdownTimeout = Duration.ofSeconds(8);
+
+    public enum Mode {
+        PUSH,
+        STREAMING_PULL
+    }
+}
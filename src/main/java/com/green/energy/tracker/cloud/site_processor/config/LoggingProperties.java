@@ -0,0 +1,15 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.logging")
+public class LoggingProperties {
+    private double defaultSampleRate = 1.0;
+    private Map<SiteEventType, Double> sampleRates = new EnumMap<>(SiteEventType.class);
+}
@@ -0,0 +1,14 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.payload-budget")
+public class PayloadBudgetProperties {
+    private boolean enabled = true;
+    private double heapShare = 0.25;
+    private DataSize maxBytes;
+    private double decodedSizeFactor = 4.0;
+}
@@ -0,0 +1,24 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public ReactiveRedisTemplate<String, SiteWriteDocument> siteDocumentRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                                      ObjectMapper objectMapper) {
+        var context = RedisSerializationContext.<String, SiteWriteDocument>newSerializationContext(new StringRedisSerializer())
+                .value(new Jackson2JsonRedisSerializer<>(objectMapper, SiteWriteDocument.class))
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
@@ -0,0 +1,21 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "spring.data.redis")
+public class RedisKeyProperties {
+    private String prefixKey = "site";
+    private long ttlSeconds = 3600;
+
+    public String key(String namespace, String id) {
+        return prefixKey + ":" + namespace + ":" + id;
+    }
+
+    public Duration ttl() {
+        return Duration.ofSeconds(ttlSeconds);
+    }
+}
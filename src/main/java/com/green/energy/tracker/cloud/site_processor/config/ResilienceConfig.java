@@ -2,6 +2,8 @@ package com.green.energy.tracker.cloud.site_processor.config;
 
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
@@ -13,6 +15,7 @@ import org.springframework.context.annotation.Configuration;
 public class ResilienceConfig {
     private final ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory;
     private final RetryRegistry retryRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
 
     @Bean("cbFirestore")
     public ReactiveCircuitBreaker circuitBreakerFirestore(){
@@ -24,4 +27,19 @@ public class ResilienceConfig {
         return retryRegistry.retry("firestore");
     }
 
+    @Bean("retryCache")
+    public Retry retryCache() {
+        return retryRegistry.retry("cache");
+    }
+
+    @Bean("timeLimiterFirestoreRead")
+    public TimeLimiter timeLimiterFirestoreRead() {
+        return timeLimiterRegistry.timeLimiter("firestore-read");
+    }
+
+    @Bean("timeLimiterFirestoreWrite")
+    public TimeLimiter timeLimiterFirestoreWrite() {
+        return timeLimiterRegistry.timeLimiter("firestore-write");
+    }
+
 }
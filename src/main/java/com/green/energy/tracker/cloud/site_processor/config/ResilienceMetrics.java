@@ -0,0 +1,49 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ResilienceMetrics {
+
+    private final RetryRegistry retryRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void bind() {
+        retryRegistry.getAllRetries().forEach(this::bind);
+        retryRegistry.getEventPublisher().onEntryAdded(event -> bind(event.getAddedEntry()));
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::bind);
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> bind(event.getAddedEntry()));
+    }
+
+    private void bind(Retry retry) {
+        var name = retry.getName();
+        retry.getEventPublisher()
+                .onRetry(event -> meterRegistry.counter("site.resilience.retry.attempts", "name", name).increment())
+                .onSuccess(event -> meterRegistry.counter("site.resilience.retry.calls", "name", name, "outcome", "success_after_retry").increment())
+                .onError(event -> meterRegistry.counter("site.resilience.retry.calls", "name", name, "outcome", "exhausted").increment());
+    }
+
+    private void bind(CircuitBreaker circuitBreaker) {
+        var name = circuitBreaker.getName();
+        meterRegistry.gauge("site.resilience.circuitbreaker.state", Tags.of("name", name), circuitBreaker, cb -> cb.getState().getOrder());
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            var transition = event.getStateTransition();
+            log.warn("Circuit breaker {} transitioned from {} to {}", name, transition.getFromState(), transition.getToState());
+            meterRegistry.counter("site.resilience.circuitbreaker.transitions", "name", name,
+                    "from", transition.getFromState().name(), "to", transition.getToState().name()).increment();
+        });
+    }
+}
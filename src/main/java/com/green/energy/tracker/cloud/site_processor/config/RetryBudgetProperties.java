@@ -0,0 +1,13 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.retry-budget")
+public class RetryBudgetProperties {
+    private boolean enabled = true;
+    private double ratio = 0.1;
+    private int maxTokens = 50;
+    private int maxDeliveryAttempt = 3;
+}
@@ -0,0 +1,12 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.sequencer")
+public class SequencerProperties {
+    private boolean enabled = true;
+    private int lanes = 64;
+    private int maxPendingPerLane = 256;
+}
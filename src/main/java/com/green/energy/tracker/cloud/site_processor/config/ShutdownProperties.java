@@ -0,0 +1,12 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.shutdown")
+public class ShutdownProperties {
+    private Duration gracePeriod = Duration.ofSeconds(10);
+}
@@ -0,0 +1,24 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.cache")
+public class SiteCacheProperties {
+    private boolean enabled = true;
+    private long localMaxSize = 10_000;
+    private Duration localTtl = Duration.ofSeconds(5);
+    private Negative negative = new Negative();
+
+    @Data
+    public static class Negative {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration localTtl = Duration.ofSeconds(1);
+        private long localMaxSize = 100_000;
+        private boolean redisEnabled = true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "site-processor.spillover")
+public class SpilloverProperties {
+    private boolean enabled = false;
+    private String directory = "/mnt/spillover";
+    private boolean allowVolatileDirectory = false;
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+    private int maxSegments = 8;
+    private DataSize maxMappedSize = DataSize.ofMegabytes(128);
+    private FsyncPolicy fsync = FsyncPolicy.INTERVAL;
+    private Duration fsyncInterval = Duration.ofSeconds(1);
+    private int replayParallelism = 8;
+    private Duration tombstoneRetention = Duration.ofDays(7);
+
+    public enum FsyncPolicy {
+        ALWAYS,
+        INTERVAL,
+        NONE
+    }
+}
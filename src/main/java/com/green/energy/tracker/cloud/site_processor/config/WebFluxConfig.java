@@ -1,17 +1,25 @@
 package com.green.energy.tracker.cloud.site_processor.config;
 
-import io.cloudevents.spring.webflux.CloudEventHttpMessageReader;
+import com.green.energy.tracker.cloud.site_processor.events.CloudEventBatchReader;
+import com.green.energy.tracker.cloud.site_processor.events.CloudEventHttpReader;
 import io.cloudevents.spring.webflux.CloudEventHttpMessageWriter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.DecoderHttpMessageReader;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebFluxConfig implements WebFluxConfigurer {
 
+    private final CloudEventCodecProperties cloudEventCodecProperties;
+    private final BatchProperties batchProperties;
+
     @Override
     public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
-        configurer.customCodecs().register(new CloudEventHttpMessageReader());
+        configurer.customCodecs().register(new CloudEventHttpReader(cloudEventCodecProperties));
         configurer.customCodecs().register(new CloudEventHttpMessageWriter());
+        configurer.customCodecs().register(new DecoderHttpMessageReader<>(CloudEventBatchReader.bodyDecoder(batchProperties)));
     }
 }
@@ -0,0 +1,54 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.CloudEventData;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class ByteBufferCloudEventData implements CloudEventData {
+
+    private final ByteBuffer view;
+    private final DataBuffer owner;
+    private final DataBuffer.ByteBufferIterator iterator;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    ByteBufferCloudEventData(ByteBuffer view, DataBuffer owner, DataBuffer.ByteBufferIterator iterator) {
+        this.view = view.asReadOnlyBuffer();
+        this.owner = owner;
+        this.iterator = iterator;
+    }
+
+    public static ByteBuffer asByteBuffer(CloudEventData data) {
+        return data instanceof ByteBufferCloudEventData byteBufferData
+                ? byteBufferData.asByteBuffer()
+                : ByteBuffer.wrap(data.toBytes()).asReadOnlyBuffer();
+    }
+
+    public static void release(CloudEvent event) {
+        if (event != null && event.getData() instanceof ByteBufferCloudEventData byteBufferData)
+            byteBufferData.release();
+    }
+
+    public ByteBuffer asByteBuffer() {
+        return view.duplicate();
+    }
+
+    @Override
+    public byte[] toBytes() {
+        var bytes = new byte[view.remaining()];
+        view.duplicate().get(bytes);
+        return bytes;
+    }
+
+    public void release() {
+        if (!released.compareAndSet(false, true))
+            return;
+        if (iterator != null)
+            iterator.close();
+        if (owner != null)
+            DataBufferUtils.release(owner);
+    }
+}
@@ -0,0 +1,83 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.ByteArrayDecoder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class CloudEventBatchReader {
+
+    public static final String CLOUDEVENTS_BATCH_JSON_VALUE = "application/cloudevents-batch+json";
+    public static final MediaType CLOUDEVENTS_BATCH_JSON = MediaType.parseMediaType(CLOUDEVENTS_BATCH_JSON_VALUE);
+    private static final List<MediaType> BATCH_MEDIA_TYPES = List.of(CLOUDEVENTS_BATCH_JSON, MediaType.APPLICATION_NDJSON);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final BatchProperties batchProperties;
+
+    public static ByteArrayDecoder bodyDecoder(BatchProperties batchProperties) {
+        var decoder = new ByteArrayDecoder() {
+            @Override
+            public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+                return mimeType != null && BATCH_MEDIA_TYPES.stream().anyMatch(mediaType -> mediaType.isCompatibleWith(mimeType))
+                        && super.canDecode(elementType, mimeType);
+            }
+        };
+        decoder.setMaxInMemorySize((int) batchProperties.getMaxBodySize().toBytes());
+        return decoder;
+    }
+
+    public List<byte[]> split(byte[] body, MediaType contentType) throws IOException {
+        List<byte[]> events = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType) ? splitLines(body) : splitArray(body);
+        if (events.size() > batchProperties.getMaxEvents())
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Batch exceeds " + batchProperties.getMaxEvents() + " events");
+        return events;
+    }
+
+    private List<byte[]> splitArray(byte[] body) throws IOException {
+        List<byte[]> events = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CloudEvents batch must be a JSON array");
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                int start = (int) parser.currentTokenLocation().getByteOffset();
+                parser.skipChildren();
+                int end = (int) parser.currentLocation().getByteOffset();
+                events.add(Arrays.copyOfRange(body, start, end));
+            }
+            if (token != JsonToken.END_ARRAY)
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CloudEvents batch entries must be JSON objects");
+        }
+        return events;
+    }
+
+    private List<byte[]> splitLines(byte[] body) {
+        List<byte[]> events = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= body.length; i++) {
+            if (i == body.length || body[i] == '\n') {
+                int end = i;
+                while (end > start && Character.isWhitespace(body[end - 1]))
+                    end--;
+                if (end > start)
+                    events.add(Arrays.copyOfRange(body, start, end));
+                start = i + 1;
+            }
+        }
+        return events;
+    }
+}
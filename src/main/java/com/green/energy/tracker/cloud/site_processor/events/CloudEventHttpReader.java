@@ -0,0 +1,195 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.green.energy.tracker.cloud.site_processor.config.CloudEventCodecProperties;
+import io.cloudevents.CloudEvent;
+import io.cloudevents.CloudEventData;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.core.data.BytesCloudEventData;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CloudEventHttpReader implements HttpMessageReader<CloudEvent> {
+
+    public static final MediaType CLOUDEVENTS_JSON = MediaType.parseMediaType("application/cloudevents+json");
+    private static final String CE_PREFIX = "ce-";
+    private static final String CE_SPECVERSION = "ce-specversion";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final CloudEventCodecProperties cloudEventCodecProperties;
+
+    @Override
+    public List<MediaType> getReadableMediaTypes() {
+        return List.of(MediaType.ALL);
+    }
+
+    @Override
+    public boolean canRead(ResolvableType elementType, MediaType mediaType) {
+        return CloudEvent.class.isAssignableFrom(elementType.toClass());
+    }
+
+    @Override
+    public Flux<CloudEvent> read(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
+        return Flux.from(readMono(elementType, message, hints));
+    }
+
+    @Override
+    public Mono<CloudEvent> readMono(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
+        var maxBodySize = cloudEventCodecProperties.getMaxBodySize();
+        return DataBufferUtils.join(message.getBody(), (int) maxBodySize.toBytes())
+                .onErrorMap(DataBufferLimitException.class,
+                        exception -> new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "CloudEvent body exceeds " + maxBodySize))
+                .map(buffer -> toEvent(message.getHeaders(), buffer));
+    }
+
+    private CloudEvent toEvent(HttpHeaders headers, DataBuffer buffer) {
+        var body = new OwnedBody(buffer);
+        try {
+            var contentType = headers.getContentType();
+            if (contentType != null && CLOUDEVENTS_JSON.isCompatibleWith(contentType))
+                return structured(body);
+            if (headers.containsKey(CE_SPECVERSION))
+                return binary(headers, body);
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Request is neither a structured nor a binary mode CloudEvent");
+        } catch (ResponseStatusException exception) {
+            body.release();
+            throw exception;
+        } catch (IOException | RuntimeException exception) {
+            body.release();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed CloudEvent: " + exception.getMessage(), exception);
+        }
+    }
+
+    private CloudEvent binary(HttpHeaders headers, OwnedBody body) {
+        var builder = CloudEventBuilder.fromSpecVersion(SpecVersion.parse(headers.getFirst(CE_SPECVERSION)));
+        headers.forEach((name, values) -> {
+            var attribute = name.toLowerCase(Locale.ROOT);
+            if (attribute.startsWith(CE_PREFIX) && !attribute.equals(CE_SPECVERSION) && !values.isEmpty())
+                builder.withContextAttribute(attribute.substring(CE_PREFIX.length()), UriUtils.decode(values.get(0), StandardCharsets.UTF_8));
+        });
+        var contentType = headers.getContentType();
+        if (contentType != null)
+            builder.withDataContentType(contentType.toString());
+        return withData(builder, body, body.view());
+    }
+
+    private CloudEvent structured(OwnedBody body) throws IOException {
+        var view = body.view();
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        ByteBuffer data = null;
+        CloudEventData copiedData = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(new ByteBufferBackedInputStream(view.duplicate()))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "Structured CloudEvent must be a JSON object");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var name = parser.currentName();
+                var token = parser.nextToken();
+                if ("data".equals(name) && (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY)) {
+                    int start = (int) parser.currentTokenLocation().getByteOffset();
+                    parser.skipChildren();
+                    int end = (int) parser.currentLocation().getByteOffset();
+                    data = view.duplicate().position(view.position() + start).limit(view.position() + end).slice();
+                } else if ("data".equals(name) && token != JsonToken.VALUE_NULL) {
+                    copiedData = BytesCloudEventData.wrap(parser.getText().getBytes(StandardCharsets.UTF_8));
+                } else if ("data_base64".equals(name) && token != JsonToken.VALUE_NULL) {
+                    copiedData = BytesCloudEventData.wrap(parser.getBinaryValue());
+                } else if (token == JsonToken.VALUE_STRING) {
+                    attributes.put(name, parser.getText());
+                } else if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+                    attributes.put(name, parser.getIntValue());
+                } else if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                    attributes.put(name, parser.getBooleanValue());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        var specVersion = attributes.remove("specversion");
+        if (!(specVersion instanceof String version))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Structured CloudEvent without specversion");
+        var builder = CloudEventBuilder.fromSpecVersion(SpecVersion.parse(version));
+        attributes.forEach((name, value) -> {
+            if (value instanceof Integer integer)
+                builder.withContextAttribute(name, integer);
+            else if (value instanceof Boolean bool)
+                builder.withContextAttribute(name, bool);
+            else
+                builder.withContextAttribute(name, (String) value);
+        });
+        if (copiedData != null) {
+            body.release();
+            return builder.withData(copiedData).build();
+        }
+        return withData(builder, body, data);
+    }
+
+    private CloudEvent withData(CloudEventBuilder builder, OwnedBody body, ByteBuffer data) {
+        if (data == null || !data.hasRemaining()) {
+            body.release();
+            return builder.build();
+        }
+        return builder.withData(body.share(data)).build();
+    }
+
+    private static final class OwnedBody {
+        private final DataBuffer buffer;
+        private final DataBuffer.ByteBufferIterator iterator;
+        private final ByteBuffer view;
+
+        private OwnedBody(DataBuffer buffer) {
+            this.buffer = buffer;
+            this.iterator = buffer.readableByteBuffers();
+            this.view = contiguous(buffer, iterator);
+        }
+
+        private static ByteBuffer contiguous(DataBuffer buffer, DataBuffer.ByteBufferIterator iterator) {
+            if (!iterator.hasNext())
+                return ByteBuffer.allocate(0);
+            var first = iterator.next();
+            if (!iterator.hasNext())
+                return first;
+            var merged = ByteBuffer.allocate(buffer.readableByteCount()).put(first);
+            iterator.forEachRemaining(merged::put);
+            return merged.flip();
+        }
+
+        private ByteBuffer view() {
+            return view.duplicate();
+        }
+
+        private ByteBufferCloudEventData share(ByteBuffer data) {
+            return new ByteBufferCloudEventData(data, buffer, iterator);
+        }
+
+        private void release() {
+            iterator.close();
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
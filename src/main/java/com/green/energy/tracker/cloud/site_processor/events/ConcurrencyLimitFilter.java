@@ -0,0 +1,56 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.ConcurrencyLimitProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    static final String EVENTS_PATH = "/events";
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        if (!concurrencyLimitProperties.isEnabled() || request.getMethod() != HttpMethod.POST
+                || !isEventsPath(request.getPath().pathWithinApplication().value()))
+            return chain.filter(exchange);
+        if (!concurrencyLimiter.tryAcquire())
+            return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Concurrency limit reached."));
+        return chain.filter(exchange)
+                .doOnEach(signal -> {
+                    if (signal.isOnComplete())
+                        concurrencyLimiter.release(isServerError(exchange));
+                    else if (signal.isOnError())
+                        concurrencyLimiter.release(!isClientError(signal.getThrowable()));
+                })
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL)
+                        concurrencyLimiter.release();
+                });
+    }
+
+    static boolean isEventsPath(String path) {
+        return path.equals(EVENTS_PATH) || path.startsWith(EVENTS_PATH + "/");
+    }
+
+    private boolean isServerError(ServerWebExchange exchange) {
+        var status = exchange.getResponse().getStatusCode();
+        return status != null && status.is5xxServerError();
+    }
+
+    private boolean isClientError(Throwable throwable) {
+        return throwable instanceof ResponseStatusException exception && exception.getStatusCode().is4xxClientError();
+    }
+}
@@ -0,0 +1,80 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.ConcurrencyLimitProperties;
+import com.green.energy.tracker.cloud.site_processor.service.FirestoreLatencyListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ConcurrencyLimiter implements FirestoreLatencyListener {
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private volatile double limit;
+    private long lastBackoffNanos;
+    private boolean backedOff;
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties concurrencyLimitProperties, MeterRegistry meterRegistry) {
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.latencyThresholdNanos = concurrencyLimitProperties.getLatencyThreshold().toNanos();
+        this.limit = concurrencyLimitProperties.getInitialLimit();
+        this.rejected = meterRegistry.counter("site.events.concurrency.rejected");
+        meterRegistry.gauge("site.events.concurrency.limit", this, ConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("site.events.concurrency.in.flight", inFlight);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(boolean dropped) {
+        inFlight.decrementAndGet();
+        if (dropped)
+            backOff();
+    }
+
+    @Override
+    public void onFirestoreLatency(long latencyNanos) {
+        if (latencyNanos > latencyThresholdNanos)
+            backOff();
+        else if (inFlight.get() * 2 >= limit)
+            synchronized (this) {
+                limit = Math.min(concurrencyLimitProperties.getMaxLimit(), limit + 1.0 / limit);
+            }
+    }
+
+    // A batch produces many slow samples for one congestion episode, so back off at most once per threshold.
+    private synchronized void backOff() {
+        long now = System.nanoTime();
+        if (backedOff && now - lastBackoffNanos < latencyThresholdNanos)
+            return;
+        backedOff = true;
+        lastBackoffNanos = now;
+        limit = Math.max(concurrencyLimitProperties.getMinLimit(), limit * concurrencyLimitProperties.getBackoffRatio());
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
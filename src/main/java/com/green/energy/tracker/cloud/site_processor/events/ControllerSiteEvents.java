@@ -1,15 +1,22 @@
 package com.green.energy.tracker.cloud.site_processor.events;
 
+import com.green.energy.tracker.cloud.site_processor.model.SiteEventResult;
 import com.green.energy.tracker.cloud.site_processor.service.CloudEventManagementService;
 import io.cloudevents.CloudEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 import java.io.IOException;
+import java.util.List;
 
 @RestController
 @Slf4j
@@ -17,9 +24,45 @@ import java.io.IOException;
 public class ControllerSiteEvents {
 
     private final CloudEventManagementService cloudEventManagementService;
+    private final CloudEventBatchReader cloudEventBatchReader;
+    private final SiteEventQueue siteEventQueue;
+    private final PayloadBudget payloadBudget;
 
     @PostMapping("/events")
     public Mono<ResponseEntity<Void>> handleSiteEvents(@RequestBody CloudEvent event) throws IOException {
-        return cloudEventManagementService.handleSiteEvents(event);
+        try {
+            var response = cloudEventManagementService.handleSiteEvents(event)
+                    .doFinally(signal -> ByteBufferCloudEventData.release(event));
+            if (!siteEventQueue.isEnabled())
+                return response;
+            // PayloadBudgetFilter releases the request bytes once the 202 is written, so the queued event carries its own charge.
+            var bytes = payloadBudget.charge(payloadSize(event));
+            return siteEventQueue.enqueue(response.doFinally(signal -> payloadBudget.release(bytes)))
+                    .doOnError(throwable -> {
+                        payloadBudget.release(bytes);
+                        ByteBufferCloudEventData.release(event);
+                    })
+                    .then(Mono.just(ResponseEntity.status(HttpStatus.ACCEPTED).build()));
+        } catch (IOException | RuntimeException exception) {
+            ByteBufferCloudEventData.release(event);
+            throw exception;
+        }
+    }
+
+    @PostMapping(value = "/events/batch", consumes = {CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<List<SiteEventResult>>> handleSiteEventsBatch(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                             @RequestBody byte[] body) throws IOException {
+        return cloudEventManagementService.handleSiteEventsBatch(cloudEventBatchReader.split(body, contentType))
+                .map(results -> ResponseEntity.status(batchStatus(results)).body(results));
+    }
+
+    private static long payloadSize(CloudEvent event) {
+        return event.getData() == null ? 0 : ByteBufferCloudEventData.asByteBuffer(event.getData()).remaining();
+    }
+
+    private HttpStatus batchStatus(List<SiteEventResult> results) {
+        return results.stream().allMatch(result -> HttpStatusCode.valueOf(result.getStatus()).is2xxSuccessful())
+                ? HttpStatus.OK
+                : HttpStatus.MULTI_STATUS;
     }
 }
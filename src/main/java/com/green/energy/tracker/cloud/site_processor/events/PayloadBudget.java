@@ -0,0 +1,74 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.google.protobuf.MessageLite;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class PayloadBudget {
+
+    private final PayloadBudgetProperties payloadBudgetProperties;
+    private final long capacity;
+    private final AtomicLong reserved = new AtomicLong();
+    private final Counter rejected;
+
+    public PayloadBudget(PayloadBudgetProperties payloadBudgetProperties, MeterRegistry meterRegistry) {
+        this.payloadBudgetProperties = payloadBudgetProperties;
+        this.capacity = payloadBudgetProperties.getMaxBytes() != null
+                ? payloadBudgetProperties.getMaxBytes().toBytes()
+                : (long) (Runtime.getRuntime().maxMemory() * payloadBudgetProperties.getHeapShare());
+        this.rejected = meterRegistry.counter("site.events.payload.budget.rejected");
+        meterRegistry.gauge("site.events.payload.budget.reserved.bytes", reserved);
+        meterRegistry.gauge("site.events.payload.budget.capacity.bytes", this, PayloadBudget::getCapacity);
+    }
+
+    public boolean tryReserve(long bytes) {
+        if (!payloadBudgetProperties.isEnabled())
+            return true;
+        while (true) {
+            long current = reserved.get();
+            if (current + bytes > capacity) {
+                rejected.increment();
+                return false;
+            }
+            if (reserved.compareAndSet(current, current + bytes))
+                return true;
+        }
+    }
+
+    public long charge(long bytes) {
+        if (!payloadBudgetProperties.isEnabled())
+            return 0;
+        reserved.addAndGet(bytes);
+        return bytes;
+    }
+
+    public void release(long bytes) {
+        if (bytes > 0)
+            reserved.addAndGet(-bytes);
+    }
+
+    public <T> Mono<T> holding(MessageLite decoded, Mono<T> work) {
+        if (!payloadBudgetProperties.isEnabled())
+            return work;
+        long bytes = (long) (decoded.getSerializedSize() * payloadBudgetProperties.getDecodedSizeFactor());
+        return Mono.using(() -> charge(bytes), ignored -> work, this::release);
+    }
+
+    public boolean fits(long bytes) {
+        return bytes <= capacity;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getReserved() {
+        return reserved.get();
+    }
+}
@@ -0,0 +1,47 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import com.green.energy.tracker.cloud.site_processor.config.CloudEventCodecProperties;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class PayloadBudgetFilter implements WebFilter {
+
+    private final PayloadBudget payloadBudget;
+    private final PayloadBudgetProperties payloadBudgetProperties;
+    private final CloudEventCodecProperties cloudEventCodecProperties;
+    private final BatchProperties batchProperties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        var path = request.getPath().pathWithinApplication().value();
+        if (!payloadBudgetProperties.isEnabled() || request.getMethod() != HttpMethod.POST
+                || !ConcurrencyLimitFilter.isEventsPath(path))
+            return chain.filter(exchange);
+        long contentLength = request.getHeaders().getContentLength();
+        long bytes = contentLength >= 0 ? contentLength : maxBodySize(path);
+        if (!payloadBudget.fits(bytes))
+            return Mono.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Payload exceeds the in-flight byte budget."));
+        if (!payloadBudget.tryReserve(bytes))
+            return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "In-flight payload budget exhausted."));
+        return chain.filter(exchange)
+                .doFinally(signal -> payloadBudget.release(bytes));
+    }
+
+    private long maxBodySize(String path) {
+        return path.equals("/events/batch")
+                ? batchProperties.getMaxBodySize().toBytes()
+                : cloudEventCodecProperties.getMaxBodySize().toBytes();
+    }
+}
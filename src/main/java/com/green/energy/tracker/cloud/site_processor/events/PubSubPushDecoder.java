@@ -0,0 +1,145 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.google.protobuf.CodedInputStream;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class PubSubPushDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int NO_DATA = -1;
+    private static final ThreadLocal<PayloadBuffer> PAYLOAD_BUFFER = ThreadLocal.withInitial(PayloadBuffer::new);
+
+    public PubSubPushMessage decode(byte[] body) throws IOException {
+        return decode(ByteBuffer.wrap(body));
+    }
+
+    public PubSubPushMessage decode(ByteBuffer body) throws IOException {
+        String messageId = null;
+        String publishTime = null;
+        int deliveryAttempt = 0;
+        Map<String, String> attributes = Map.of();
+        int dataOffset = NO_DATA;
+        try (JsonParser parser = parser(body, 0, true)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(parser, "Pub/Sub push envelope must be a JSON object");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                var token = parser.nextToken();
+                if ("deliveryAttempt".equals(field) || "delivery_attempt".equals(field)) {
+                    deliveryAttempt = token == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : 0;
+                    continue;
+                }
+                if (token != JsonToken.START_OBJECT || !"message".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var messageField = parser.currentName();
+                    var value = parser.nextToken();
+                    switch (messageField) {
+                        case "data" -> dataOffset = dataOffset(parser, value);
+                        case "attributes" -> attributes = readAttributes(parser);
+                        case "messageId", "message_id" -> messageId = parser.getValueAsString();
+                        case "publishTime", "publish_time" -> publishTime = parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return new PubSubPushMessage(messageId, publishTime, deliveryAttempt, attributes, body, dataOffset);
+    }
+
+    static Site decodeSite(ByteBuffer body, int dataOffset) throws IOException {
+        if (dataOffset == NO_DATA)
+            return Site.getDefaultInstance();
+        var buffer = PAYLOAD_BUFFER.get();
+        try (JsonParser parser = parser(body, dataOffset, false)) {
+            if (parser.nextToken() != JsonToken.VALUE_STRING)
+                throw new JsonParseException(parser, "Pub/Sub message data must be a base64 string");
+            parser.readBinaryValue(buffer);
+            return Site.parseFrom(buffer.input());
+        } finally {
+            buffer.recycle();
+        }
+    }
+
+    private static JsonParser parser(ByteBuffer body, int offset, boolean tracksOffsets) throws IOException {
+        int start = body.position() + offset;
+        if (body.hasArray() && (!tracksOffsets || body.arrayOffset() + start == 0))
+            return JSON_FACTORY.createParser(body.array(), body.arrayOffset() + start, body.limit() - start);
+        return JSON_FACTORY.createParser(new ByteBufferBackedInputStream(body.duplicate().position(start)));
+    }
+
+    private int dataOffset(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING)
+            return (int) parser.currentTokenLocation().getByteOffset();
+        if (value == JsonToken.VALUE_NULL)
+            return NO_DATA;
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Pub/Sub message data must be a base64 string");
+    }
+
+    private Map<String, String> readAttributes(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Map.of();
+        }
+        Map<String, String> attributes = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var name = parser.currentName();
+            parser.nextToken();
+            attributes.put(name, parser.getValueAsString());
+        }
+        return attributes;
+    }
+
+    private static final class PayloadBuffer extends OutputStream {
+        private static final int INITIAL_CAPACITY = 4096;
+        private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int size;
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(size + 1);
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int length) {
+            ensureCapacity(size + length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        private CodedInputStream input() {
+            return CodedInputStream.newInstance(bytes, 0, size);
+        }
+
+        private void recycle() {
+            size = 0;
+            if (bytes.length > MAX_RETAINED_CAPACITY)
+                bytes = new byte[INITIAL_CAPACITY];
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site.v1.Site;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+public record PubSubPushMessage(String messageId, String publishTime, int deliveryAttempt, Map<String, String> attributes, ByteBuffer body, int dataOffset) {
+
+    public String attribute(String name) {
+        return attributes.get(name);
+    }
+
+    public Site site() throws IOException {
+        return PubSubPushDecoder.decodeSite(body, dataOffset);
+    }
+
+    @Override
+    public String toString() {
+        return "PubSubPushMessage[messageId=" + messageId + ", publishTime=" + publishTime + ", deliveryAttempt=" + deliveryAttempt + ", attributes=" + attributes + "]";
+    }
+}
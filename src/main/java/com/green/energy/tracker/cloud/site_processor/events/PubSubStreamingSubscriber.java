@@ -0,0 +1,85 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberOperations;
+import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
+import com.green.energy.tracker.cloud.site_processor.config.IngestionProperties;
+import com.green.energy.tracker.cloud.site_processor.service.CloudEventManagementService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+public class PubSubStreamingSubscriber {
+
+    private final PubSubSubscriberOperations pubSubSubscriberOperations;
+    private final CloudEventManagementService cloudEventManagementService;
+    private final IngestionProperties ingestionProperties;
+    private final ShutdownWindow shutdownWindow;
+    private final Set<BasicAcknowledgeablePubsubMessage> inFlight = ConcurrentHashMap.newKeySet();
+    private final Counter acked;
+    private final Counter nacked;
+    private Subscriber subscriber;
+
+    public PubSubStreamingSubscriber(PubSubSubscriberOperations pubSubSubscriberOperations, CloudEventManagementService cloudEventManagementService,
+                                     IngestionProperties ingestionProperties, ShutdownWindow shutdownWindow, MeterRegistry meterRegistry) {
+        this.pubSubSubscriberOperations = pubSubSubscriberOperations;
+        this.cloudEventManagementService = cloudEventManagementService;
+        this.ingestionProperties = ingestionProperties;
+        this.shutdownWindow = shutdownWindow;
+        this.acked = meterRegistry.counter("site.events.pull.messages", "outcome", "ack");
+        this.nacked = meterRegistry.counter("site.events.pull.messages", "outcome", "nack");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (ingestionProperties.getMode() != IngestionProperties.Mode.STREAMING_PULL)
+            return;
+        subscriber = pubSubSubscriberOperations.subscribe(ingestionProperties.getSubscription(), this::receive);
+        log.info("Streaming pull started on subscription {}", ingestionProperties.getSubscription());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscriber == null)
+            return;
+        var timeout = shutdownWindow.bound(ingestionProperties.getShutdownTimeout());
+        try {
+            subscriber.stopAsync().awaitTerminated(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            log.warn("Streaming pull subscriber did not stop within {}, nacking {} in-flight messages", timeout, inFlight.size());
+            for (BasicAcknowledgeablePubsubMessage message : inFlight)
+                settle(message, false);
+        }
+    }
+
+    void receive(BasicAcknowledgeablePubsubMessage message) {
+        inFlight.add(message);
+        cloudEventManagementService.handlePulledMessage(message.getPubsubMessage())
+                .map(response -> response.getStatusCode().is2xxSuccessful())
+                .defaultIfEmpty(true)
+                .onErrorReturn(false)
+                .subscribe(success -> settle(message, success));
+    }
+
+    private void settle(BasicAcknowledgeablePubsubMessage message, boolean success) {
+        if (!inFlight.remove(message))
+            return;
+        if (success) {
+            acked.increment();
+            message.ack();
+        } else {
+            nacked.increment();
+            message.nack();
+        }
+    }
+}
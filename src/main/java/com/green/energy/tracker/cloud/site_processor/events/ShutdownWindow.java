@@ -0,0 +1,41 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.ShutdownProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class ShutdownWindow implements ApplicationListener<ContextClosedEvent> {
+
+    private final ShutdownProperties shutdownProperties;
+    private volatile Long deadlineNanos;
+
+    public ShutdownWindow(ShutdownProperties shutdownProperties) {
+        this.shutdownProperties = shutdownProperties;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        begin();
+    }
+
+    synchronized void begin() {
+        if (deadlineNanos == null)
+            deadlineNanos = System.nanoTime() + shutdownProperties.getGracePeriod().toNanos();
+    }
+
+    public Duration remaining() {
+        var deadline = deadlineNanos;
+        if (deadline == null)
+            return shutdownProperties.getGracePeriod();
+        return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+    }
+
+    public Duration bound(Duration timeout) {
+        var remaining = remaining();
+        return timeout.compareTo(remaining) < 0 ? timeout : remaining;
+    }
+}
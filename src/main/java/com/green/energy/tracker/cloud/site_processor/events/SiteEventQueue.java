@@ -0,0 +1,129 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.AsyncProcessingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class SiteEventQueue implements SmartLifecycle {
+
+    // Stops after the web server's graceful shutdown phase, so requests already in flight are enqueued before draining.
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1536;
+
+    private final AsyncProcessingProperties asyncProcessingProperties;
+    private final ShutdownWindow shutdownWindow;
+    private final Sinks.Many<Mono<?>> pending;
+    private final Sinks.Empty<Void> drained = Sinks.empty();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Counter rejectedFull;
+    private final Counter rejectedDraining;
+    private final Counter failed;
+    private final Timer drainTime;
+    private volatile boolean accepting = true;
+    private Disposable workers;
+
+    public SiteEventQueue(AsyncProcessingProperties asyncProcessingProperties, ShutdownWindow shutdownWindow, MeterRegistry meterRegistry) {
+        this.asyncProcessingProperties = asyncProcessingProperties;
+        this.shutdownWindow = shutdownWindow;
+        this.pending = Sinks.many().unicast().onBackpressureBuffer(Queues.<Mono<?>>get(asyncProcessingProperties.getQueueCapacity()).get());
+        this.rejectedFull = meterRegistry.counter("site.events.async.rejected", "reason", "full");
+        this.rejectedDraining = meterRegistry.counter("site.events.async.rejected", "reason", "draining");
+        this.failed = meterRegistry.counter("site.events.async.failed");
+        this.drainTime = meterRegistry.timer("site.events.async.drain");
+        meterRegistry.gauge("site.events.async.queue.depth", depth);
+    }
+
+    public boolean isEnabled() {
+        return asyncProcessingProperties.isEnabled();
+    }
+
+    public Mono<Void> enqueue(Mono<?> work) {
+        return Mono.defer(() -> {
+            var queued = depth.incrementAndGet();
+            if (!accepting) {
+                release();
+                rejectedDraining.increment();
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Site event queue is draining."));
+            }
+            if (queued > asyncProcessingProperties.getQueueCapacity() || !emit(work)) {
+                release();
+                rejectedFull.increment();
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Site event queue is full."));
+            }
+            return Mono.empty();
+        });
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled() || workers != null)
+            return;
+        workers = pending.asFlux()
+                .flatMap(work -> work
+                        .doOnError(throwable -> failed.increment())
+                        .onErrorResume(throwable -> Mono.empty())
+                        .doFinally(signal -> release()), asyncProcessingProperties.getWorkers())
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        if (workers == null)
+            return;
+        var sample = Timer.start();
+        accepting = false;
+        if (depth.get() > 0) {
+            var drainTimeout = shutdownWindow.bound(asyncProcessingProperties.getDrainTimeout());
+            log.info("Draining {} queued site events within {}", depth.get(), drainTimeout);
+            drained.asMono()
+                    .timeout(drainTimeout)
+                    .onErrorResume(TimeoutException.class, exception -> {
+                        log.warn("Site event queue not drained within {}, {} events dropped", drainTimeout, depth.get());
+                        return Mono.empty();
+                    })
+                    .block();
+        }
+        sample.stop(drainTime);
+        workers.dispose();
+        workers = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return workers != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    private boolean emit(Mono<?> work) {
+        synchronized (pending) {
+            return pending.tryEmitNext(work).isSuccess();
+        }
+    }
+
+    private void release() {
+        if (depth.decrementAndGet() == 0 && !accepting)
+            drained.tryEmitEmpty();
+    }
+}
@@ -0,0 +1,17 @@
+package com.green.energy.tracker.cloud.site_processor.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SiteEventResult {
+    private int index;
+    private String id;
+    private int status;
+    private String reason;
+}
@@ -1,10 +1,14 @@
 package com.green.energy.tracker.cloud.site_processor.model;
 
+import com.google.cloud.firestore.FieldValue;
 import com.green.energy.tracker.cloud.site.v1.Site;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Mapper(componentModel = "spring")
 public interface SiteMapper {
 
@@ -13,4 +17,16 @@ public interface SiteMapper {
     @Mapping(target = "updatedAt", ignore = true)
     SiteWriteDocument updateDoc(Site site, @MappingTarget SiteWriteDocument document);
 
+    default Map<String, Object> toUpdateFields(Site site) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", site.getName());
+        fields.put("userId", site.getUserId());
+        fields.put("address", site.getAddress());
+        fields.put("location", Map.of(
+                "latitude", site.getLocation().getLatitude(),
+                "longitude", site.getLocation().getLongitude()));
+        fields.put("updatedAt", FieldValue.serverTimestamp());
+        return fields;
+    }
+
 }
@@ -12,12 +12,14 @@ import lombok.NoArgsConstructor;
 import java.util.Date;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@Document(collectionName = "sites")
+@Document(collectionName = SiteWriteDocument.COLLECTION)
 public class SiteWriteDocument {
 
+    public static final String COLLECTION = "sites";
+
     @DocumentId
     private String id;
     private String name;
@@ -28,4 +30,10 @@ public class SiteWriteDocument {
     private Date createdAt;
     @ServerTimestamp
     private Date updatedAt;
+
+    public SiteWriteDocument copy() {
+        return toBuilder()
+                .location(location == null ? null : location.toBuilder().build())
+                .build();
+    }
 }
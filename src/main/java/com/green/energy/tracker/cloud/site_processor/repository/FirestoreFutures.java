@@ -0,0 +1,46 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+public final class FirestoreFutures {
+
+    private FirestoreFutures() { }
+
+    public static <T> Mono<T> toMono(Supplier<ApiFuture<T>> futureSupplier) {
+        return Mono.create(sink -> {
+            ApiFuture<T> future = futureSupplier.get();
+            ApiFutures.addCallback(future, new ApiFutureCallback<T>() {
+                @Override
+                public void onFailure(Throwable throwable) {
+                    sink.error(throwable);
+                }
+
+                @Override
+                public void onSuccess(T result) {
+                    sink.success(result);
+                }
+            }, MoreExecutors.directExecutor());
+            sink.onCancel(() -> future.cancel(false));
+        });
+    }
+
+    public static boolean isNotFound(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException && apiException.getStatusCode().getCode() == StatusCode.Code.NOT_FOUND)
+                return true;
+            if (cause instanceof StatusRuntimeException statusException && statusException.getStatus().getCode() == Status.Code.NOT_FOUND)
+                return true;
+        }
+        return false;
+    }
+}
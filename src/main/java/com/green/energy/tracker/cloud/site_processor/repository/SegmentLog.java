@@ -0,0 +1,194 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties.FsyncPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+@Slf4j
+public class SegmentLog implements Closeable {
+
+    private static final String SUFFIX = ".seg";
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final FsyncPolicy fsyncPolicy;
+    private final NavigableSet<Long> segments = new TreeSet<>();
+    private final AtomicLong corrupted = new AtomicLong();
+    private long activeId;
+    private MappedByteBuffer active;
+    private boolean dirty;
+
+    public SegmentLog(SpilloverProperties spilloverProperties) throws IOException {
+        this.directory = Path.of(spilloverProperties.getDirectory());
+        this.segmentBytes = Math.toIntExact(spilloverProperties.getSegmentSize().toBytes());
+        this.maxSegments = spilloverProperties.getMaxSegments();
+        this.fsyncPolicy = spilloverProperties.getFsync();
+        Files.createDirectories(directory);
+        try (var files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .forEach(segments::add);
+        }
+        if (segments.isEmpty()) {
+            open(0);
+        } else if (!resume(segments.last())) {
+            open(segments.last() + 1);
+        }
+    }
+
+    public synchronized boolean append(byte[] payload) throws IOException {
+        var size = HEADER_BYTES + payload.length;
+        if (size > segmentBytes)
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a segment");
+        if (active.remaining() < size) {
+            if (segments.size() >= maxSegments)
+                return false;
+            roll();
+        }
+        var crc = new CRC32C();
+        crc.update(payload);
+        var offset = active.position();
+        active.put(offset + HEADER_BYTES, payload);
+        active.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        active.putInt(offset, payload.length);
+        active.position(offset + size);
+        dirty = true;
+        if (fsyncPolicy == FsyncPolicy.ALWAYS)
+            force();
+        return true;
+    }
+
+    public synchronized boolean sync() {
+        if (!dirty)
+            return false;
+        try {
+            force();
+            return true;
+        } catch (UncheckedIOException exception) {
+            log.warn("Spillover segment {} could not be forced to disk", activeId, exception);
+            return false;
+        }
+    }
+
+    public synchronized List<Long> seal() throws IOException {
+        if (active.position() > 0)
+            roll();
+        return new ArrayList<>(segments.headSet(activeId, false));
+    }
+
+    public List<byte[]> read(long segmentId) throws IOException {
+        try (var channel = FileChannel.open(path(segmentId), StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<byte[]> records = new ArrayList<>();
+            var crc = new CRC32C();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                var length = buffer.getInt();
+                var checksum = buffer.getInt();
+                if (length == 0 && checksum == 0)
+                    break;
+                if (length < 0 || length > buffer.remaining()) {
+                    corrupt(segmentId, buffer.position() - HEADER_BYTES);
+                    break;
+                }
+                var payload = new byte[length];
+                buffer.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    corrupt(segmentId, buffer.position() - HEADER_BYTES - length);
+                    break;
+                }
+                records.add(payload);
+            }
+            return records;
+        }
+    }
+
+    public synchronized void compact(long segmentId) throws IOException {
+        if (segmentId == activeId)
+            throw new IllegalStateException("Active segment " + segmentId + " cannot be compacted");
+        Files.deleteIfExists(path(segmentId));
+        segments.remove(segmentId);
+    }
+
+    public synchronized List<Long> segmentIds() {
+        return new ArrayList<>(segments);
+    }
+
+    public synchronized boolean isEmpty() {
+        return segments.size() == 1 && active.position() == 0;
+    }
+
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    public long corruptedRecords() {
+        return corrupted.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (fsyncPolicy != FsyncPolicy.NONE)
+            force();
+    }
+
+    private boolean resume(long segmentId) throws IOException {
+        var records = read(segmentId);
+        var end = 0;
+        for (byte[] record : records)
+            end += HEADER_BYTES + record.length;
+        open(segmentId);
+        if (end + HEADER_BYTES > segmentBytes || active.getInt(end) == 0 && active.getInt(end + Integer.BYTES) == 0) {
+            active.position(end);
+            return true;
+        }
+        log.warn("Spillover segment {} has a damaged tail after {} records, sealing it", segmentId, records.size());
+        return false;
+    }
+
+    private void roll() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NONE)
+            force();
+        open(activeId + 1);
+    }
+
+    private void open(long segmentId) throws IOException {
+        try (var channel = FileChannel.open(path(segmentId), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        activeId = segmentId;
+        segments.add(segmentId);
+    }
+
+    private void force() {
+        active.force();
+        dirty = false;
+    }
+
+    private void corrupt(long segmentId, int offset) {
+        corrupted.incrementAndGet();
+        log.warn("Spillover segment {} has a corrupt record at offset {}, skipping the rest of the segment", segmentId, offset);
+    }
+
+    private Path path(long segmentId) {
+        return directory.resolve(String.format("%020d%s", segmentId, SUFFIX));
+    }
+}
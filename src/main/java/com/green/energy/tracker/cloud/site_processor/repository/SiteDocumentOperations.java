@@ -0,0 +1,83 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteResult;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+@Component
+@RequiredArgsConstructor
+public class SiteDocumentOperations {
+
+    public static final Precondition MUST_EXIST = Precondition.exists(true);
+    public static final String TOMBSTONE_COLLECTION = "site-tombstones";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String DELETED_AT = "deletedAt";
+    private static final String EXPIRE_AT = "expireAt";
+
+    private final Firestore firestore;
+
+    public Mono<WriteResult> updateIfExists(String siteId, Map<String, Object> fields) {
+        return FirestoreFutures.toMono(() -> document(siteId).update(fields, MUST_EXIST))
+                .onErrorResume(FirestoreFutures::isNotFound, throwable -> Mono.empty());
+    }
+
+    public Mono<WriteResult> deleteIfExists(String siteId) {
+        return FirestoreFutures.toMono(() -> document(siteId).delete(MUST_EXIST))
+                .onErrorResume(FirestoreFutures::isNotFound, throwable -> Mono.empty());
+    }
+
+    public Mono<WriteResult> delete(String siteId) {
+        return FirestoreFutures.toMono(() -> document(siteId).delete());
+    }
+
+    public Mono<Boolean> writeUnlessNewer(String siteId, Instant since, BiPredicate<Transaction, DocumentSnapshot> write) {
+        var reference = document(siteId);
+        return FirestoreFutures.toMono(() -> firestore.runTransaction(transaction -> {
+            var snapshot = transaction.get(reference).get();
+            var changedAt = snapshot.exists() ? snapshot.getTimestamp(UPDATED_AT) : deletedAt(transaction.get(tombstoneDocument(siteId)).get());
+            if (changedAt != null && changedAt.toSqlTimestamp().toInstant().isAfter(since))
+                return false;
+            return write.test(transaction, snapshot);
+        }));
+    }
+
+    public Mono<WriteResult> tombstone(String siteId, Duration retention) {
+        return FirestoreFutures.toMono(() -> tombstoneDocument(siteId).set(tombstoneFields(FieldValue.serverTimestamp(), retention)));
+    }
+
+    public void tombstone(Transaction transaction, String siteId, Instant deletedAt, Duration retention) {
+        transaction.set(tombstoneDocument(siteId), tombstoneFields(Date.from(deletedAt), retention));
+    }
+
+    public DocumentReference document(String siteId) {
+        return firestore.collection(SiteWriteDocument.COLLECTION).document(siteId);
+    }
+
+    private DocumentReference tombstoneDocument(String siteId) {
+        return firestore.collection(TOMBSTONE_COLLECTION).document(siteId);
+    }
+
+    private static Timestamp deletedAt(DocumentSnapshot tombstone) {
+        return tombstone.exists() ? tombstone.getTimestamp(DELETED_AT) : null;
+    }
+
+    // expireAt is the field the collection's Firestore TTL policy purges on.
+    private static Map<String, Object> tombstoneFields(Object deletedAt, Duration retention) {
+        return Map.of(DELETED_AT, deletedAt, EXPIRE_AT, Timestamp.of(Date.from(Instant.now().plus(retention))));
+    }
+}
@@ -0,0 +1,235 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteResult;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties.DeleteMode;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties.UpdateMode;
+import com.green.energy.tracker.cloud.site_processor.model.SiteMapper;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+public class SiteWritePipeline {
+
+    private final Firestore firestore;
+    private final SiteMapper siteMapper;
+    private final FirestoreWriteProperties.Batching batching;
+    private final UpdateMode updateMode;
+    private final DeleteMode deleteMode;
+    private final Sinks.Many<PendingWrite> pendingWrites;
+    private final Set<PendingWrite> outstanding = ConcurrentHashMap.newKeySet();
+    private final Sinks.Empty<Void> drained = Sinks.empty();
+    private BulkWriter bulkWriter;
+    private Disposable subscription;
+
+    public SiteWritePipeline(Firestore firestore, SiteMapper siteMapper, FirestoreWriteProperties firestoreWriteProperties) {
+        this.firestore = firestore;
+        this.siteMapper = siteMapper;
+        this.batching = firestoreWriteProperties.getBatching();
+        this.updateMode = firestoreWriteProperties.getUpdateMode();
+        this.deleteMode = firestoreWriteProperties.getDeleteMode();
+        this.pendingWrites = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingWrite>get(batching.getQueueCapacity()).get());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!batching.isEnabled())
+            return;
+        bulkWriter = firestore.bulkWriter();
+        subscription = pendingWrites.asFlux()
+                .bufferTimeout(batching.getMaxOps(), batching.getMaxDelay(), true)
+                .concatMap(this::flush)
+                .doFinally(signal -> drained.tryEmitEmpty())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            synchronized (pendingWrites) {
+                pendingWrites.tryEmitComplete();
+            }
+            drained.asMono()
+                    .timeout(batching.getDrainTimeout())
+                    .onErrorResume(TimeoutException.class, exception -> {
+                        log.warn("Write pipeline not flushed within {}, failing {} pending writes", batching.getDrainTimeout(), outstanding.size());
+                        return Mono.empty();
+                    })
+                    .block();
+            var unavailable = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write pipeline is shutting down.");
+            outstanding.forEach(pendingWrite -> pendingWrite.result().tryEmitError(unavailable));
+            subscription.dispose();
+        }
+        if (bulkWriter != null) {
+            try {
+                bulkWriter.close();
+            } catch (Exception e) {
+                log.warn("Closing Firestore bulk writer failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return batching.isEnabled();
+    }
+
+    public Mono<Boolean> create(SiteWriteDocument document) {
+        return submit(SiteEventType.CREATE, document.getId(), document, null);
+    }
+
+    public Mono<Boolean> update(Site site) {
+        return submit(SiteEventType.UPDATE, site.getId(), null, site);
+    }
+
+    public Mono<Boolean> delete(String siteId) {
+        return submit(SiteEventType.DELETE, siteId, null, null);
+    }
+
+    private Mono<Boolean> submit(SiteEventType type, String siteId, SiteWriteDocument document, Site site) {
+        return Mono.defer(() -> {
+            var pendingWrite = new PendingWrite(type, siteId, document, site, Sinks.one());
+            outstanding.add(pendingWrite);
+            Sinks.EmitResult emitResult;
+            synchronized (pendingWrites) {
+                emitResult = pendingWrites.tryEmitNext(pendingWrite);
+            }
+            if (emitResult.isFailure()) {
+                outstanding.remove(pendingWrite);
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, emitResult == Sinks.EmitResult.FAIL_TERMINATED
+                        ? "Write pipeline is shutting down."
+                        : "Write pipeline is saturated."));
+            }
+            return pendingWrite.result().asMono()
+                    .doFinally(signal -> outstanding.remove(pendingWrite));
+        });
+    }
+
+    private Mono<Void> flush(List<PendingWrite> batch) {
+        return loadExisting(batch)
+                .flatMap(existing -> write(batch, existing))
+                .onErrorResume(throwable -> {
+                    log.error("Flush of {} site writes failed: {}", batch.size(), throwable.getMessage());
+                    batch.forEach(pendingWrite -> pendingWrite.result().tryEmitError(throwable));
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Map<String, SiteWriteDocument>> loadExisting(List<PendingWrite> batch) {
+        var references = batch.stream()
+                .filter(this::requiresExistenceCheck)
+                .map(PendingWrite::siteId)
+                .distinct()
+                .map(this::document)
+                .toArray(DocumentReference[]::new);
+        if (references.length == 0)
+            return Mono.just(new HashMap<>());
+        return FirestoreFutures.toMono(() -> firestore.getAll(references))
+                .map(snapshots -> {
+                    Map<String, SiteWriteDocument> existing = new HashMap<>();
+                    for (DocumentSnapshot snapshot : snapshots)
+                        if (snapshot.exists())
+                            existing.put(snapshot.getId(), snapshot.toObject(SiteWriteDocument.class));
+                    return existing;
+                });
+    }
+
+    private Mono<Void> write(List<PendingWrite> batch, Map<String, SiteWriteDocument> existing) {
+        for (PendingWrite pendingWrite : batch) {
+            var siteId = pendingWrite.siteId();
+            switch (pendingWrite.type()) {
+                case CREATE -> {
+                    existing.put(siteId, pendingWrite.document());
+                    complete(pendingWrite, bulkWriter.set(document(siteId), pendingWrite.document()));
+                }
+                case UPDATE -> {
+                    if (updateMode == UpdateMode.PRECONDITION) {
+                        complete(pendingWrite, bulkWriter.update(document(siteId), siteMapper.toUpdateFields(pendingWrite.site()), SiteDocumentOperations.MUST_EXIST));
+                        continue;
+                    }
+                    var current = existing.get(siteId);
+                    if (current == null) {
+                        pendingWrite.result().tryEmitValue(false);
+                        continue;
+                    }
+                    var updated = siteMapper.updateDoc(pendingWrite.site(), current.copy());
+                    // Cleared so @ServerTimestamp stamps the write, as SiteServiceImpl does on the unbatched path.
+                    updated.setUpdatedAt(null);
+                    existing.put(siteId, updated);
+                    complete(pendingWrite, bulkWriter.set(document(siteId), updated));
+                }
+                case DELETE -> {
+                    if (deleteMode == DeleteMode.PRECONDITION) {
+                        complete(pendingWrite, bulkWriter.delete(document(siteId), SiteDocumentOperations.MUST_EXIST));
+                        continue;
+                    }
+                    if (deleteMode == DeleteMode.BLIND) {
+                        complete(pendingWrite, bulkWriter.delete(document(siteId)));
+                        continue;
+                    }
+                    if (existing.remove(siteId) == null) {
+                        pendingWrite.result().tryEmitValue(false);
+                        continue;
+                    }
+                    complete(pendingWrite, bulkWriter.delete(document(siteId)));
+                }
+                default -> pendingWrite.result().tryEmitError(new IllegalArgumentException("Unsupported write type " + pendingWrite.type()));
+            }
+        }
+        return FirestoreFutures.toMono(bulkWriter::flush);
+    }
+
+    private void complete(PendingWrite pendingWrite, ApiFuture<WriteResult> future) {
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onFailure(Throwable throwable) {
+                if (FirestoreFutures.isNotFound(throwable))
+                    pendingWrite.result().tryEmitValue(false);
+                else
+                    pendingWrite.result().tryEmitError(throwable);
+            }
+
+            @Override
+            public void onSuccess(WriteResult writeResult) {
+                pendingWrite.result().tryEmitValue(true);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private boolean requiresExistenceCheck(PendingWrite pendingWrite) {
+        return pendingWrite.type() == SiteEventType.DELETE && deleteMode == DeleteMode.READ_THEN_DELETE
+                || pendingWrite.type() == SiteEventType.UPDATE && updateMode == UpdateMode.READ_MODIFY_WRITE;
+    }
+
+    private DocumentReference document(String siteId) {
+        return firestore.collection(SiteWriteDocument.COLLECTION).document(siteId);
+    }
+
+    private record PendingWrite(SiteEventType type, String siteId, SiteWriteDocument document, Site site, Sinks.One<Boolean> result) { }
+}
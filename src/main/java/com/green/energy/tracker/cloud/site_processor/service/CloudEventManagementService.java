@@ -1,11 +1,16 @@
 package com.green.energy.tracker.cloud.site_processor.service;
 
+import com.google.pubsub.v1.PubsubMessage;
+import com.green.energy.tracker.cloud.site_processor.model.SiteEventResult;
 import io.cloudevents.CloudEvent;
 import org.springframework.http.ResponseEntity;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface CloudEventManagementService {
     Mono<ResponseEntity<Void>> handleSiteEvents(CloudEvent event) throws IOException;
+    Mono<List<SiteEventResult>> handleSiteEventsBatch(List<byte[]> events);
+    Mono<ResponseEntity<Void>> handlePulledMessage(PubsubMessage message);
 }
@@ -0,0 +1,82 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.google.cloud.firestore.WriteResult;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.FreshnessProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+public class EventFreshness {
+
+    private static final String COMMIT_TIME = EventFreshness.class.getName() + ".commitTime";
+    private final FreshnessProperties freshnessProperties;
+    private final Clock clock;
+    private final Map<SiteEventType, Timer> lag = new EnumMap<>(SiteEventType.class);
+    private final Map<SiteEventType, AtomicLong> lastLagMillis = new EnumMap<>(SiteEventType.class);
+    private final Map<SiteEventType, Counter> breaches = new EnumMap<>(SiteEventType.class);
+
+    public EventFreshness(FreshnessProperties freshnessProperties, MeterRegistry meterRegistry) {
+        this(freshnessProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    EventFreshness(FreshnessProperties freshnessProperties, MeterRegistry meterRegistry, Clock clock) {
+        this.freshnessProperties = freshnessProperties;
+        this.clock = clock;
+        for (SiteEventType eventType : new SiteEventType[]{SiteEventType.CREATE, SiteEventType.UPDATE, SiteEventType.DELETE}) {
+            var tag = eventType.name();
+            lag.put(eventType, Timer.builder("site.events.freshness")
+                    .tag("event_type", tag)
+                    .serviceLevelObjectives(freshnessProperties.getSlo())
+                    .register(meterRegistry));
+            var last = new AtomicLong();
+            lastLagMillis.put(eventType, last);
+            TimeGauge.builder("site.events.freshness.last", last, TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .tag("event_type", tag)
+                    .register(meterRegistry);
+            breaches.put(eventType, meterRegistry.counter("site.events.freshness.slo.breaches", "event_type", tag));
+        }
+    }
+
+    public Mono<Void> track(SiteEventType eventType, Instant publishTime, Mono<Void> write) {
+        if (!freshnessProperties.isEnabled() || publishTime == null || !lag.containsKey(eventType))
+            return write;
+        return Mono.defer(() -> {
+            var commitTime = new AtomicReference<Instant>();
+            return write
+                    .doOnSuccess(ignored -> record(eventType, publishTime, commitTime.get() != null ? commitTime.get() : clock.instant()))
+                    .contextWrite(context -> context.put(COMMIT_TIME, commitTime));
+        });
+    }
+
+    public static Mono<WriteResult> committed(WriteResult writeResult) {
+        return Mono.deferContextual(context -> {
+            context.<AtomicReference<Instant>>getOrEmpty(COMMIT_TIME)
+                    .ifPresent(commitTime -> commitTime.set(writeResult.getUpdateTime().toSqlTimestamp().toInstant()));
+            return Mono.just(writeResult);
+        });
+    }
+
+    private void record(SiteEventType eventType, Instant publishTime, Instant commitTime) {
+        var elapsed = Duration.between(publishTime, commitTime);
+        if (elapsed.isNegative())
+            elapsed = Duration.ZERO;
+        lag.get(eventType).record(elapsed);
+        lastLagMillis.get(eventType).set(elapsed.toMillis());
+        if (elapsed.compareTo(freshnessProperties.getSlo()) > 0)
+            breaches.get(eventType).increment();
+    }
+}
@@ -0,0 +1,22 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.LoggingProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@RequiredArgsConstructor
+public class EventLogSampler {
+
+    private final LoggingProperties loggingProperties;
+
+    public boolean sampled(SiteEventType eventType) {
+        var rate = loggingProperties.getSampleRates().getOrDefault(eventType, loggingProperties.getDefaultSampleRate());
+        if (rate >= 1.0)
+            return true;
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
@@ -0,0 +1,6 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+public interface FirestoreLatencyListener {
+
+    void onFirestoreLatency(long latencyNanos);
+}
@@ -0,0 +1,69 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site_processor.config.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+public class HedgedReads {
+
+    private final HedgingProperties hedgingProperties;
+    private final Timer latency;
+    private final Counter hedged;
+    private final Counter hedgeWins;
+
+    public HedgedReads(HedgingProperties hedgingProperties, MeterRegistry meterRegistry) {
+        this.hedgingProperties = hedgingProperties;
+        this.latency = Timer.builder("site.firestore.read.latency")
+                .publishPercentiles(hedgingProperties.getPercentile())
+                .distributionStatisticExpiry(hedgingProperties.getWindow())
+                .distributionStatisticBufferLength(3)
+                .register(meterRegistry);
+        this.hedged = meterRegistry.counter("site.firestore.read.hedged", "outcome", "sent");
+        this.hedgeWins = meterRegistry.counter("site.firestore.read.hedged", "outcome", "won");
+    }
+
+    public <T> Mono<T> read(Supplier<Mono<T>> read) {
+        if (!hedgingProperties.isEnabled())
+            return read.get();
+        return Mono.defer(() -> {
+            var delay = delay();
+            var primary = recorded(read.get());
+            var hedge = Mono.delay(delay)
+                    .doOnNext(ignored -> hedged.increment())
+                    .then(Mono.defer(() -> recorded(read.get())))
+                    .doOnSuccess(ignored -> hedgeWins.increment());
+            return Mono.firstWithSignal(primary, hedge);
+        });
+    }
+
+    Duration delay() {
+        if (latency.count() < hedgingProperties.getMinSamples())
+            return hedgingProperties.getInitialDelay();
+        for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+            var threshold = Duration.ofNanos((long) value.value(TimeUnit.NANOSECONDS));
+            if (threshold.compareTo(hedgingProperties.getMinDelay()) < 0)
+                return hedgingProperties.getMinDelay();
+            if (threshold.compareTo(hedgingProperties.getMaxDelay()) > 0)
+                return hedgingProperties.getMaxDelay();
+            return threshold;
+        }
+        return hedgingProperties.getInitialDelay();
+    }
+
+    private <T> Mono<T> recorded(Mono<T> read) {
+        return Mono.defer(() -> {
+            var startNanos = System.nanoTime();
+            // Only answered reads are sampled; the cancelled loser of a hedge would record the winner's time and drag the percentile down.
+            return read.doOnSuccess(ignored -> latency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+        });
+    }
+}
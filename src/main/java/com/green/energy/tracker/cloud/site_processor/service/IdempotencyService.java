@@ -0,0 +1,115 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.green.energy.tracker.cloud.site_processor.config.IdempotencyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final String KEY_NAMESPACE = "msg";
+    private static final String IN_PROGRESS = "pending";
+    private static final String DONE = "done";
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Retry retryCache;
+    private final IdempotencyProperties idempotencyProperties;
+    private final RedisKeyProperties redisKeyProperties;
+    private final Cache<String, Boolean> completedMessages;
+    private final Counter localDuplicates;
+    private final Counter redisDuplicates;
+    private final Counter inProgressDuplicates;
+
+    public IdempotencyService(ReactiveStringRedisTemplate redisTemplate, Retry retryCache, IdempotencyProperties idempotencyProperties,
+                              RedisKeyProperties redisKeyProperties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.retryCache = retryCache;
+        this.idempotencyProperties = idempotencyProperties;
+        this.redisKeyProperties = redisKeyProperties;
+        this.completedMessages = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getLocalMaxSize())
+                .expireAfterWrite(redisKeyProperties.ttl())
+                .build();
+        this.localDuplicates = meterRegistry.counter("site.events.duplicates", "tier", "local", "state", "done");
+        this.redisDuplicates = meterRegistry.counter("site.events.duplicates", "tier", "redis", "state", "done");
+        this.inProgressDuplicates = meterRegistry.counter("site.events.duplicates", "tier", "redis", "state", "in_progress");
+    }
+
+    public Mono<Claim> tryAcquire(String messageId) {
+        if (!isTracked(messageId))
+            return Mono.just(Claim.ACQUIRED);
+        if (completedMessages.getIfPresent(messageId) != null) {
+            localDuplicates.increment();
+            return Mono.just(Claim.DONE);
+        }
+        var key = redisKeyProperties.key(KEY_NAMESPACE, messageId);
+        return redisTemplate.opsForValue()
+                .setIfAbsent(key, IN_PROGRESS, idempotencyProperties.getInProgressTtl())
+                .flatMap(acquired -> acquired ? Mono.just(Claim.ACQUIRED) : existingClaim(messageId, key))
+                .transformDeferred(RetryOperator.of(retryCache))
+                .defaultIfEmpty(Claim.ACQUIRED)
+                .onErrorResume(throwable -> {
+                    log.warn("Idempotency check for message {} failed, processing anyway: {}", messageId, throwable.getMessage());
+                    return Mono.just(Claim.ACQUIRED);
+                });
+    }
+
+    public Mono<Void> complete(String messageId) {
+        if (!isTracked(messageId))
+            return Mono.empty();
+        completedMessages.put(messageId, Boolean.TRUE);
+        return redisTemplate.opsForValue()
+                .set(redisKeyProperties.key(KEY_NAMESPACE, messageId), DONE, redisKeyProperties.ttl())
+                .transformDeferred(RetryOperator.of(retryCache))
+                .onErrorResume(throwable -> {
+                    log.warn("Marking message {} as processed failed: {}", messageId, throwable.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public Mono<Void> release(String messageId) {
+        if (!isTracked(messageId))
+            return Mono.empty();
+        completedMessages.invalidate(messageId);
+        return redisTemplate.delete(redisKeyProperties.key(KEY_NAMESPACE, messageId))
+                .onErrorResume(throwable -> {
+                    log.warn("Releasing idempotency key for message {} failed: {}", messageId, throwable.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Claim> existingClaim(String messageId, String key) {
+        return redisTemplate.opsForValue().get(key)
+                .map(value -> {
+                    if (IN_PROGRESS.equals(value)) {
+                        inProgressDuplicates.increment();
+                        return Claim.IN_PROGRESS;
+                    }
+                    completedMessages.put(messageId, Boolean.TRUE);
+                    redisDuplicates.increment();
+                    return Claim.DONE;
+                })
+                .defaultIfEmpty(Claim.IN_PROGRESS);
+    }
+
+    private boolean isTracked(String messageId) {
+        return idempotencyProperties.isEnabled() && messageId != null && !messageId.isEmpty();
+    }
+
+    public enum Claim {
+        ACQUIRED,
+        IN_PROGRESS,
+        DONE
+    }
+}
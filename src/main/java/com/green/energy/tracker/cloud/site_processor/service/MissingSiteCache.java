@@ -0,0 +1,101 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SiteCacheProperties;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class MissingSiteCache {
+
+    private static final String KEY_NAMESPACE = "missing";
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Retry retryCache;
+    private final SiteCacheProperties.Negative negative;
+    private final RedisKeyProperties redisKeyProperties;
+    private final Cache<String, Boolean> missingSites;
+    private final Counter localHits;
+    private final Counter redisHits;
+
+    public MissingSiteCache(ReactiveStringRedisTemplate redisTemplate, Retry retryCache, SiteCacheProperties siteCacheProperties,
+                            RedisKeyProperties redisKeyProperties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.retryCache = retryCache;
+        this.negative = siteCacheProperties.getNegative();
+        this.redisKeyProperties = redisKeyProperties;
+        // Another instance's create only clears Redis, so the local tier bounds how long this instance can keep answering 404.
+        this.missingSites = Caffeine.newBuilder()
+                .maximumSize(negative.getLocalMaxSize())
+                .expireAfterWrite(negative.getLocalTtl().compareTo(negative.getTtl()) < 0 ? negative.getLocalTtl() : negative.getTtl())
+                .build();
+        this.localHits = meterRegistry.counter("site.cache.negative.hits", "tier", "local");
+        this.redisHits = meterRegistry.counter("site.cache.negative.hits", "tier", "redis");
+    }
+
+    public Mono<Boolean> isMissing(String siteId) {
+        if (!negative.isEnabled() || siteId == null)
+            return Mono.just(false);
+        if (missingSites.getIfPresent(siteId) != null) {
+            localHits.increment();
+            return Mono.just(true);
+        }
+        if (!negative.isRedisEnabled())
+            return Mono.just(false);
+        return redisTemplate.hasKey(redisKeyProperties.key(KEY_NAMESPACE, siteId))
+                .transformDeferred(RetryOperator.of(retryCache))
+                .defaultIfEmpty(false)
+                .doOnNext(missing -> {
+                    if (missing) {
+                        missingSites.put(siteId, Boolean.TRUE);
+                        redisHits.increment();
+                    }
+                })
+                .onErrorResume(throwable -> {
+                    log.warn("Negative cache lookup for site {} failed: {}", siteId, throwable.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    public Mono<Void> markMissing(String siteId) {
+        if (!negative.isEnabled() || siteId == null)
+            return Mono.empty();
+        return Mono.defer(() -> {
+            missingSites.put(siteId, Boolean.TRUE);
+            if (!negative.isRedisEnabled())
+                return Mono.empty();
+            return redisTemplate.opsForValue()
+                    .set(redisKeyProperties.key(KEY_NAMESPACE, siteId), "1", negative.getTtl())
+                    .onErrorResume(throwable -> {
+                        log.warn("Recording missing site {} failed: {}", siteId, throwable.getMessage());
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    public Mono<Void> forget(String siteId) {
+        if (!negative.isEnabled() || siteId == null)
+            return Mono.empty();
+        return Mono.defer(() -> {
+            missingSites.invalidate(siteId);
+            if (!negative.isRedisEnabled())
+                return Mono.empty();
+            return redisTemplate.delete(redisKeyProperties.key(KEY_NAMESPACE, siteId))
+                    .transformDeferred(RetryOperator.of(retryCache))
+                    .onErrorResume(throwable -> {
+                        log.warn("Clearing missing site {} failed: {}", siteId, throwable.getMessage());
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+}
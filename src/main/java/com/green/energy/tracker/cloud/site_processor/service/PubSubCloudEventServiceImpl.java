@@ -1,56 +1,201 @@
 package com.green.energy.tracker.cloud.site_processor.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.events.cloud.pubsub.v1.MessagePublishedData;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.pubsub.v1.PubsubMessage;
 import com.green.energy.tracker.cloud.site.v1.Site;
-import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import com.green.energy.tracker.cloud.site_processor.events.ByteBufferCloudEventData;
+import com.green.energy.tracker.cloud.site_processor.events.PayloadBudget;
+import com.green.energy.tracker.cloud.site_processor.events.PubSubPushDecoder;
+import com.green.energy.tracker.cloud.site_processor.model.SiteEventResult;
 import io.cloudevents.CloudEvent;
+import io.cloudevents.core.format.EventDeserializationException;
+import io.cloudevents.core.format.EventFormat;
+import io.cloudevents.jackson.JsonFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PubSubCloudEventServiceImpl implements CloudEventManagementService{
 
-    private final ObjectMapper objectMapper;
+    private final PubSubPushDecoder pubSubPushDecoder;
     private final SiteService siteService;
-    private static final String ATTRIBUTE_ENTITY_ID = "entity_id";
-    private static final String ATTRIBUTE_EVENT_TYPE = "event_type";
+    private final BatchProperties batchProperties;
+    private final SiteEventSequencer siteEventSequencer;
+    private final IdempotencyService idempotencyService;
+    private final SiteEventRouter siteEventRouter;
+    private final SiteEventMetrics siteEventMetrics;
+    private final EventFreshness eventFreshness;
+    private final EventLogSampler eventLogSampler;
+    private final PayloadBudget payloadBudget;
+    private static final EventFormat EVENT_FORMAT = new JsonFormat();
 
     @Override
     public Mono<ResponseEntity<Void>> handleSiteEvents(CloudEvent event) throws IOException {
-        var pubSubEvent = objectMapper.readValue(Objects.requireNonNull(event.getData()).toBytes(), MessagePublishedData.class);
-        log.info("PubSub event received: {}", pubSubEvent);
-        return handleSiteEventsType(pubSubEvent);
+        return dispatch(route(event));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> handlePulledMessage(PubsubMessage message) {
+        return Mono.fromCallable(() -> route(message))
+                .flatMap(this::dispatch);
+    }
+
+    private Mono<ResponseEntity<Void>> dispatch(SiteEventRouter.Route route) {
+        if (log.isInfoEnabled() && eventLogSampler.sampled(route.eventType()))
+            log.info("Site event received: {} {} {} {}", kv("messageId", route.messageId()), kv("eventType", route.eventType()),
+                    kv("entityId", route.entityId()), kv("publishTime", route.publishTime()));
+        return idempotencyService.tryAcquire(route.idempotencyKey())
+                .flatMap(claim -> switch (claim) {
+                    case ACQUIRED -> process(route);
+                    case DONE -> Mono.just(ResponseEntity.status(HttpStatus.OK).<Void>build());
+                    case IN_PROGRESS -> Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Site event is already being processed"));
+                });
+    }
+
+    private Mono<ResponseEntity<Void>> process(SiteEventRouter.Route route) {
+        var idempotencyKey = route.idempotencyKey();
+        var completed = new AtomicBoolean();
+        return Mono.fromCallable(() -> handleSiteEventsType(route))
+                .flatMap(Function.identity())
+                .doOnError(throwable -> logFailure(route, throwable))
+                .flatMap(response -> idempotencyService.complete(idempotencyKey)
+                        .doOnSuccess(ignored -> completed.set(true))
+                        .thenReturn(response))
+                .doFinally(signal -> {
+                    if (!completed.get())
+                        idempotencyService.release(idempotencyKey).subscribe();
+                });
+    }
+
+    private SiteEventRouter.Route route(CloudEvent event) throws IOException {
+        var sample = siteEventMetrics.start();
+        try {
+            var route = siteEventRouter.isProtobuf(event) ? siteEventRouter.route(event) : routePushEnvelope(event);
+            siteEventMetrics.record(sample, SiteEventMetrics.DECODE, route.eventType(), SiteEventMetrics.SUCCESS);
+            return route;
+        } catch (IOException | RuntimeException exception) {
+            siteEventMetrics.record(sample, SiteEventMetrics.DECODE, null, exception);
+            throw exception;
+        }
+    }
+
+    private SiteEventRouter.Route route(PubsubMessage message) {
+        var sample = siteEventMetrics.start();
+        try {
+            var route = siteEventRouter.route(message);
+            siteEventMetrics.record(sample, SiteEventMetrics.DECODE, route.eventType(), SiteEventMetrics.SUCCESS);
+            return route;
+        } catch (RuntimeException exception) {
+            siteEventMetrics.record(sample, SiteEventMetrics.DECODE, null, exception);
+            throw exception;
+        }
     }
 
-    private Mono<ResponseEntity<Void>> handleSiteEventsType(MessagePublishedData pubSubEvent) throws InvalidProtocolBufferException {
-        var entityId = pubSubEvent.getMessage().getAttributesMap().get(ATTRIBUTE_ENTITY_ID);
-        var eventType = SiteEventType.valueOf(pubSubEvent.getMessage().getAttributesMap().get(ATTRIBUTE_EVENT_TYPE));
+    private Site parse(SiteEventRouter.Route route) throws IOException {
+        var sample = siteEventMetrics.start();
+        try {
+            var site = route.site();
+            siteEventMetrics.record(sample, SiteEventMetrics.PARSE, route.eventType(), SiteEventMetrics.SUCCESS);
+            return site;
+        } catch (IOException | RuntimeException exception) {
+            siteEventMetrics.record(sample, SiteEventMetrics.PARSE, route.eventType(), exception);
+            throw exception;
+        }
+    }
+
+    private SiteEventRouter.Route routePushEnvelope(CloudEvent event) throws IOException {
+        var message = pubSubPushDecoder.decode(ByteBufferCloudEventData.asByteBuffer(Objects.requireNonNull(event.getData())));
+        return siteEventRouter.route(message);
+    }
+
+    private void logFailure(SiteEventRouter.Route route, Throwable throwable) {
+        if (throwable instanceof ResponseStatusException exception && exception.getStatusCode().is4xxClientError())
+            log.warn("Site event rejected: {} {} {} {}", kv("messageId", route.messageId()), kv("eventType", route.eventType()),
+                    kv("entityId", route.entityId()), kv("status", exception.getStatusCode().value()));
+        else
+            log.error("Site event failed: {} {} {}", kv("messageId", route.messageId()), kv("eventType", route.eventType()),
+                    kv("entityId", route.entityId()), throwable);
+    }
+
+    @Override
+    public Mono<List<SiteEventResult>> handleSiteEventsBatch(List<byte[]> events) {
+        return Flux.range(0, events.size())
+                .flatMapSequential(index -> handleBatchEntry(index, events.get(index)), batchProperties.getConcurrency())
+                .collectList();
+    }
+
+    private Mono<SiteEventResult> handleBatchEntry(int index, byte[] entry) {
+        return Mono.fromCallable(() -> EVENT_FORMAT.deserialize(entry))
+                .subscribeOn(Schedulers.parallel())
+                .flatMap(event -> Mono.fromCallable(() -> handleSiteEvents(event))
+                        .flatMap(Function.identity())
+                        .map(response -> batchResult(index, event.getId(), response.getStatusCode().value(), null))
+                        .defaultIfEmpty(batchResult(index, event.getId(), HttpStatus.OK.value(), null))
+                        .onErrorResume(throwable -> Mono.just(batchFailure(index, event.getId(), throwable))))
+                .onErrorResume(throwable -> Mono.just(batchFailure(index, null, throwable)));
+    }
+
+    private SiteEventResult batchFailure(int index, String id, Throwable throwable) {
+        log.error("Batch event {} ({}) failed: {}", index, id, throwable.getMessage());
+        if (throwable instanceof ResponseStatusException responseStatusException)
+            return batchResult(index, id, responseStatusException.getStatusCode().value(), responseStatusException.getReason());
+        if (throwable instanceof EventDeserializationException || throwable instanceof IOException || throwable instanceof IllegalArgumentException)
+            return batchResult(index, id, HttpStatus.BAD_REQUEST.value(), throwable.getMessage());
+        return batchResult(index, id, HttpStatus.INTERNAL_SERVER_ERROR.value(), throwable.getMessage());
+    }
+
+    private SiteEventResult batchResult(int index, String id, int status, String reason) {
+        return SiteEventResult.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .reason(reason)
+                .build();
+    }
+
+    private Mono<ResponseEntity<Void>> handleSiteEventsType(SiteEventRouter.Route route) throws IOException {
+        var entityId = route.entityId();
+        var eventType = route.eventType();
         switch (eventType) {
             case CREATE -> {
-                return siteService.create(Site.parseFrom(pubSubEvent.getMessage().getData()))
+                var site = parse(route);
+                return siteEventSequencer.submit(sequenceKey(entityId, site), eventType, tracked(route, payloadBudget.holding(site, siteService.create(site))))
                         .then(Mono.just(ResponseEntity.status(HttpStatus.OK).build()));
             }
             case UPDATE -> {
-                return siteService.update(Site.parseFrom(pubSubEvent.getMessage().getData()))
+                var site = parse(route);
+                return siteEventSequencer.submit(sequenceKey(entityId, site), eventType, tracked(route, payloadBudget.holding(site, siteService.update(site))))
                         .then(Mono.just(ResponseEntity.status(HttpStatus.OK).build()));
             }
             case DELETE -> {
-                return siteService.delete(entityId)
+                return siteEventSequencer.submit(entityId, eventType, tracked(route, siteService.delete(entityId)))
                         .then(Mono.just(ResponseEntity.status(HttpStatus.ACCEPTED).build()));
             }
-            default -> {
-                return Mono.empty();
-            }
+            default -> throw new IllegalStateException("Unroutable site event type " + eventType);
         }
     }
+
+    private Mono<Void> tracked(SiteEventRouter.Route route, Mono<Void> write) {
+        return eventFreshness.track(route.eventType(), route.publishTime(), RetryBudget.withDeliveryAttempt(route.deliveryAttempt(), write));
+    }
+
+    private String sequenceKey(String entityId, Site site) {
+        return entityId != null ? entityId : site.getId();
+    }
 }
@@ -0,0 +1,110 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site_processor.config.RetryBudgetProperties;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class RetryBudget {
+
+    private static final String DELIVERY_ATTEMPT = RetryBudget.class.getName() + ".deliveryAttempt";
+    private static final long MILLI_TOKENS = 1000;
+    private final RetryBudgetProperties retryBudgetProperties;
+    private final long capacity;
+    private final long deposit;
+    private final AtomicLong balance;
+    private final Counter calls;
+    private final Counter attempts;
+    private final Counter granted;
+    private final Counter deniedBudget;
+    private final Counter deniedDeliveryAttempt;
+    private final MeterRegistry meterRegistry;
+
+    public RetryBudget(RetryBudgetProperties retryBudgetProperties, MeterRegistry meterRegistry) {
+        this.retryBudgetProperties = retryBudgetProperties;
+        this.meterRegistry = meterRegistry;
+        this.capacity = retryBudgetProperties.getMaxTokens() * MILLI_TOKENS;
+        this.deposit = Math.round(retryBudgetProperties.getRatio() * MILLI_TOKENS);
+        this.balance = new AtomicLong(capacity);
+        this.calls = meterRegistry.counter("site.resilience.retry.budget.calls");
+        this.attempts = meterRegistry.counter("site.resilience.retry.budget.attempts");
+        this.granted = meterRegistry.counter("site.resilience.retry.budget.retries", "outcome", "granted");
+        this.deniedBudget = meterRegistry.counter("site.resilience.retry.budget.retries", "outcome", "denied_budget");
+        this.deniedDeliveryAttempt = meterRegistry.counter("site.resilience.retry.budget.retries", "outcome", "denied_delivery_attempt");
+        Gauge.builder("site.resilience.retry.budget.tokens", balance, tokens -> (double) tokens.get() / MILLI_TOKENS)
+                .register(meterRegistry);
+    }
+
+    public static <T> Mono<T> withDeliveryAttempt(int deliveryAttempt, Mono<T> work) {
+        return deliveryAttempt > 0 ? work.contextWrite(context -> context.put(DELIVERY_ATTEMPT, deliveryAttempt)) : work;
+    }
+
+    public <T> Mono<T> retry(SiteEventType eventType, Retry retry, Mono<T> source) {
+        return Mono.defer(() -> {
+            var attempt = new AtomicInteger();
+            return retry(retry, source.doOnSubscribe(subscription -> {
+                        if (attempt.incrementAndGet() > 1)
+                            meterRegistry.counter("site.events.retry.attempts", "event_type", eventType.name()).increment();
+                    }))
+                    .doOnSuccess(ignored -> outcome(eventType, attempt.get() > 1 ? "success_after_retry" : "success"))
+                    .doOnError(throwable -> outcome(eventType, attempt.get() > 1 ? "exhausted" : "failed"));
+        });
+    }
+
+    public <T> Mono<T> retry(Retry retry, Mono<T> source) {
+        if (!retryBudgetProperties.isEnabled())
+            return source.transformDeferred(RetryOperator.of(retry));
+        return Mono.deferContextual(context -> {
+            int deliveryAttempt = context.getOrDefault(DELIVERY_ATTEMPT, 0);
+            var attempt = new AtomicInteger();
+            calls.increment();
+            return source
+                    .doOnSubscribe(subscription -> attempts.increment())
+                    .onErrorMap(throwable -> deniesRetry(retry, attempt.incrementAndGet(), deliveryAttempt, throwable)
+                            ? new RetryDeniedException(throwable)
+                            : throwable)
+                    .transformDeferred(RetryOperator.of(retry))
+                    .onErrorMap(RetryDeniedException.class, Throwable::getCause)
+                    .doOnSuccess(ignored -> balance.accumulateAndGet(deposit, (current, added) -> Math.min(capacity, current + added)));
+        });
+    }
+
+    private void outcome(SiteEventType eventType, String outcome) {
+        meterRegistry.counter("site.events.retry.calls", "event_type", eventType.name(), "outcome", outcome).increment();
+    }
+
+    private boolean deniesRetry(Retry retry, int attempt, int deliveryAttempt, Throwable throwable) {
+        var config = retry.getRetryConfig();
+        if (attempt >= config.getMaxAttempts() || !config.getExceptionPredicate().test(throwable))
+            return false;
+        if (deliveryAttempt >= retryBudgetProperties.getMaxDeliveryAttempt()) {
+            deniedDeliveryAttempt.increment();
+            return true;
+        }
+        if (!withdraw()) {
+            deniedBudget.increment();
+            return true;
+        }
+        granted.increment();
+        return false;
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            var current = balance.get();
+            if (current < MILLI_TOKENS)
+                return false;
+            if (balance.compareAndSet(current, current - MILLI_TOKENS))
+                return true;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+public class RetryDeniedException extends RuntimeException {
+
+    public RetryDeniedException(Throwable cause) {
+        super(cause.getMessage(), cause, false, false);
+    }
+}
@@ -0,0 +1,113 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SiteCacheProperties;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class SiteDocumentCache {
+
+    private static final String KEY_NAMESPACE = "doc";
+    private final ReactiveRedisTemplate<String, SiteWriteDocument> siteDocumentRedisTemplate;
+    private final Retry retryCache;
+    private final SiteCacheProperties siteCacheProperties;
+    private final RedisKeyProperties redisKeyProperties;
+    private final AsyncCache<String, SiteWriteDocument> documents;
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public SiteDocumentCache(ReactiveRedisTemplate<String, SiteWriteDocument> siteDocumentRedisTemplate, Retry retryCache,
+                             SiteCacheProperties siteCacheProperties, RedisKeyProperties redisKeyProperties, MeterRegistry meterRegistry) {
+        this.siteDocumentRedisTemplate = siteDocumentRedisTemplate;
+        this.retryCache = retryCache;
+        this.siteCacheProperties = siteCacheProperties;
+        this.redisKeyProperties = redisKeyProperties;
+        this.documents = Caffeine.newBuilder()
+                .maximumSize(siteCacheProperties.getLocalMaxSize())
+                .expireAfterWrite(siteCacheProperties.getLocalTtl())
+                .buildAsync();
+        this.localHits = meterRegistry.counter("site.cache.gets", "result", "local");
+        this.redisHits = meterRegistry.counter("site.cache.gets", "result", "redis");
+        this.misses = meterRegistry.counter("site.cache.gets", "result", "miss");
+    }
+
+    public Mono<SiteWriteDocument> get(String siteId, Function<String, Mono<SiteWriteDocument>> loader) {
+        if (!siteCacheProperties.isEnabled())
+            return loader.apply(siteId);
+        return Mono.defer(() -> {
+                    var cached = documents.getIfPresent(siteId);
+                    if (cached != null) {
+                        localHits.increment();
+                        return Mono.fromFuture(cached, true);
+                    }
+                    return Mono.fromFuture(documents.get(siteId, (id, executor) -> load(id, loader).toFuture()), true);
+                })
+                .map(SiteWriteDocument::copy);
+    }
+
+    public Mono<Void> put(SiteWriteDocument document) {
+        if (!siteCacheProperties.isEnabled())
+            return Mono.empty();
+        return Mono.defer(() -> {
+            documents.put(document.getId(), CompletableFuture.completedFuture(document.copy()));
+            return writeRemote(document);
+        });
+    }
+
+    public Mono<Void> invalidate(String siteId) {
+        if (!siteCacheProperties.isEnabled())
+            return Mono.empty();
+        return Mono.defer(() -> {
+            documents.synchronous().invalidate(siteId);
+            return siteDocumentRedisTemplate.delete(redisKeyProperties.key(KEY_NAMESPACE, siteId))
+                    .transformDeferred(RetryOperator.of(retryCache))
+                    .onErrorResume(throwable -> {
+                        log.warn("Evicting site {} from Redis failed: {}", siteId, throwable.getMessage());
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private Mono<SiteWriteDocument> load(String siteId, Function<String, Mono<SiteWriteDocument>> loader) {
+        return siteDocumentRedisTemplate.opsForValue()
+                .get(redisKeyProperties.key(KEY_NAMESPACE, siteId))
+                .transformDeferred(RetryOperator.of(retryCache))
+                .onErrorResume(throwable -> {
+                    log.warn("Reading site {} from Redis failed, falling back to Firestore: {}", siteId, throwable.getMessage());
+                    return Mono.empty();
+                })
+                .doOnNext(document -> redisHits.increment())
+                .switchIfEmpty(Mono.defer(() -> {
+                    misses.increment();
+                    return loader.apply(siteId).flatMap(document -> writeRemote(document).thenReturn(document));
+                }));
+    }
+
+    private Mono<Void> writeRemote(SiteWriteDocument document) {
+        var key = redisKeyProperties.key(KEY_NAMESPACE, document.getId());
+        return siteDocumentRedisTemplate.opsForValue()
+                .set(key, document, redisKeyProperties.ttl())
+                .transformDeferred(RetryOperator.of(retryCache))
+                .then()
+                .onErrorResume(throwable -> {
+                    log.warn("Caching site {} in Redis failed: {}", document.getId(), throwable.getMessage());
+                    return siteDocumentRedisTemplate.delete(key).then().onErrorResume(ignored -> Mono.empty());
+                });
+    }
+}
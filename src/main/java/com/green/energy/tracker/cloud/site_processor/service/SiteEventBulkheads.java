@@ -0,0 +1,54 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.BulkheadProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class SiteEventBulkheads {
+
+    private final BulkheadProperties bulkheadProperties;
+    private final Map<SiteEventType, Bulkhead> bulkheads = new EnumMap<>(SiteEventType.class);
+    private final Map<SiteEventType, Counter> rejected = new EnumMap<>(SiteEventType.class);
+
+    public SiteEventBulkheads(BulkheadRegistry bulkheadRegistry, BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry) {
+        this.bulkheadProperties = bulkheadProperties;
+        for (SiteEventType eventType : new SiteEventType[]{SiteEventType.CREATE, SiteEventType.UPDATE, SiteEventType.DELETE}) {
+            bulkheads.put(eventType, bulkheadRegistry.bulkhead(instanceName(eventType)));
+            rejected.put(eventType, meterRegistry.counter("site.events.bulkhead.rejected", "event_type", eventType.name()));
+        }
+    }
+
+    public static String instanceName(SiteEventType eventType) {
+        return "site-" + eventType.name().toLowerCase(Locale.ROOT);
+    }
+
+    public <T> Mono<T> isolate(SiteEventType eventType, Mono<T> attempt) {
+        var bulkhead = bulkheads.get(eventType);
+        if (!bulkheadProperties.isEnabled() || bulkhead == null)
+            return attempt;
+        var isolated = attempt.transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(BulkheadFullException.class, exception -> {
+                    rejected.get(eventType).increment();
+                    return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Bulkhead " + bulkhead.getName() + " is full.", exception);
+                });
+        // A semaphore bulkhead waits for maxWaitDuration on the subscribing thread, which must not be an event loop.
+        return bulkhead.getBulkheadConfig().getMaxWaitDuration().isZero()
+                ? isolated
+                : isolated.subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,76 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class SiteEventMetrics {
+
+    public static final String STAGE_TIMER = "site.events.stage";
+    public static final String DECODE = "decode";
+    public static final String PARSE = "parse";
+    public static final String FIND_BY_ID = "find_by_id";
+    public static final String SAVE = "save";
+    public static final String DELETE_BY_ID = "delete_by_id";
+    public static final String SUCCESS = "success";
+    public static final String EMPTY = "empty";
+    public static final String NOT_FOUND = "not_found";
+    public static final String ERROR = "error";
+
+    private static final Set<String> FIRESTORE_STAGES = Set.of(FIND_BY_ID, SAVE, DELETE_BY_ID);
+
+    private final MeterRegistry meterRegistry;
+    private final List<FirestoreLatencyListener> firestoreLatencyListeners;
+
+    public SiteEventMetrics(MeterRegistry meterRegistry) {
+        this(meterRegistry, List.of());
+    }
+
+    @Autowired
+    public SiteEventMetrics(MeterRegistry meterRegistry, List<FirestoreLatencyListener> firestoreLatencyListeners) {
+        this.meterRegistry = meterRegistry;
+        this.firestoreLatencyListeners = firestoreLatencyListeners;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void record(Timer.Sample sample, String stage, SiteEventType eventType, String outcome) {
+        long latencyNanos = sample.stop(Timer.builder(STAGE_TIMER)
+                .tag("stage", stage)
+                .tag("event_type", eventType == null ? "UNKNOWN" : eventType.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        if (FIRESTORE_STAGES.contains(stage))
+            firestoreLatencyListeners.forEach(listener -> listener.onFirestoreLatency(latencyNanos));
+    }
+
+    public void record(Timer.Sample sample, String stage, SiteEventType eventType, Throwable throwable) {
+        record(sample, stage, eventType, outcome(throwable));
+    }
+
+    public <T> Mono<T> timed(String stage, SiteEventType eventType, Mono<T> source) {
+        return Mono.defer(() -> {
+            var sample = start();
+            return source
+                    .doOnSuccess(value -> record(sample, stage, eventType, value == null ? EMPTY : SUCCESS))
+                    .doOnError(throwable -> record(sample, stage, eventType, throwable));
+        });
+    }
+
+    private String outcome(Throwable throwable) {
+        return throwable instanceof ResponseStatusException exception && exception.getStatusCode() == HttpStatus.NOT_FOUND
+                ? NOT_FOUND
+                : ERROR;
+    }
+}
@@ -0,0 +1,118 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.protobuf.CodedInputStream;
+import com.google.pubsub.v1.PubsubMessage;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.events.ByteBufferCloudEventData;
+import com.green.energy.tracker.cloud.site_processor.events.PubSubPushMessage;
+import io.cloudevents.CloudEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class SiteEventRouter {
+
+    static final String ATTRIBUTE_ENTITY_ID = "entity_id";
+    static final String ATTRIBUTE_EVENT_TYPE = "event_type";
+    static final String EXTENSION_ENTITY_ID = "entityid";
+    static final String EXTENSION_EVENT_TYPE = "eventtype";
+    private static final String CLOUDEVENT_KEY_PREFIX = "ce:";
+    private static final List<MediaType> PROTOBUF_TYPES = List.of(new MediaType("application", "protobuf"), new MediaType("application", "x-protobuf"));
+    private static final Map<String, SiteEventType> SUPPORTED_TYPES = EnumSet.of(SiteEventType.CREATE, SiteEventType.UPDATE, SiteEventType.DELETE)
+            .stream()
+            .collect(Collectors.toUnmodifiableMap(SiteEventType::name, Function.identity()));
+
+    public boolean isProtobuf(CloudEvent event) {
+        var dataContentType = event.getDataContentType();
+        if (dataContentType == null)
+            return false;
+        try {
+            var mediaType = MediaType.parseMediaType(dataContentType);
+            return PROTOBUF_TYPES.stream().anyMatch(protobuf -> protobuf.includes(mediaType));
+        } catch (InvalidMediaTypeException exception) {
+            return false;
+        }
+    }
+
+    public Route route(PubSubPushMessage message) {
+        return route(message.attribute(ATTRIBUTE_EVENT_TYPE), message.attribute(ATTRIBUTE_ENTITY_ID), message.messageId(), message.messageId(),
+                publishTime(message.publishTime()), message.deliveryAttempt(), message::site);
+    }
+
+    public Route route(PubsubMessage message) {
+        var publishTime = message.hasPublishTime()
+                ? Instant.ofEpochSecond(message.getPublishTime().getSeconds(), message.getPublishTime().getNanos())
+                : null;
+        var deliveryAttempt = Subscriber.getDeliveryAttempt(message);
+        return route(message.getAttributesOrDefault(ATTRIBUTE_EVENT_TYPE, null), message.getAttributesOrDefault(ATTRIBUTE_ENTITY_ID, null),
+                message.getMessageId(), message.getMessageId(), publishTime, deliveryAttempt == null ? 0 : deliveryAttempt, () -> Site.parseFrom(message.getData()));
+    }
+
+    public Route route(CloudEvent event) {
+        var data = event.getData();
+        SitePayload payload = data == null
+                ? Site::getDefaultInstance
+                : () -> Site.parseFrom(CodedInputStream.newInstance(ByteBufferCloudEventData.asByteBuffer(data)));
+        var publishTime = event.getTime() == null ? null : event.getTime().toInstant();
+        return route(extension(event, EXTENSION_EVENT_TYPE), extension(event, EXTENSION_ENTITY_ID), event.getId(), idempotencyKey(event),
+                publishTime, 0, payload);
+    }
+
+    private String idempotencyKey(CloudEvent event) {
+        if (event.getId() == null || event.getId().isEmpty())
+            return null;
+        return CLOUDEVENT_KEY_PREFIX + event.getSource() + ":" + event.getId();
+    }
+
+    private Route route(String type, String entityId, String messageId, String idempotencyKey, Instant publishTime, int deliveryAttempt,
+                        SitePayload payload) {
+        var eventType = SUPPORTED_TYPES.get(type);
+        if (eventType == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported site event type: " + type);
+        if (eventType == SiteEventType.DELETE && (entityId == null || entityId.isEmpty()))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Delete event without entity id");
+        return new Route(eventType, entityId, messageId, idempotencyKey, publishTime, deliveryAttempt, payload);
+    }
+
+    private Instant publishTime(String publishTime) {
+        if (publishTime == null)
+            return null;
+        try {
+            return Instant.parse(publishTime);
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    private String extension(CloudEvent event, String name) {
+        var value = event.getExtension(name);
+        return value == null ? null : value.toString();
+    }
+
+    @FunctionalInterface
+    public interface SitePayload {
+        Site decode() throws IOException;
+    }
+
+    public record Route(SiteEventType eventType, String entityId, String messageId, String idempotencyKey, Instant publishTime, int deliveryAttempt,
+                        SitePayload payload) {
+
+        public Site site() throws IOException {
+            return payload.decode();
+        }
+    }
+}
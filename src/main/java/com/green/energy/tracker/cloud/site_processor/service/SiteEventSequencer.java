@@ -0,0 +1,166 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.SequencerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class SiteEventSequencer {
+
+    private final SequencerProperties sequencerProperties;
+    private final Lane[] lanes;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter superseded;
+    private final Counter cancelled;
+    private final Counter rejected;
+
+    public SiteEventSequencer(SequencerProperties sequencerProperties, MeterRegistry meterRegistry) {
+        this.sequencerProperties = sequencerProperties;
+        this.lanes = new Lane[sequencerProperties.getLanes()];
+        for (int i = 0; i < lanes.length; i++)
+            lanes[i] = new Lane();
+        this.superseded = meterRegistry.counter("site.events.coalesced", "outcome", "superseded");
+        this.cancelled = meterRegistry.counter("site.events.coalesced", "outcome", "cancelled");
+        this.rejected = meterRegistry.counter("site.events.sequencer.rejected");
+        meterRegistry.gauge("site.events.sequencer.pending", pending);
+    }
+
+    public Mono<Void> submit(String siteId, SiteEventType eventType, Mono<Void> work) {
+        if (!sequencerProperties.isEnabled() || siteId == null || siteId.isEmpty())
+            return work;
+        return Mono.defer(() -> lanes[Math.floorMod(siteId.hashCode(), lanes.length)].submit(siteId, eventType, work));
+    }
+
+    private final class Lane {
+        private final Map<String, Deque<Task>> sites = new HashMap<>();
+        private int queued;
+
+        private Mono<Void> submit(String siteId, SiteEventType eventType, Mono<Void> work) {
+            Sinks.Empty<Void> waiter = Sinks.empty();
+            Task start = null;
+            List<Sinks.Empty<Void>> dropped = null;
+            synchronized (this) {
+                Deque<Task> queue = sites.get(siteId);
+                Task tail = queue == null ? null : queue.peekLast();
+                if (queue == null) {
+                    sites.put(siteId, new ArrayDeque<>());
+                    start = new Task(eventType, work, waiter);
+                } else if (tail != null && tail.eventType == SiteEventType.UPDATE && eventType == SiteEventType.UPDATE) {
+                    tail.work = work;
+                    tail.waiters.add(waiter);
+                    superseded.increment();
+                } else if (tail != null && tail.eventType == SiteEventType.CREATE && eventType == SiteEventType.DELETE) {
+                    queue.pollLast();
+                    queued--;
+                    pending.decrementAndGet();
+                    dropped = tail.waiters;
+                    dropped.add(waiter);
+                    cancelled.increment(2);
+                } else if (queued >= sequencerProperties.getMaxPendingPerLane()) {
+                    rejected.increment();
+                    return Mono.error(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many pending events for site lane."));
+                } else {
+                    queue.addLast(new Task(eventType, work, waiter));
+                    queued++;
+                    pending.incrementAndGet();
+                }
+            }
+            if (start != null)
+                run(siteId, start);
+            if (dropped != null)
+                dropped.forEach(Sinks.Empty::tryEmitEmpty);
+            return waiter.asMono();
+        }
+
+        private void run(String siteId, Task task) {
+            Task current = task;
+            while (current != null) {
+                var execution = new Execution(siteId, current);
+                current.work.subscribe(
+                        ignored -> { },
+                        execution::error,
+                        execution::complete);
+                current = execution.handOff();
+            }
+        }
+
+        private Task finish(String siteId, Task task, Throwable throwable) {
+            Task next;
+            synchronized (this) {
+                Deque<Task> queue = sites.get(siteId);
+                next = queue.pollFirst();
+                if (next == null) {
+                    sites.remove(siteId);
+                } else {
+                    queued--;
+                    pending.decrementAndGet();
+                }
+            }
+            for (Sinks.Empty<Void> waiter : task.waiters) {
+                if (throwable == null)
+                    waiter.tryEmitEmpty();
+                else
+                    waiter.tryEmitError(throwable);
+            }
+            return next;
+        }
+
+        private final class Execution {
+            private final String siteId;
+            private final Task task;
+            private final AtomicBoolean handedOff = new AtomicBoolean();
+            private Task next;
+
+            private Execution(String siteId, Task task) {
+                this.siteId = siteId;
+                this.task = task;
+            }
+
+            private void error(Throwable throwable) {
+                terminate(throwable);
+            }
+
+            private void complete() {
+                terminate(null);
+            }
+
+            // Work that completes inside subscribe() leaves its successor to the caller's loop instead of recursing.
+            private void terminate(Throwable throwable) {
+                next = finish(siteId, task, throwable);
+                if (!handedOff.compareAndSet(false, true) && next != null)
+                    run(siteId, next);
+            }
+
+            private Task handOff() {
+                return handedOff.compareAndSet(false, true) ? null : next;
+            }
+        }
+    }
+
+    private static final class Task {
+        private final SiteEventType eventType;
+        private final List<Sinks.Empty<Void>> waiters = new ArrayList<>(1);
+        private Mono<Void> work;
+
+        private Task(SiteEventType eventType, Mono<Void> work, Sinks.Empty<Void> waiter) {
+            this.eventType = eventType;
+            this.work = work;
+            this.waiters.add(waiter);
+        }
+    }
+}
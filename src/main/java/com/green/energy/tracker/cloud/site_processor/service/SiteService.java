@@ -7,4 +7,5 @@ public interface SiteService {
     Mono<Void> create(Site site);
     Mono<Void> update(Site site);
     Mono<Void> delete(String siteId);
+    Mono<Boolean> replay(SiteSpillover.SpilledEvent event);
 }
@@ -1,12 +1,21 @@
 package com.green.energy.tracker.cloud.site_processor.service;
 
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Transaction;
 import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties.DeleteMode;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties.UpdateMode;
 import com.green.energy.tracker.cloud.site_processor.model.GeoLocationWrite;
 import com.green.energy.tracker.cloud.site_processor.model.SiteMapper;
 import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteDocumentOperations;
 import com.green.energy.tracker.cloud.site_processor.repository.SiteRepository;
-import io.github.resilience4j.reactor.retry.RetryOperator;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteWritePipeline;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
 import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
@@ -15,6 +24,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
@@ -24,42 +40,203 @@ public class SiteServiceImpl implements SiteService{
     private final SiteRepository siteRepository;
     private final ReactiveCircuitBreaker cbFirestore;
     private final Retry retryFirestore;
+    private final TimeLimiter timeLimiterFirestoreRead;
+    private final TimeLimiter timeLimiterFirestoreWrite;
     private final SiteMapper siteMapper;
+    private final SiteWritePipeline siteWritePipeline;
+    private final SiteDocumentOperations siteDocumentOperations;
+    private final FirestoreWriteProperties firestoreWriteProperties;
+    private final SiteDocumentCache siteDocumentCache;
+    private final MissingSiteCache missingSiteCache;
+    private final SiteEventMetrics siteEventMetrics;
+    private final SiteEventBulkheads siteEventBulkheads;
+    private final HedgedReads hedgedReads;
+    private final RetryBudget retryBudget;
+    private final SiteSpillover siteSpillover;
 
     @Override
     public Mono<Void> create(Site site) {
         var siteWriteDocument = buildDocument(site);
-        return siteRepository.save(siteWriteDocument)
-                .transformDeferred(RetryOperator.of(retryFirestore))
-                .transformDeferred(mono-> fallbackCircuitBreaker(mono, cbFirestore, CB_FIRESTORE_ID, "save"))
-                .log()
-                .then();
+        Mono<Void> write = siteEventBulkheads.isolate(SiteEventType.CREATE, siteEventMetrics.timed(SiteEventMetrics.SAVE, SiteEventType.CREATE, siteWritePipeline.isEnabled()
+                ? writeDeadline(siteWritePipeline.create(siteWriteDocument)).then()
+                : writeDeadline(siteRepository.save(siteWriteDocument)).then()));
+        return spilling(SiteEventType.CREATE, site.getId(), site, missingSiteCache.forget(site.getId())
+                .then(write
+                        .transformDeferred(mono -> retryBudget.retry(SiteEventType.CREATE, retryFirestore, mono))
+                        .transformDeferred(mono-> fallbackCircuitBreaker(mono, cbFirestore, CB_FIRESTORE_ID, "save")))
+                .then(Mono.defer(() -> siteDocumentCache.invalidate(site.getId())))
+                .then());
     }
 
     @Override
     public Mono<Void> update(Site site) {
-        return siteRepository.findById(site.getId())
-                .transformDeferred(RetryOperator.of(retryFirestore))
-                .transformDeferred(mono-> fallbackCircuitBreaker(mono,cbFirestore,CB_FIRESTORE_ID,"update"))
-                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Site to update not found")))
-                .map(siteWriteDocument -> siteMapper.updateDoc(site, siteWriteDocument))
-                .flatMap(siteRepository::save)
-                .log()
-                .then();
+        return spilling(SiteEventType.UPDATE, site.getId(), site, unlessKnownMissing(site.getId(), "Site to update not found",
+                () -> updateDocument(site)));
     }
 
     @Override
     public Mono<Void> delete(String siteId) {
-        return siteRepository.findById(siteId)
-                .transformDeferred(RetryOperator.of(retryFirestore))
+        if (firestoreWriteProperties.getDeleteMode() == DeleteMode.BLIND)
+            return spilling(SiteEventType.DELETE, siteId, null, tombstoned(siteId, deleteDocument(siteId)));
+        return spilling(SiteEventType.DELETE, siteId, null, unlessKnownMissing(siteId, "Site to delete not found",
+                () -> tombstoned(siteId, deleteDocument(siteId))));
+    }
+
+    @Override
+    public Mono<Boolean> replay(SiteSpillover.SpilledEvent event) {
+        var stage = event.eventType() == SiteEventType.DELETE ? SiteEventMetrics.DELETE_BY_ID : SiteEventMetrics.SAVE;
+        Mono<Boolean> write = siteEventBulkheads.isolate(event.eventType(), siteEventMetrics.timed(stage, event.eventType(),
+                writeDeadline(siteDocumentOperations.writeUnlessNewer(event.siteId(), event.spilledAt(),
+                        (transaction, snapshot) -> replayed(event, transaction, snapshot)))));
+        return write
+                .transformDeferred(mono -> retryBudget.retry(event.eventType(), retryFirestore, mono))
+                .transformDeferred(mono-> fallbackCircuitBreaker(mono, cbFirestore, CB_FIRESTORE_ID, "replay"))
+                .flatMap(applied -> missingSiteCache.forget(event.siteId())
+                        .then(Mono.defer(() -> siteDocumentCache.invalidate(event.siteId())))
+                        .thenReturn(applied));
+    }
+
+    private boolean replayed(SiteSpillover.SpilledEvent event, Transaction transaction, DocumentSnapshot snapshot) {
+        switch (event.eventType()) {
+            case CREATE -> {
+                var siteWriteDocument = buildDocument(event.site());
+                siteWriteDocument.setUpdatedAt(Date.from(event.spilledAt()));
+                transaction.set(snapshot.getReference(), siteWriteDocument);
+            }
+            case UPDATE -> {
+                if (!snapshot.exists())
+                    return false;
+                Map<String, Object> fields = new HashMap<>(siteMapper.toUpdateFields(event.site()));
+                fields.put("updatedAt", Date.from(event.spilledAt()));
+                transaction.update(snapshot.getReference(), fields);
+            }
+            case DELETE -> {
+                if (!snapshot.exists())
+                    return false;
+                transaction.delete(snapshot.getReference());
+                siteDocumentOperations.tombstone(transaction, event.siteId(), event.spilledAt(), siteSpillover.tombstoneRetention());
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Mono<Void> updateDocument(Site site) {
+        if (siteWritePipeline.isEnabled())
+            return evicting(site.getId(), requireWritten(saved(SiteEventType.UPDATE, siteWritePipeline.update(site)), SiteEventType.UPDATE, "Site to update not found"));
+        if (firestoreWriteProperties.getUpdateMode() == UpdateMode.PRECONDITION)
+            return evicting(site.getId(), requireWritten(saved(SiteEventType.UPDATE, siteDocumentOperations.updateIfExists(site.getId(), siteMapper.toUpdateFields(site)).flatMap(EventFreshness::committed).hasElement()),
+                    SiteEventType.UPDATE, "Site to update not found"));
+        return Mono.defer(() -> {
+            var read = new AtomicBoolean();
+            return siteDocumentCache.get(site.getId(), id -> {
+                        read.set(true);
+                        return found(SiteEventType.UPDATE, id);
+                    })
+                    .transformDeferred(mono -> retryBudget.retry(SiteEventType.UPDATE, retryFirestore, mono))
+                    .transformDeferred(mono-> fallbackCircuitBreaker(mono,cbFirestore,CB_FIRESTORE_ID,"update"))
+                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Site to update not found")))
+                    .map(siteWriteDocument -> serverStamped(siteMapper.updateDoc(site, siteWriteDocument)))
+                    .flatMap(siteWriteDocument -> siteEventBulkheads.isolate(SiteEventType.UPDATE, siteEventMetrics.timed(SiteEventMetrics.SAVE, SiteEventType.UPDATE,
+                                    writeDeadline(read.get() ? siteRepository.save(siteWriteDocument) : updateCached(site, siteWriteDocument))))
+                            .onErrorResume(throwable -> siteDocumentCache.invalidate(site.getId()).then(Mono.error(throwable))))
+                    .flatMap(siteDocumentCache::put)
+                    .then();
+        });
+    }
+
+    // A cached document may belong to a site another instance has since deleted, so it is only written if the site still exists.
+    private Mono<SiteWriteDocument> updateCached(Site site, SiteWriteDocument siteWriteDocument) {
+        return siteDocumentOperations.updateIfExists(site.getId(), siteMapper.toUpdateFields(site))
+                .flatMap(EventFreshness::committed)
+                .thenReturn(siteWriteDocument)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Site to update not found")));
+    }
+
+    private Mono<Void> deleteDocument(String siteId) {
+        if (siteWritePipeline.isEnabled())
+            return evicting(siteId, requireWritten(deleted(siteWritePipeline.delete(siteId)), SiteEventType.DELETE, "Site to delete not found"));
+        if (firestoreWriteProperties.getDeleteMode() == DeleteMode.PRECONDITION)
+            return evicting(siteId, requireWritten(deleted(siteDocumentOperations.deleteIfExists(siteId).flatMap(EventFreshness::committed).hasElement()), SiteEventType.DELETE, "Site to delete not found"));
+        if (firestoreWriteProperties.getDeleteMode() == DeleteMode.BLIND)
+            return evicting(siteId, requireWritten(deleted(siteDocumentOperations.delete(siteId).flatMap(EventFreshness::committed).thenReturn(true)), SiteEventType.DELETE, "Site to delete not found"));
+        return siteDocumentCache.get(siteId, id -> found(SiteEventType.DELETE, id))
+                .transformDeferred(mono -> retryBudget.retry(SiteEventType.DELETE, retryFirestore, mono))
                 .transformDeferred(mono-> fallbackCircuitBreaker(mono,cbFirestore,CB_FIRESTORE_ID,"delete"))
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Site to delete not found")))
                 .map(SiteWriteDocument::getId)
-                .flatMap(siteRepository::deleteById)
-                .log();
+                .flatMap(id -> evicting(id, siteEventBulkheads.isolate(SiteEventType.DELETE, siteEventMetrics.timed(SiteEventMetrics.DELETE_BY_ID, SiteEventType.DELETE, writeDeadline(siteRepository.deleteById(id))))));
+    }
+
+    private Mono<SiteWriteDocument> found(SiteEventType eventType, String siteId) {
+        return siteEventBulkheads.isolate(eventType, siteEventMetrics.timed(SiteEventMetrics.FIND_BY_ID, eventType,
+                hedgedReads.read(() -> readDeadline(siteRepository.findById(siteId)))));
+    }
+
+    private Mono<Boolean> saved(SiteEventType eventType, Mono<Boolean> write) {
+        return siteEventBulkheads.isolate(eventType, siteEventMetrics.timed(SiteEventMetrics.SAVE, eventType, writeDeadline(write)));
+    }
+
+    private Mono<Boolean> deleted(Mono<Boolean> write) {
+        return siteEventBulkheads.isolate(SiteEventType.DELETE, siteEventMetrics.timed(SiteEventMetrics.DELETE_BY_ID, SiteEventType.DELETE, writeDeadline(write)));
+    }
+
+    private <T> Mono<T> readDeadline(Mono<T> call) {
+        return call.transformDeferred(TimeLimiterOperator.of(timeLimiterFirestoreRead));
+    }
+
+    private <T> Mono<T> writeDeadline(Mono<T> call) {
+        return call.transformDeferred(TimeLimiterOperator.of(timeLimiterFirestoreWrite));
+    }
+
+    private Mono<Void> unlessKnownMissing(String siteId, String notFoundReason, Supplier<Mono<Void>> write) {
+        return missingSiteCache.isMissing(siteId)
+                .flatMap(missing -> missing
+                        ? Mono.<Void>error(new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundReason))
+                        : write.get()
+                                .onErrorResume(ResponseStatusException.class, exception -> exception.getStatusCode() == HttpStatus.NOT_FOUND
+                                        ? missingSiteCache.markMissing(siteId).then(Mono.error(exception))
+                                        : Mono.error(exception)));
+    }
+
+    private Mono<Void> spilling(SiteEventType eventType, String siteId, Site site, Mono<Void> write) {
+        return siteSpillover.ordered(eventType, siteId, site,
+                write.onErrorResume(siteSpillover::accepts, throwable -> siteSpillover.spill(eventType, siteId, site, throwable)));
+    }
+
+    // A spilled CREATE or UPDATE replayed by any instance must not resurrect a site deleted after it was spilled.
+    private Mono<Void> tombstoned(String siteId, Mono<Void> delete) {
+        if (!siteSpillover.isEnabled())
+            return delete;
+        return delete.then(Mono.defer(() -> writeDeadline(siteDocumentOperations.tombstone(siteId, siteSpillover.tombstoneRetention())))
+                .transformDeferred(mono -> retryBudget.retry(SiteEventType.DELETE, retryFirestore, mono))
+                .transformDeferred(mono-> fallbackCircuitBreaker(mono, cbFirestore, CB_FIRESTORE_ID, "tombstone"))
+                .then());
+    }
+
+    private Mono<Void> evicting(String siteId, Mono<Void> write) {
+        return write
+                .onErrorResume(throwable -> siteDocumentCache.invalidate(siteId).then(Mono.error(throwable)))
+                .then(Mono.defer(() -> siteDocumentCache.invalidate(siteId)));
+    }
+
+    private SiteWriteDocument serverStamped(SiteWriteDocument siteWriteDocument) {
+        siteWriteDocument.setUpdatedAt(null);
+        return siteWriteDocument;
+    }
+
+    private Mono<Void> requireWritten(Mono<Boolean> write, SiteEventType eventType, String notFoundReason) {
+        return write
+                .transformDeferred(mono -> retryBudget.retry(eventType, retryFirestore, mono))
+                .transformDeferred(mono-> fallbackCircuitBreaker(mono,cbFirestore,CB_FIRESTORE_ID,eventType.name().toLowerCase(Locale.ROOT)))
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundReason)))
+                .then();
     }
 
-    private SiteWriteDocument buildDocument(Site site) {
+    SiteWriteDocument buildDocument(Site site) {
         return SiteWriteDocument.builder()
                 .id(site.getId())
                 .name(site.getName())
@@ -71,8 +248,10 @@ public class SiteServiceImpl implements SiteService{
 
     private <T> Mono<T> fallbackCircuitBreaker(Mono<T> it, ReactiveCircuitBreaker cb, String cbId,  String eventType){
         return cb.run(it, throwable -> {
+            if (throwable instanceof ResponseStatusException)
+                return Mono.error(throwable);
             log.error("{} Circuit Breaker is open for event type {}. Fallback initiated: {}", cbId, eventType, throwable.getMessage());
-            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Service is temporarily unavailable."));
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Service is temporarily unavailable.", throwable));
         });
     }
 }
@@ -0,0 +1,177 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import com.green.energy.tracker.cloud.site_processor.repository.SegmentLog;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class SiteSpillover {
+
+    private static final Set<String> VOLATILE_FILE_SYSTEMS = Set.of("tmpfs", "ramfs");
+    private final SpilloverProperties spilloverProperties;
+    private final Map<SiteEventType, Counter> appended = new EnumMap<>(SiteEventType.class);
+    private final Map<String, Integer> pendingBySite = new ConcurrentHashMap<>();
+    private final Counter rejected;
+    private volatile SegmentLog segmentLog;
+    private Disposable fsyncTimer;
+
+    public SiteSpillover(SpilloverProperties spilloverProperties, MeterRegistry meterRegistry) {
+        this.spilloverProperties = spilloverProperties;
+        for (SiteEventType eventType : new SiteEventType[]{SiteEventType.CREATE, SiteEventType.UPDATE, SiteEventType.DELETE})
+            appended.put(eventType, meterRegistry.counter("site.events.spillover.appended", "event_type", eventType.name()));
+        this.rejected = meterRegistry.counter("site.events.spillover.rejected");
+        Gauge.builder("site.events.spillover.segments", this, spillover -> spillover.segmentLog == null ? 0 : spillover.segmentLog.segmentCount())
+                .register(meterRegistry);
+        Gauge.builder("site.events.spillover.sites", pendingBySite, Map::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("site.events.spillover.corrupted", this, spillover -> spillover.segmentLog == null ? 0 : spillover.segmentLog.corruptedRecords())
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!spilloverProperties.isEnabled())
+            return;
+        var mappedBytes = spilloverProperties.getSegmentSize().toBytes() * spilloverProperties.getMaxSegments();
+        if (mappedBytes > spilloverProperties.getMaxMappedSize().toBytes())
+            throw new IllegalStateException("Spillover needs " + mappedBytes + " bytes of segments but max-mapped-size is "
+                    + spilloverProperties.getMaxMappedSize().toBytes());
+        var directory = Files.createDirectories(Path.of(spilloverProperties.getDirectory()));
+        var fileSystem = Files.getFileStore(directory).type();
+        if (VOLATILE_FILE_SYSTEMS.contains(fileSystem)) {
+            if (!spilloverProperties.isAllowVolatileDirectory())
+                throw new IllegalStateException("Spillover directory " + directory + " is on " + fileSystem
+                        + " and would not survive an instance restart");
+            log.warn("Spillover directory {} is on {}, spilled events are lost if the instance restarts", directory, fileSystem);
+        }
+        segmentLog = new SegmentLog(spilloverProperties);
+        for (long segmentId : segmentLog.segmentIds())
+            for (SpilledEvent event : read(segmentId))
+                pendingBySite.merge(event.siteId(), 1, Integer::sum);
+        if (spilloverProperties.getFsync() == SpilloverProperties.FsyncPolicy.INTERVAL)
+            fsyncTimer = Flux.interval(spilloverProperties.getFsyncInterval(), Schedulers.boundedElastic())
+                    .subscribe(tick -> segmentLog.sync());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (fsyncTimer != null)
+            fsyncTimer.dispose();
+        if (segmentLog != null)
+            segmentLog.close();
+    }
+
+    public boolean isEnabled() {
+        return segmentLog != null;
+    }
+
+    public Duration tombstoneRetention() {
+        return spilloverProperties.getTombstoneRetention();
+    }
+
+    public boolean accepts(Throwable throwable) {
+        return segmentLog != null
+                && throwable instanceof ResponseStatusException exception
+                && exception.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                && exception.getCause() instanceof CallNotPermittedException;
+    }
+
+    public Mono<Void> spill(SiteEventType eventType, String siteId, Site site, Throwable cause) {
+        return Mono.fromCallable(() -> segmentLog.append(encode(eventType, siteId, site, Instant.now())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(stored -> {
+                    if (!stored) {
+                        rejected.increment();
+                        return Mono.<Void>error(cause);
+                    }
+                    appended.get(eventType).increment();
+                    pendingBySite.merge(siteId, 1, Integer::sum);
+                    return Mono.<Void>empty();
+                });
+    }
+
+    public Mono<Void> ordered(SiteEventType eventType, String siteId, Site site, Mono<Void> write) {
+        return Mono.defer(() -> pendingBySite.containsKey(siteId)
+                ? spill(eventType, siteId, site, new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Spillover log is full."))
+                : write);
+    }
+
+    public void replayed(String siteId) {
+        pendingBySite.computeIfPresent(siteId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public boolean hasBacklog() {
+        return segmentLog != null && !segmentLog.isEmpty();
+    }
+
+    public List<Long> seal() throws IOException {
+        return segmentLog == null ? List.of() : segmentLog.seal();
+    }
+
+    public List<SpilledEvent> read(long segmentId) throws IOException {
+        var records = segmentLog.read(segmentId);
+        List<SpilledEvent> events = new ArrayList<>(records.size());
+        for (byte[] record : records)
+            events.add(decode(record));
+        return events;
+    }
+
+    public void compact(long segmentId) throws IOException {
+        segmentLog.compact(segmentId);
+    }
+
+    static byte[] encode(SiteEventType eventType, String siteId, Site site, Instant spilledAt) {
+        var body = eventType == SiteEventType.DELETE ? siteId.getBytes(StandardCharsets.UTF_8) : site.toByteArray();
+        return ByteBuffer.allocate(1 + Long.BYTES + body.length)
+                .put((byte) eventType.getNumber())
+                .putLong(spilledAt.toEpochMilli())
+                .put(body)
+                .array();
+    }
+
+    static SpilledEvent decode(byte[] record) throws InvalidProtocolBufferException {
+        var buffer = ByteBuffer.wrap(record);
+        var eventType = SiteEventType.forNumber(buffer.get());
+        var spilledAt = Instant.ofEpochMilli(buffer.getLong());
+        var body = new byte[buffer.remaining()];
+        buffer.get(body);
+        if (eventType == SiteEventType.DELETE)
+            return new SpilledEvent(eventType, new String(body, StandardCharsets.UTF_8), null, spilledAt);
+        var site = Site.parseFrom(body);
+        return new SpilledEvent(eventType, site.getId(), site, spilledAt);
+    }
+
+    public record SpilledEvent(SiteEventType eventType, String siteId, Site site, Instant spilledAt) { }
+}
@@ -0,0 +1,134 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@Slf4j
+public class SpilloverReplayer {
+
+    private static final String CB_FIRESTORE_ID = "firestore";
+    private final SiteSpillover siteSpillover;
+    private final SiteService siteService;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final SpilloverProperties spilloverProperties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private final Map<Long, BitSet> replayedRecords = new ConcurrentHashMap<>();
+    private final Counter replayed;
+    private final Counter stale;
+    private final Counter dropped;
+
+    public SpilloverReplayer(SiteSpillover siteSpillover, SiteService siteService, CircuitBreakerRegistry circuitBreakerRegistry,
+                             SpilloverProperties spilloverProperties, MeterRegistry meterRegistry) {
+        this.siteSpillover = siteSpillover;
+        this.siteService = siteService;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.spilloverProperties = spilloverProperties;
+        this.replayed = meterRegistry.counter("site.events.spillover.replayed", "outcome", "success");
+        this.stale = meterRegistry.counter("site.events.spillover.replayed", "outcome", "stale");
+        this.dropped = meterRegistry.counter("site.events.spillover.replayed", "outcome", "rejected");
+    }
+
+    @PostConstruct
+    public void bind() {
+        if (!spilloverProperties.isEnabled())
+            return;
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker(CB_FIRESTORE_ID);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            if (admits(event.getStateTransition().getToState()))
+                trigger();
+        });
+        if (siteSpillover.hasBacklog() && admits(circuitBreaker.getState()))
+            trigger();
+    }
+
+    public void trigger() {
+        requested.set(true);
+        if (!running.compareAndSet(false, true))
+            return;
+        requested.set(false);
+        replay()
+                .doFinally(signal -> {
+                    running.set(false);
+                    if (requested.get() || signal == SignalType.ON_COMPLETE && siteSpillover.hasBacklog()
+                            && admits(circuitBreakerRegistry.circuitBreaker(CB_FIRESTORE_ID).getState()))
+                        trigger();
+                })
+                .subscribe(ignored -> { }, throwable -> log.warn("Spillover replay paused: {}", throwable.getMessage()));
+    }
+
+    Mono<Void> replay() {
+        return Mono.fromCallable(siteSpillover::seal)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(this::replaySegment)
+                .then();
+    }
+
+    // Replayed events are the half-open probes when every live event for a backlogged site is being spilled.
+    private static boolean admits(CircuitBreaker.State state) {
+        return state == CircuitBreaker.State.CLOSED || state == CircuitBreaker.State.HALF_OPEN;
+    }
+
+    private Mono<Void> replaySegment(long segmentId) {
+        var parallelism = spilloverProperties.getReplayParallelism();
+        var done = replayedRecords.computeIfAbsent(segmentId, id -> new BitSet());
+        return Mono.fromCallable(() -> siteSpillover.read(segmentId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .index()
+                .filter(record -> !isDone(done, record.getT1()))
+                .groupBy(record -> Math.floorMod(record.getT2().siteId().hashCode(), parallelism))
+                .flatMap(lane -> lane.concatMap(record -> replayEvent(record.getT2())
+                        .doOnSuccess(ignored -> markDone(done, record.getT1()))), parallelism)
+                .then(Mono.fromCallable(() -> {
+                    siteSpillover.compact(segmentId);
+                    replayedRecords.remove(segmentId);
+                    log.info("Spillover segment {} replayed and compacted", segmentId);
+                    return segmentId;
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    private Mono<Void> replayEvent(SiteSpillover.SpilledEvent event) {
+        return siteService.replay(event)
+                .doOnNext(applied -> (applied ? replayed : stale).increment())
+                .then()
+                .onErrorResume(throwable -> throwable instanceof ResponseStatusException exception && exception.getStatusCode().is4xxClientError(),
+                        throwable -> {
+                            dropped.increment();
+                            log.warn("Spilled {} event for site {} rejected on replay: {}", event.eventType(), event.siteId(), throwable.getMessage());
+                            return Mono.empty();
+                        })
+                .doOnSuccess(ignored -> siteSpillover.replayed(event.siteId()));
+    }
+
+    private static boolean isDone(BitSet done, long index) {
+        synchronized (done) {
+            return done.get(Math.toIntExact(index));
+        }
+    }
+
+    private static void markDone(BitSet done, long index) {
+        synchronized (done) {
+            done.set(Math.toIntExact(index));
+        }
+    }
+}
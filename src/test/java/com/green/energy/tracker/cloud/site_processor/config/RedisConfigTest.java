@@ -0,0 +1,33 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import com.green.energy.tracker.cloud.site_processor.model.GeoLocationWrite;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RedisConfigTest {
+
+    private final RedisConfig redisConfig = new RedisConfig();
+
+    @Test
+    void siteDocumentRedisTemplate_shouldRoundTripDocumentsAsJson() {
+        ReactiveRedisTemplate<String, SiteWriteDocument> template = redisConfig.siteDocumentRedisTemplate(
+                mock(ReactiveRedisConnectionFactory.class), new ObjectMapperConfig().objectMapper());
+        SiteWriteDocument document = SiteWriteDocument.builder()
+                .id("site-123")
+                .name("Test Site")
+                .location(GeoLocationWrite.builder().latitude(40.7128).longitude(-74.0060).build())
+                .build();
+
+        ByteBuffer serialized = template.getSerializationContext().getValueSerializationPair().write(document);
+        SiteWriteDocument deserialized = template.getSerializationContext().getValueSerializationPair().read(serialized);
+
+        assertThat(deserialized).isEqualTo(document);
+    }
+}
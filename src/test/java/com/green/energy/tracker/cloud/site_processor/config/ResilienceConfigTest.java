@@ -2,6 +2,8 @@ package com.green.energy.tracker.cloud.site_processor.config;
 
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,17 +24,23 @@ class ResilienceConfigTest {
     @Mock
     private RetryRegistry retryRegistry;
 
+    @Mock
+    private TimeLimiterRegistry timeLimiterRegistry;
+
     @Mock
     private ReactiveCircuitBreaker mockCircuitBreaker;
 
     @Mock
     private Retry mockRetry;
 
+    @Mock
+    private TimeLimiter mockTimeLimiter;
+
     private ResilienceConfig resilienceConfig;
 
     @BeforeEach
     void setUp() {
-        resilienceConfig = new ResilienceConfig(circuitBreakerFactory, retryRegistry);
+        resilienceConfig = new ResilienceConfig(circuitBreakerFactory, retryRegistry, timeLimiterRegistry);
     }
 
     @Test
@@ -51,6 +59,30 @@ class ResilienceConfigTest {
         verify(retryRegistry).retry("firestore");
     }
 
+    @Test
+    void retryCache_shouldCreateRetryWithCacheName() {
+        when(retryRegistry.retry("cache")).thenReturn(mockRetry);
+        Retry result = resilienceConfig.retryCache();
+        assertThat(result).isNotNull().isSameAs(mockRetry);
+        verify(retryRegistry).retry("cache");
+    }
+
+    @Test
+    void timeLimiterFirestoreRead_shouldCreateTimeLimiterWithFirestoreReadName() {
+        when(timeLimiterRegistry.timeLimiter("firestore-read")).thenReturn(mockTimeLimiter);
+        TimeLimiter result = resilienceConfig.timeLimiterFirestoreRead();
+        assertThat(result).isNotNull().isSameAs(mockTimeLimiter);
+        verify(timeLimiterRegistry).timeLimiter("firestore-read");
+    }
+
+    @Test
+    void timeLimiterFirestoreWrite_shouldCreateTimeLimiterWithFirestoreWriteName() {
+        when(timeLimiterRegistry.timeLimiter("firestore-write")).thenReturn(mockTimeLimiter);
+        TimeLimiter result = resilienceConfig.timeLimiterFirestoreWrite();
+        assertThat(result).isNotNull().isSameAs(mockTimeLimiter);
+        verify(timeLimiterRegistry).timeLimiter("firestore-write");
+    }
+
     @Test
     void circuitBreakerFirestore_shouldReturnSameInstanceOnMultipleCalls() {
         when(circuitBreakerFactory.create("firestore")).thenReturn(mockCircuitBreaker);
@@ -0,0 +1,69 @@
+package com.green.energy.tracker.cloud.site_processor.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResilienceMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryRegistry retryRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .build());
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        new ResilienceMetrics(retryRegistry, circuitBreakerRegistry, meterRegistry).bind();
+    }
+
+    @Test
+    void bind_shouldCountRetryAttemptsAndOutcomes() {
+        Retry retry = retryRegistry.retry("firestore");
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(Mono.fromCallable(() -> {
+                            if (calls.incrementAndGet() < 2)
+                                throw new IOException("transient");
+                            return "ok";
+                        })
+                        .transformDeferred(RetryOperator.of(retry)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("site.resilience.retry.attempts").tag("name", "firestore").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("site.resilience.retry.calls").tags("name", "firestore", "outcome", "success_after_retry")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bind_shouldTrackCircuitBreakerStateTransitions() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("firestore");
+
+        circuitBreaker.transitionToOpenState();
+
+        assertThat(meterRegistry.get("site.resilience.circuitbreaker.transitions")
+                .tags("name", "firestore", "from", "CLOSED", "to", "OPEN")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("site.resilience.circuitbreaker.state").tag("name", "firestore").gauge().value())
+                .isEqualTo(CircuitBreaker.State.OPEN.getOrder());
+    }
+}
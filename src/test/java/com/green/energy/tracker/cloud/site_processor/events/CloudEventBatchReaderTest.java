@@ -0,0 +1,87 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CloudEventBatchReaderTest {
+
+    private BatchProperties batchProperties;
+    private CloudEventBatchReader reader;
+
+    @BeforeEach
+    void setUp() {
+        batchProperties = new BatchProperties();
+        reader = new CloudEventBatchReader(batchProperties);
+    }
+
+    @Test
+    void split_withJsonBatch_shouldReturnEachEventVerbatim() throws IOException {
+        byte[] body = "[ {\"id\":\"1\",\"data\":{\"a\":[1,2]}} , {\"id\":\"2\"} ]".getBytes();
+
+        List<byte[]> events = reader.split(body, CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON);
+
+        assertThat(events).hasSize(2);
+        assertThat(new String(events.get(0))).isEqualTo("{\"id\":\"1\",\"data\":{\"a\":[1,2]}}");
+        assertThat(new String(events.get(1))).isEqualTo("{\"id\":\"2\"}");
+    }
+
+    @Test
+    void split_withEmptyJsonBatch_shouldReturnNoEvents() throws IOException {
+        assertThat(reader.split("[]".getBytes(), CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON)).isEmpty();
+    }
+
+    @Test
+    void split_withNdjson_shouldSkipBlankLines() throws IOException {
+        byte[] body = "{\"id\":\"1\"}\r\n\n{\"id\":\"2\"}".getBytes();
+
+        List<byte[]> events = reader.split(body, MediaType.APPLICATION_NDJSON);
+
+        assertThat(events.stream().map(String::new).toList()).containsExactly("{\"id\":\"1\"}", "{\"id\":\"2\"}");
+    }
+
+    @Test
+    void split_withJsonObjectInsteadOfArray_shouldReturnBadRequest() {
+        assertThatThrownBy(() -> reader.split("{\"id\":\"1\"}".getBytes(), CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON))
+                .isInstanceOf(ResponseStatusException.class)
+                .matches(throwable -> ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void split_withNonObjectEntry_shouldReturnBadRequest() {
+        assertThatThrownBy(() -> reader.split("[{\"id\":\"1\"}, 42]".getBytes(), CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON))
+                .isInstanceOf(ResponseStatusException.class)
+                .matches(throwable -> ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void split_whenBatchExceedsMaxEvents_shouldReturnPayloadTooLarge() {
+        batchProperties.setMaxEvents(1);
+
+        assertThatThrownBy(() -> reader.split("[{\"id\":\"1\"},{\"id\":\"2\"}]".getBytes(), CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON))
+                .isInstanceOf(ResponseStatusException.class)
+                .matches(throwable -> ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @Test
+    void bodyDecoder_shouldOnlyApplyToBatchMediaTypesWithBatchLimit() {
+        batchProperties.setMaxBodySize(DataSize.ofMegabytes(4));
+
+        var decoder = CloudEventBatchReader.bodyDecoder(batchProperties);
+
+        assertThat(decoder.getMaxInMemorySize()).isEqualTo(4 * 1024 * 1024);
+        assertThat(decoder.canDecode(ResolvableType.forClass(byte[].class), CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(byte[].class), MediaType.APPLICATION_NDJSON)).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(byte[].class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(decoder.canDecode(ResolvableType.forClass(byte[].class), MediaType.APPLICATION_OCTET_STREAM)).isFalse();
+    }
+}
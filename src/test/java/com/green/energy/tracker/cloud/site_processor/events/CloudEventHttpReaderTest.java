@@ -0,0 +1,178 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.CloudEventCodecProperties;
+import io.cloudevents.CloudEvent;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CloudEventHttpReaderTest {
+
+    private static final ResolvableType CLOUD_EVENT = ResolvableType.forClass(CloudEvent.class);
+    private static final String DATA = "{\"message\":{\"data\":\"AQID\",\"messageId\":\"message-1\"}}";
+    private static final String STRUCTURED = "{\"specversion\":\"1.0\",\"id\":\"event-1\",\"source\":\"//pubsub.googleapis.com/test\","
+            + "\"type\":\"google.cloud.pubsub.topic.v1.messagePublished\",\"datacontenttype\":\"application/json\","
+            + "\"attempt\":3,\"data\":" + DATA + "}";
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(new UnpooledByteBufAllocator(false));
+    private final List<ByteBuf> allocated = new ArrayList<>();
+    private CloudEventCodecProperties properties;
+    private CloudEventHttpReader reader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CloudEventCodecProperties();
+        reader = new CloudEventHttpReader(properties);
+    }
+
+    @Test
+    void canRead_shouldOnlyAcceptCloudEvents() {
+        assertThat(reader.canRead(CLOUD_EVENT, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(reader.canRead(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    @Test
+    void readMono_withStructuredEvent_shouldExposeDataAsReadOnlyViewOfRequestBuffer() {
+        var request = MockServerHttpRequest.post("/events")
+                .contentType(CloudEventHttpReader.CLOUDEVENTS_JSON)
+                .body(Flux.just(buffer(STRUCTURED)));
+
+        StepVerifier.create(reader.readMono(CLOUD_EVENT, request, Map.of()))
+                .assertNext(event -> {
+                    assertThat(event.getId()).isEqualTo("event-1");
+                    assertThat(event.getType()).isEqualTo("google.cloud.pubsub.topic.v1.messagePublished");
+                    assertThat(event.getDataContentType()).isEqualTo("application/json");
+                    assertThat(event.getExtension("attempt")).isEqualTo(3);
+                    assertThat(event.getData()).isInstanceOf(ByteBufferCloudEventData.class);
+                    ByteBuffer view = ((ByteBufferCloudEventData) event.getData()).asByteBuffer();
+                    assertThat(view.isReadOnly()).isTrue();
+                    assertThat(StandardCharsets.UTF_8.decode(view).toString()).isEqualTo(DATA);
+                    assertThat(allocated.get(0).refCnt()).isEqualTo(1);
+
+                    ByteBufferCloudEventData.release(event);
+                    assertThat(allocated.get(0).refCnt()).isZero();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void readMono_withStructuredEventSplitAcrossChunks_shouldReassembleBody() {
+        var request = MockServerHttpRequest.post("/events")
+                .contentType(CloudEventHttpReader.CLOUDEVENTS_JSON)
+                .body(Flux.just(buffer(STRUCTURED.substring(0, 40)), buffer(STRUCTURED.substring(40, 100)), buffer(STRUCTURED.substring(100))));
+
+        StepVerifier.create(reader.readMono(CLOUD_EVENT, request, Map.of()))
+                .assertNext(event -> {
+                    assertThat(new String(event.getData().toBytes(), StandardCharsets.UTF_8)).isEqualTo(DATA);
+                    ByteBufferCloudEventData.release(event);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void readMono_withBase64Data_shouldDecodeAndReleaseBufferImmediately() {
+        String body = "{\"specversion\":\"1.0\",\"id\":\"event-1\",\"source\":\"test\",\"type\":\"test\",\"data_base64\":\"AQID\"}";
+        var request = MockServerHttpRequest.post("/events")
+                .contentType(CloudEventHttpReader.CLOUDEVENTS_JSON)
+                .body(Flux.just(buffer(body)));
+
+        StepVerifier.create(reader.readMono(CLOUD_EVENT, request, Map.of()))
+                .assertNext(event -> {
+                    assertThat(event.getData().toBytes()).containsExactly(1, 2, 3);
+                    assertThat(allocated.get(0).refCnt()).isZero();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void readMono_withBinaryEvent_shouldMapHeadersAndUseBodyAsData() {
+        byte[] payload = {0x0A, 0x08, 0x73, 0x69, 0x74, 0x65, 0x2D, 0x31, 0x32, 0x33};
+        var request = MockServerHttpRequest.post("/events")
+                .contentType(MediaType.parseMediaType("application/protobuf"))
+                .header("ce-specversion", "1.0")
+                .header("ce-id", "event-2")
+                .header("ce-source", "//site-publisher")
+                .header("ce-type", "com.green.energy.tracker.site.v1.created")
+                .header("ce-eventtype", "CREATE")
+                .header("ce-subject", "site%20123")
+                .body(Flux.just(bufferFactory.wrap(payload)));
+
+        StepVerifier.create(reader.readMono(CLOUD_EVENT, request, Map.of()))
+                .assertNext(event -> {
+                    assertThat(event.getId()).isEqualTo("event-2");
+                    assertThat(event.getDataContentType()).isEqualTo("application/protobuf");
+                    assertThat(event.getExtension("eventtype")).isEqualTo("CREATE");
+                    assertThat(event.getSubject()).isEqualTo("site 123");
+                    assertThat(event.getData().toBytes()).isEqualTo(payload);
+                    ByteBufferCloudEventData.release(event);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void readMono_withBodyOverLimit_shouldRejectWithPayloadTooLarge() {
+        properties.setMaxBodySize(DataSize.ofBytes(16));
+        var request = MockServerHttpRequest.post("/events")
+                .contentType(CloudEventHttpReader.CLOUDEVENTS_JSON)
+                .body(Flux.just(buffer(STRUCTURED)));
+
+        StepVerifier.create(reader.readMono(CLOUD_EVENT, request, Map.of()))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.PAYLOAD_TOO_LARGE)
+                .verify();
+    }
+
+    @Test
+    void readMono_withoutCloudEventMarkers_shouldRejectWithUnsupportedMediaType() {
+        var request = MockServerHttpRequest.post("/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.just(buffer(DATA)));
+
+        StepVerifier.create(reader.readMono(CLOUD_EVENT, request, Map.of()))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .verify();
+
+        assertThat(allocated.get(0).refCnt()).isZero();
+    }
+
+    @Test
+    void readMono_withMalformedStructuredEvent_shouldRejectWithBadRequestAndReleaseBuffer() {
+        var request = MockServerHttpRequest.post("/events")
+                .contentType(CloudEventHttpReader.CLOUDEVENTS_JSON)
+                .body(Flux.just(buffer("{\"id\":\"event-1\",\"data\":{}}")));
+
+        StepVerifier.create(reader.readMono(CLOUD_EVENT, request, Map.of()))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.BAD_REQUEST)
+                .verify();
+
+        assertThat(allocated.get(0).refCnt()).isZero();
+    }
+
+    private DataBuffer buffer(String content) {
+        NettyDataBuffer buffer = bufferFactory.wrap(content.getBytes(StandardCharsets.UTF_8));
+        allocated.add(buffer.getNativeBuffer());
+        return buffer;
+    }
+}
@@ -0,0 +1,129 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitFilterTest {
+
+    @Mock
+    private ConcurrencyLimiter concurrencyLimiter;
+
+    @Mock
+    private WebFilterChain chain;
+
+    private ConcurrencyLimitProperties properties;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        filter = new ConcurrencyLimitFilter(concurrencyLimiter, properties);
+    }
+
+    @Test
+    void filter_whenLimitReached_shouldAnswerTooManyRequestsWithoutCallingChain() {
+        when(concurrencyLimiter.tryAcquire()).thenReturn(false);
+
+        StepVerifier.create(filter.filter(events(), chain))
+                .expectErrorSatisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode())
+                        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS))
+                .verify();
+
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void filter_onSuccess_shouldReleaseAsNotDropped() {
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(filter.filter(events(), chain))
+                .verifyComplete();
+
+        verify(concurrencyLimiter).release(false);
+    }
+
+    @Test
+    void filter_onServerError_shouldReleaseAsDropped() {
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+        when(chain.filter(any())).thenReturn(Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        StepVerifier.create(filter.filter(events(), chain))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(concurrencyLimiter).release(true);
+    }
+
+    @Test
+    void filter_onClientError_shouldNotCountAsDropped() {
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+        when(chain.filter(any())).thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+
+        StepVerifier.create(filter.filter(events(), chain))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(concurrencyLimiter).release(false);
+    }
+
+    @Test
+    void filter_onCancel_shouldReleaseWithoutBackingOff() {
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+        when(chain.filter(any())).thenReturn(Mono.never());
+
+        StepVerifier.create(filter.filter(events(), chain))
+                .thenCancel()
+                .verify();
+
+        verify(concurrencyLimiter).release();
+        verify(concurrencyLimiter, never()).release(anyBoolean());
+    }
+
+    @Test
+    void filter_forBatchEndpoint_shouldAlsoBeLimited() {
+        when(concurrencyLimiter.tryAcquire()).thenReturn(false);
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/events/batch")), chain))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void filter_forOtherPathsOrWhenDisabled_shouldBypassLimiter() {
+        when(chain.filter(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/eventsource")), chain))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/events")), chain))
+                .verifyComplete();
+        properties.setEnabled(false);
+        StepVerifier.create(filter.filter(events(), chain))
+                .verifyComplete();
+
+        verifyNoInteractions(concurrencyLimiter);
+    }
+
+    private MockServerWebExchange events() {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/events"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitProperties properties;
+    private ConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(6);
+        properties.setBackoffRatio(0.5);
+        properties.setLatencyThreshold(Duration.ofMillis(100));
+        limiter = new ConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void tryAcquire_beyondLimit_shouldRejectAndCount() {
+        for (int i = 0; i < 4; i++)
+            assertThat(limiter.tryAcquire()).isTrue();
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(meterRegistry.get("site.events.concurrency.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("site.events.concurrency.in.flight").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void onFirestoreLatency_whenSlow_shouldBackOffMultiplicatively() {
+        limiter.onFirestoreLatency(SLOW);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(meterRegistry.get("site.events.concurrency.limit").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void onFirestoreLatency_withBurstOfSlowSamples_shouldBackOffOncePerThreshold() throws InterruptedException {
+        properties.setInitialLimit(16);
+        limiter = new ConcurrencyLimiter(properties, meterRegistry);
+
+        for (int i = 0; i < 100; i++)
+            limiter.onFirestoreLatency(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        Thread.sleep(150);
+        limiter.onFirestoreLatency(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void release_withDroppedRequest_shouldBackOff() {
+        limiter.tryAcquire();
+        limiter.release(true);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void release_withoutFirestoreSamples_shouldNotChangeLimit() {
+        for (int round = 0; round < 50; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire())
+                acquired++;
+            for (int i = 0; i < acquired; i++)
+                limiter.release(false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void onFirestoreLatency_whenFastAndSaturated_shouldIncreaseAdditivelyUpToMaximum() {
+        for (int round = 0; round < 50; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire())
+                acquired++;
+            for (int i = 0; i < acquired; i++)
+                limiter.onFirestoreLatency(FAST);
+            for (int i = 0; i < acquired; i++)
+                limiter.release(false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(6);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void onFirestoreLatency_whenFastButIdle_shouldNotGrowLimit() {
+        for (int i = 0; i < 100; i++)
+            limiter.onFirestoreLatency(FAST);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+}
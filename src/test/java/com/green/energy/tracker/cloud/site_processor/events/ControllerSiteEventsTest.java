@@ -1,20 +1,34 @@
 package com.green.energy.tracker.cloud.site_processor.events;
 
+import com.green.energy.tracker.cloud.site_processor.config.AsyncProcessingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import com.green.energy.tracker.cloud.site_processor.config.ShutdownProperties;
+import com.green.energy.tracker.cloud.site_processor.model.SiteEventResult;
 import com.green.energy.tracker.cloud.site_processor.service.CloudEventManagementService;
 import io.cloudevents.CloudEvent;
 import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.PooledDataBuffer;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -24,11 +38,17 @@ class ControllerSiteEventsTest {
     @Mock
     private CloudEventManagementService cloudEventManagementService;
 
+    private AsyncProcessingProperties asyncProcessingProperties;
+    private SiteEventQueue siteEventQueue;
+    private PayloadBudget payloadBudget;
     private ControllerSiteEvents controller;
 
     @BeforeEach
     void setUp() {
-        controller = new ControllerSiteEvents(cloudEventManagementService);
+        asyncProcessingProperties = new AsyncProcessingProperties();
+        siteEventQueue = new SiteEventQueue(asyncProcessingProperties, new ShutdownWindow(new ShutdownProperties()), new SimpleMeterRegistry());
+        payloadBudget = new PayloadBudget(new PayloadBudgetProperties(), new SimpleMeterRegistry());
+        controller = new ControllerSiteEvents(cloudEventManagementService, new CloudEventBatchReader(new BatchProperties()), siteEventQueue, payloadBudget);
     }
 
     @Test
@@ -161,6 +181,137 @@ class ControllerSiteEventsTest {
                 .verifyComplete();
     }
 
+    @Test
+    void handleSiteEvents_shouldReleaseRequestBufferWhenProcessingCompletes() throws IOException {
+        PooledDataBuffer buffer = mock(PooledDataBuffer.class);
+        when(buffer.isAllocated()).thenReturn(true);
+        CloudEvent cloudEvent = createPooledCloudEvent(buffer);
+
+        when(cloudEventManagementService.handleSiteEvents(cloudEvent)).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        Mono<ResponseEntity<Void>> result = controller.handleSiteEvents(cloudEvent);
+        verify(buffer, never()).release();
+
+        StepVerifier.create(result)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(buffer).release();
+    }
+
+    @Test
+    void handleSiteEvents_whenServiceThrows_shouldReleaseRequestBuffer() throws IOException {
+        PooledDataBuffer buffer = mock(PooledDataBuffer.class);
+        when(buffer.isAllocated()).thenReturn(true);
+        CloudEvent cloudEvent = createPooledCloudEvent(buffer);
+
+        when(cloudEventManagementService.handleSiteEvents(cloudEvent)).thenThrow(new IOException("Malformed envelope"));
+
+        assertThatThrownBy(() -> controller.handleSiteEvents(cloudEvent)).isInstanceOf(IOException.class);
+
+        verify(buffer).release();
+    }
+
+    @Test
+    void handleSiteEvents_inAsyncMode_shouldAcceptBeforeProcessingCompletes() throws IOException {
+        asyncProcessingProperties.setEnabled(true);
+        Sinks.One<ResponseEntity<Void>> processing = Sinks.one();
+        CloudEvent cloudEvent = createTestCloudEvent();
+
+        when(cloudEventManagementService.handleSiteEvents(cloudEvent)).thenReturn(processing.asMono());
+
+        StepVerifier.create(controller.handleSiteEvents(cloudEvent))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED))
+                .verifyComplete();
+
+        assertThat(siteEventQueue.depth()).isEqualTo(1);
+    }
+
+    @Test
+    void handleSiteEvents_inAsyncMode_shouldKeepPayloadChargedUntilQueuedEventIsProcessed() throws IOException {
+        asyncProcessingProperties.setEnabled(true);
+        Sinks.One<ResponseEntity<Void>> processing = Sinks.one();
+        CloudEvent cloudEvent = createTestCloudEvent();
+
+        when(cloudEventManagementService.handleSiteEvents(cloudEvent)).thenReturn(processing.asMono());
+        siteEventQueue.start();
+
+        StepVerifier.create(controller.handleSiteEvents(cloudEvent))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED))
+                .verifyComplete();
+
+        assertThat(payloadBudget.getReserved()).isEqualTo("{\"message\":{}}".length());
+
+        processing.tryEmitValue(ResponseEntity.ok().build());
+        siteEventQueue.stop();
+
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+
+    @Test
+    void handleSiteEvents_inAsyncModeWhenQueueRejects_shouldReleaseRequestBuffer() throws IOException {
+        asyncProcessingProperties.setEnabled(true);
+        asyncProcessingProperties.setQueueCapacity(0);
+        PooledDataBuffer buffer = mock(PooledDataBuffer.class);
+        when(buffer.isAllocated()).thenReturn(true);
+        CloudEvent cloudEvent = createPooledCloudEvent(buffer);
+
+        when(cloudEventManagementService.handleSiteEvents(cloudEvent)).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        StepVerifier.create(controller.handleSiteEvents(cloudEvent))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+                .verify();
+
+        verify(buffer).release();
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+
+    @Test
+    void handleSiteEventsBatch_whenAllEventsSucceed_shouldReturnOkWithResults() throws IOException {
+        byte[] body = "[{\"id\":\"event-1\"},{\"id\":\"event-2\"}]".getBytes();
+        List<SiteEventResult> results = List.of(
+                SiteEventResult.builder().index(0).id("event-1").status(200).build(),
+                SiteEventResult.builder().index(1).id("event-2").status(202).build());
+
+        when(cloudEventManagementService.handleSiteEventsBatch(anyList())).thenReturn(Mono.just(results));
+
+        StepVerifier.create(controller.handleSiteEventsBatch(CloudEventBatchReader.CLOUDEVENTS_BATCH_JSON, body))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    assertThat(response.getBody()).isEqualTo(results);
+                })
+                .verifyComplete();
+
+        verify(cloudEventManagementService).handleSiteEventsBatch(argThat(events -> events.size() == 2));
+    }
+
+    @Test
+    void handleSiteEventsBatch_whenSomeEventsFail_shouldReturnMultiStatus() throws IOException {
+        byte[] body = "{\"id\":\"event-1\"}\n{\"id\":\"event-2\"}\n".getBytes();
+        List<SiteEventResult> results = List.of(
+                SiteEventResult.builder().index(0).id("event-1").status(200).build(),
+                SiteEventResult.builder().index(1).id("event-2").status(404).reason("Site to update not found").build());
+
+        when(cloudEventManagementService.handleSiteEventsBatch(anyList())).thenReturn(Mono.just(results));
+
+        StepVerifier.create(controller.handleSiteEventsBatch(MediaType.APPLICATION_NDJSON, body))
+                .assertNext(response -> {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+                    assertThat(response.getBody()).hasSize(2);
+                })
+                .verifyComplete();
+    }
+
+    private CloudEvent createPooledCloudEvent(PooledDataBuffer buffer) {
+        return CloudEventBuilder.v1()
+                .withId("pooled-event")
+                .withSource(URI.create("//pubsub.googleapis.com/projects/test-project/topics/test-topic"))
+                .withType("google.cloud.pubsub.topic.v1.messagePublished")
+                .withData(new ByteBufferCloudEventData(ByteBuffer.wrap("{}".getBytes()), buffer, mock(DataBuffer.ByteBufferIterator.class)))
+                .build();
+    }
+
     private CloudEvent createTestCloudEvent() {
         return createTestCloudEventWithId("test-event-id");
     }
@@ -0,0 +1,104 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import com.green.energy.tracker.cloud.site_processor.config.CloudEventCodecProperties;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadBudgetFilterTest {
+
+    @Mock
+    private WebFilterChain chain;
+
+    private PayloadBudget payloadBudget;
+    private PayloadBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new PayloadBudgetProperties();
+        properties.setMaxBytes(DataSize.ofBytes(1000));
+        var codecProperties = new CloudEventCodecProperties();
+        codecProperties.setMaxBodySize(DataSize.ofBytes(800));
+        var batchProperties = new BatchProperties();
+        batchProperties.setMaxBodySize(DataSize.ofBytes(950));
+        payloadBudget = new PayloadBudget(properties, new SimpleMeterRegistry());
+        filter = new PayloadBudgetFilter(payloadBudget, properties, codecProperties, batchProperties);
+    }
+
+    @Test
+    void filter_shouldHoldContentLengthUntilExchangeCompletes() {
+        when(chain.filter(any())).thenReturn(Mono.fromRunnable(() -> assertThat(payloadBudget.getReserved()).isEqualTo(300)));
+
+        StepVerifier.create(filter.filter(events(300), chain))
+                .verifyComplete();
+
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+
+    @Test
+    void filter_whenBudgetTaken_shouldAnswerTooManyRequests() {
+        payloadBudget.tryReserve(900);
+
+        StepVerifier.create(filter.filter(events(300), chain))
+                .expectErrorSatisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode())
+                        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS))
+                .verify();
+
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void filter_withPayloadLargerThanBudget_shouldAnswerPayloadTooLarge() {
+        StepVerifier.create(filter.filter(events(2000), chain))
+                .expectErrorSatisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode())
+                        .isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE))
+                .verify();
+    }
+
+    @Test
+    void filter_withoutContentLength_shouldChargeMaxBodySize() {
+        when(chain.filter(any())).thenReturn(Mono.fromRunnable(() -> assertThat(payloadBudget.getReserved()).isEqualTo(800)));
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/events")), chain))
+                .verifyComplete();
+    }
+
+    @Test
+    void filter_withChunkedBatch_shouldChargeBatchReaderLimit() {
+        when(chain.filter(any())).thenReturn(Mono.fromRunnable(() -> assertThat(payloadBudget.getReserved()).isEqualTo(950)));
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/events/batch")), chain))
+                .verifyComplete();
+    }
+
+    @Test
+    void filter_forOtherPaths_shouldBypassBudget() {
+        payloadBudget.tryReserve(1000);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/actuator/prometheus")), chain))
+                .verifyComplete();
+    }
+
+    private MockServerWebExchange events(long contentLength) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/events").contentLength(contentLength));
+    }
+}
@@ -0,0 +1,82 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadBudgetTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PayloadBudgetProperties properties;
+    private PayloadBudget payloadBudget;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new PayloadBudgetProperties();
+        properties.setMaxBytes(DataSize.ofBytes(1000));
+        payloadBudget = new PayloadBudget(properties, meterRegistry);
+    }
+
+    @Test
+    void tryReserve_beyondCapacity_shouldRejectUntilReleased() {
+        assertThat(payloadBudget.tryReserve(600)).isTrue();
+        assertThat(payloadBudget.tryReserve(600)).isFalse();
+        assertThat(meterRegistry.get("site.events.payload.budget.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("site.events.payload.budget.reserved.bytes").gauge().value()).isEqualTo(600);
+
+        payloadBudget.release(600);
+
+        assertThat(payloadBudget.tryReserve(600)).isTrue();
+    }
+
+    @Test
+    void capacity_withoutExplicitBytes_shouldBeShareOfMaxHeap() {
+        properties.setMaxBytes(null);
+        properties.setHeapShare(0.5);
+
+        var budget = new PayloadBudget(properties, new SimpleMeterRegistry());
+
+        assertThat(budget.getCapacity()).isEqualTo((long) (Runtime.getRuntime().maxMemory() * 0.5));
+        assertThat(budget.fits(budget.getCapacity() + 1)).isFalse();
+    }
+
+    @Test
+    void holding_shouldChargeDecodedSizeForTheLifetimeOfTheWork() {
+        var site = Site.newBuilder().setId("site-123").setAddress("a".repeat(100)).build();
+        var charged = site.getSerializedSize() * 4L;
+
+        StepVerifier.create(payloadBudget.holding(site, Mono.fromCallable(payloadBudget::getReserved)))
+                .expectNext(charged)
+                .verifyComplete();
+
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+
+    @Test
+    void holding_whenWorkFails_shouldStillRelease() {
+        var site = Site.newBuilder().setId("site-123").build();
+
+        StepVerifier.create(payloadBudget.holding(site, Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+
+    @Test
+    void disabledBudget_shouldAdmitEverythingWithoutCharging() {
+        properties.setEnabled(false);
+
+        assertThat(payloadBudget.tryReserve(10_000)).isTrue();
+        assertThat(payloadBudget.charge(10_000)).isZero();
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+}
@@ -0,0 +1,116 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PubSubPushDecoderTest {
+
+    private final PubSubPushDecoder decoder = new PubSubPushDecoder();
+
+    @Test
+    void decode_shouldExtractMessageFieldsAndSite() throws Exception {
+        PubSubPushMessage message = decoder.decode(envelope(createTestSite(), "\"messageId\":\"message-1\",\"publishTime\":\"2024-01-01T00:00:00Z\""));
+
+        assertThat(message.messageId()).isEqualTo("message-1");
+        assertThat(message.publishTime()).isEqualTo("2024-01-01T00:00:00Z");
+        assertThat(message.attribute("entity_id")).isEqualTo("site-123");
+        assertThat(message.attribute("event_type")).isEqualTo("CREATE");
+        assertThat(message.site()).isEqualTo(createTestSite());
+    }
+
+    @Test
+    void decode_shouldAcceptSnakeCaseFieldNames() throws Exception {
+        PubSubPushMessage message = decoder.decode(envelope(createTestSite(), "\"message_id\":\"message-2\",\"publish_time\":\"2024-01-01T00:00:00Z\""));
+
+        assertThat(message.messageId()).isEqualTo("message-2");
+        assertThat(message.publishTime()).isEqualTo("2024-01-01T00:00:00Z");
+    }
+
+    @Test
+    void decode_shouldIgnoreUnknownFieldsInAnyOrder() throws Exception {
+        String body = "{\"subscription\":{\"nested\":[1,2]},\"message\":{\"orderingKey\":\"k\",\"data\":\""
+                + Base64.getEncoder().encodeToString(createTestSite().toByteArray())
+                + "\",\"extra\":{\"a\":1},\"messageId\":\"message-3\"}}";
+
+        PubSubPushMessage message = decoder.decode(body.getBytes());
+
+        assertThat(message.messageId()).isEqualTo("message-3");
+        assertThat(message.attributes()).isEmpty();
+        assertThat(message.site()).isEqualTo(createTestSite());
+    }
+
+    @Test
+    void decode_shouldReadDeliveryAttemptFromEnvelope() throws Exception {
+        String body = "{\"deliveryAttempt\":4,\"message\":{\"messageId\":\"message-5\"},\"subscription\":\"s\"}";
+        String trailing = "{\"message\":{\"messageId\":\"message-6\"},\"delivery_attempt\":2}";
+
+        assertThat(decoder.decode(body.getBytes()).deliveryAttempt()).isEqualTo(4);
+        assertThat(decoder.decode(trailing.getBytes()).deliveryAttempt()).isEqualTo(2);
+        assertThat(decoder.decode(envelope(createTestSite(), "\"messageId\":\"message-7\"")).deliveryAttempt()).isZero();
+    }
+
+    @Test
+    void decode_withoutData_shouldYieldDefaultSite() throws Exception {
+        PubSubPushMessage message = decoder.decode("{\"message\":{\"messageId\":\"message-4\"}}".getBytes());
+
+        assertThat(message.site()).isEqualTo(Site.getDefaultInstance());
+    }
+
+    @Test
+    void decode_withNonObjectBody_shouldThrow() {
+        assertThatThrownBy(() -> decoder.decode("[]".getBytes()))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Pub/Sub push envelope must be a JSON object");
+    }
+
+    @Test
+    void site_shouldReuseBufferAcrossLargeAndSmallPayloads() throws Exception {
+        Site large = createTestSite().toBuilder().setAddress("x".repeat(2 * 1024 * 1024)).build();
+
+        assertThat(decoder.decode(envelope(large, "\"messageId\":\"large\"")).site()).isEqualTo(large);
+        assertThat(decoder.decode(envelope(createTestSite(), "\"messageId\":\"small\"")).site()).isEqualTo(createTestSite());
+    }
+
+    @Test
+    void decode_withNonStringData_shouldThrow() {
+        assertThatThrownBy(() -> decoder.decode("{\"message\":{\"data\":{\"messageId\":\"nested\"},\"messageId\":\"message-5\"}}".getBytes()))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void decode_withNullData_shouldYieldDefaultSite() throws Exception {
+        PubSubPushMessage message = decoder.decode("{\"message\":{\"data\":null,\"messageId\":\"message-6\"}}".getBytes());
+
+        assertThat(message.messageId()).isEqualTo("message-6");
+        assertThat(message.site()).isEqualTo(Site.getDefaultInstance());
+    }
+
+    private byte[] envelope(Site site, String messageFields) {
+        return ("{\"message\":{\"data\":\"" + Base64.getEncoder().encodeToString(site.toByteArray()) + "\","
+                + "\"attributes\":{\"entity_id\":\"site-123\",\"event_type\":\"CREATE\"}," + messageFields + "},"
+                + "\"subscription\":\"projects/test-project/subscriptions/site-events\"}").getBytes();
+    }
+
+    private Site createTestSite() {
+        return Site.newBuilder()
+                .setId("site-123")
+                .setName("Test Site")
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder()
+                        .setLatitude(40.7128)
+                        .setLongitude(-74.0060)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.google.api.core.ApiService;
+import com.google.cloud.pubsub.v1.Subscriber;
+import com.google.cloud.spring.pubsub.core.subscriber.PubSubSubscriberOperations;
+import com.google.cloud.spring.pubsub.support.BasicAcknowledgeablePubsubMessage;
+import com.google.pubsub.v1.PubsubMessage;
+import com.green.energy.tracker.cloud.site_processor.config.IngestionProperties;
+import com.green.energy.tracker.cloud.site_processor.config.ShutdownProperties;
+import com.green.energy.tracker.cloud.site_processor.service.CloudEventManagementService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PubSubStreamingSubscriberTest {
+
+    @Mock
+    private PubSubSubscriberOperations pubSubSubscriberOperations;
+
+    @Mock
+    private CloudEventManagementService cloudEventManagementService;
+
+    @Mock
+    private BasicAcknowledgeablePubsubMessage acknowledgeableMessage;
+
+    @Mock
+    private Subscriber subscriber;
+
+    @Mock
+    private ApiService stoppingService;
+
+    private final PubsubMessage message = PubsubMessage.newBuilder().setMessageId("message-1").build();
+    private IngestionProperties ingestionProperties;
+    private ShutdownProperties shutdownProperties;
+    private ShutdownWindow shutdownWindow;
+    private SimpleMeterRegistry meterRegistry;
+    private PubSubStreamingSubscriber streamingSubscriber;
+
+    @BeforeEach
+    void setUp() {
+        ingestionProperties = new IngestionProperties();
+        shutdownProperties = new ShutdownProperties();
+        shutdownWindow = new ShutdownWindow(shutdownProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        streamingSubscriber = new PubSubStreamingSubscriber(pubSubSubscriberOperations, cloudEventManagementService, ingestionProperties,
+                shutdownWindow, meterRegistry);
+    }
+
+    @Test
+    void start_inPushMode_shouldNotSubscribe() {
+        streamingSubscriber.start();
+        streamingSubscriber.stop();
+
+        verifyNoInteractions(pubSubSubscriberOperations);
+    }
+
+    @Test
+    void start_inStreamingPullMode_shouldSubscribeAndStopOnShutdown() throws Exception {
+        ingestionProperties.setMode(IngestionProperties.Mode.STREAMING_PULL);
+        when(pubSubSubscriberOperations.subscribe(eq("site-events-sub"), any())).thenReturn(subscriber);
+        when(subscriber.stopAsync()).thenReturn(stoppingService);
+
+        streamingSubscriber.start();
+        streamingSubscriber.stop();
+
+        verify(stoppingService).awaitTerminated(8_000L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void stop_shouldNotWaitBeyondTheShutdownWindow() throws Exception {
+        ingestionProperties.setMode(IngestionProperties.Mode.STREAMING_PULL);
+        shutdownProperties.setGracePeriod(Duration.ZERO);
+        when(pubSubSubscriberOperations.subscribe(eq("site-events-sub"), any())).thenReturn(subscriber);
+        when(subscriber.stopAsync()).thenReturn(stoppingService);
+
+        streamingSubscriber.start();
+        shutdownWindow.begin();
+        streamingSubscriber.stop();
+
+        verify(stoppingService).awaitTerminated(0L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void stop_whenTimeoutRunsOut_shouldNackInFlightMessagesOnce() throws Exception {
+        ingestionProperties.setMode(IngestionProperties.Mode.STREAMING_PULL);
+        Sinks.One<ResponseEntity<Void>> pending = Sinks.one();
+        when(pubSubSubscriberOperations.subscribe(eq("site-events-sub"), any())).thenReturn(subscriber);
+        when(subscriber.stopAsync()).thenReturn(stoppingService);
+        when(stoppingService.awaitTerminated(8_000L, TimeUnit.MILLISECONDS)).thenThrow(new TimeoutException());
+        when(acknowledgeableMessage.getPubsubMessage()).thenReturn(message);
+        when(cloudEventManagementService.handlePulledMessage(message)).thenReturn(pending.asMono());
+
+        streamingSubscriber.start();
+        streamingSubscriber.receive(acknowledgeableMessage);
+        streamingSubscriber.stop();
+        pending.tryEmitValue(ResponseEntity.ok().build());
+
+        verify(acknowledgeableMessage).nack();
+        verify(acknowledgeableMessage, never()).ack();
+        assertThat(meterRegistry.get("site.events.pull.messages").tag("outcome", "nack").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void receive_withSuccessfulResponse_shouldAck() {
+        when(acknowledgeableMessage.getPubsubMessage()).thenReturn(message);
+        when(cloudEventManagementService.handlePulledMessage(message)).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        streamingSubscriber.receive(acknowledgeableMessage);
+
+        verify(acknowledgeableMessage).ack();
+        verify(acknowledgeableMessage, never()).nack();
+        assertThat(meterRegistry.get("site.events.pull.messages").tag("outcome", "ack").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void receive_withError_shouldNack() {
+        when(acknowledgeableMessage.getPubsubMessage()).thenReturn(message);
+        when(cloudEventManagementService.handlePulledMessage(message))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE)));
+
+        streamingSubscriber.receive(acknowledgeableMessage);
+
+        verify(acknowledgeableMessage).nack();
+        verify(acknowledgeableMessage, never()).ack();
+        assertThat(meterRegistry.get("site.events.pull.messages").tag("outcome", "nack").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void receive_withNonSuccessfulResponse_shouldNack() {
+        when(acknowledgeableMessage.getPubsubMessage()).thenReturn(message);
+        when(cloudEventManagementService.handlePulledMessage(message))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build()));
+
+        streamingSubscriber.receive(acknowledgeableMessage);
+
+        verify(acknowledgeableMessage).nack();
+    }
+}
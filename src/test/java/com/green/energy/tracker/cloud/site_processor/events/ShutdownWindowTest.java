@@ -0,0 +1,44 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.ShutdownProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShutdownWindowTest {
+
+    private ShutdownProperties properties;
+    private ShutdownWindow shutdownWindow;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ShutdownProperties();
+        properties.setGracePeriod(Duration.ofSeconds(10));
+        shutdownWindow = new ShutdownWindow(properties);
+    }
+
+    @Test
+    void bound_beforeShutdown_shouldCapTimeoutAtGracePeriod() {
+        assertThat(shutdownWindow.bound(Duration.ofSeconds(30))).isEqualTo(Duration.ofSeconds(10));
+        assertThat(shutdownWindow.bound(Duration.ofSeconds(5))).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void bound_afterShutdownBegins_shouldShrinkWithElapsedTime() {
+        shutdownWindow.begin();
+
+        assertThat(shutdownWindow.remaining()).isLessThanOrEqualTo(Duration.ofSeconds(10)).isPositive();
+        assertThat(shutdownWindow.bound(Duration.ofSeconds(30))).isLessThanOrEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void bound_whenWindowHasElapsed_shouldBeZero() {
+        properties.setGracePeriod(Duration.ZERO);
+        shutdownWindow.begin();
+
+        assertThat(shutdownWindow.bound(Duration.ofSeconds(8))).isZero();
+    }
+}
@@ -0,0 +1,132 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.site_processor.config.AsyncProcessingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.ShutdownProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SiteEventQueueTest {
+
+    private AsyncProcessingProperties properties;
+    private ShutdownProperties shutdownProperties;
+    private ShutdownWindow shutdownWindow;
+    private SimpleMeterRegistry meterRegistry;
+    private SiteEventQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AsyncProcessingProperties();
+        properties.setEnabled(true);
+        properties.setQueueCapacity(2);
+        properties.setWorkers(1);
+        properties.setDrainTimeout(Duration.ofSeconds(1));
+        shutdownProperties = new ShutdownProperties();
+        shutdownWindow = new ShutdownWindow(shutdownProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        queue = new SiteEventQueue(properties, shutdownWindow, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue.isRunning())
+            queue.stop();
+    }
+
+    @Test
+    void enqueue_shouldRunWorkOnWorkerPool() {
+        AtomicInteger runs = new AtomicInteger();
+        queue.start();
+
+        StepVerifier.create(queue.enqueue(Mono.fromRunnable(runs::incrementAndGet)))
+                .verifyComplete();
+
+        assertThat(runs).hasValue(1);
+        assertThat(queue.depth()).isZero();
+    }
+
+    @Test
+    void enqueue_whenQueueIsFull_shouldRejectWithServiceUnavailable() {
+        Sinks.Empty<Void> blocked = Sinks.empty();
+        queue.start();
+        queue.enqueue(blocked.asMono()).block();
+        queue.enqueue(Mono.empty()).block();
+
+        StepVerifier.create(queue.enqueue(Mono.empty()))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+                .verify();
+
+        assertThat(meterRegistry.get("site.events.async.queue.depth").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("site.events.async.rejected").tag("reason", "full").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void enqueue_whenWorkFails_shouldKeepWorkersRunning() {
+        AtomicInteger runs = new AtomicInteger();
+        queue.start();
+
+        queue.enqueue(Mono.error(new IllegalStateException("boom"))).block();
+        queue.enqueue(Mono.fromRunnable(runs::incrementAndGet)).block();
+
+        assertThat(runs).hasValue(1);
+        assertThat(meterRegistry.get("site.events.async.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void stop_shouldDrainQueuedWorkAndRejectNewEvents() {
+        AtomicInteger runs = new AtomicInteger();
+        queue.start();
+        queue.enqueue(Mono.delay(Duration.ofMillis(50)).then(Mono.fromRunnable(runs::incrementAndGet))).block();
+        queue.enqueue(Mono.fromRunnable(runs::incrementAndGet)).block();
+
+        queue.stop();
+
+        assertThat(runs).hasValue(2);
+        assertThat(queue.depth()).isZero();
+        assertThat(meterRegistry.get("site.events.async.drain").timer().count()).isEqualTo(1);
+        StepVerifier.create(queue.enqueue(Mono.empty()))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+                .verify();
+    }
+
+    @Test
+    void stop_whenDrainTimesOut_shouldReturnWithinDrainTimeout() {
+        properties.setDrainTimeout(Duration.ofMillis(100));
+        queue.start();
+        queue.enqueue(Sinks.empty().asMono()).block();
+
+        long started = System.nanoTime();
+        queue.stop();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+        assertThat(queue.isRunning()).isFalse();
+    }
+
+    @Test
+    void stop_shouldOnlyDrainForWhatIsLeftOfTheShutdownWindow() {
+        properties.setDrainTimeout(Duration.ofSeconds(30));
+        shutdownProperties.setGracePeriod(Duration.ofMillis(100));
+        queue.start();
+        queue.enqueue(Sinks.empty().asMono()).block();
+        shutdownWindow.begin();
+
+        long started = System.nanoTime();
+        queue.stop();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+        assertThat(queue.isRunning()).isFalse();
+    }
+}
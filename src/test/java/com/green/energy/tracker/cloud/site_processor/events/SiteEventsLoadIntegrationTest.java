@@ -0,0 +1,250 @@
+package com.green.energy.tracker.cloud.site_processor.events;
+
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.AsyncProcessingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import com.green.energy.tracker.cloud.site_processor.config.BulkheadProperties;
+import com.green.energy.tracker.cloud.site_processor.config.CloudEventCodecProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FreshnessProperties;
+import com.green.energy.tracker.cloud.site_processor.config.HedgingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.IdempotencyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.LoggingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.RetryBudgetProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SequencerProperties;
+import com.green.energy.tracker.cloud.site_processor.config.ShutdownProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SiteCacheProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import com.green.energy.tracker.cloud.site_processor.config.WebFluxConfig;
+import com.green.energy.tracker.cloud.site_processor.model.GeoLocationWrite;
+import com.green.energy.tracker.cloud.site_processor.model.SiteMapper;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import com.green.energy.tracker.cloud.site_processor.repository.InMemorySiteRepository;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteDocumentOperations;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteWritePipeline;
+import com.green.energy.tracker.cloud.site_processor.service.EventFreshness;
+import com.green.energy.tracker.cloud.site_processor.service.EventLogSampler;
+import com.green.energy.tracker.cloud.site_processor.service.HedgedReads;
+import com.green.energy.tracker.cloud.site_processor.service.IdempotencyService;
+import com.green.energy.tracker.cloud.site_processor.service.MissingSiteCache;
+import com.green.energy.tracker.cloud.site_processor.service.PubSubCloudEventServiceImpl;
+import com.green.energy.tracker.cloud.site_processor.service.RetryBudget;
+import com.green.energy.tracker.cloud.site_processor.service.RetryDeniedException;
+import com.green.energy.tracker.cloud.site_processor.service.SiteDocumentCache;
+import com.green.energy.tracker.cloud.site_processor.service.SiteEventRouter;
+import com.green.energy.tracker.cloud.site_processor.service.SiteEventBulkheads;
+import com.green.energy.tracker.cloud.site_processor.service.SiteEventMetrics;
+import com.green.energy.tracker.cloud.site_processor.service.SiteEventSequencer;
+import com.green.energy.tracker.cloud.site_processor.service.SiteServiceImpl;
+import com.green.energy.tracker.cloud.site_processor.service.SiteSpillover;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SiteEventsLoadIntegrationTest {
+
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 10);
+    private static final int SITES = Integer.getInteger("load.sites", 1000);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("load.max-in-flight", 512);
+
+    private InMemorySiteRepository repository;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        repository = InMemorySiteRepository.builder()
+                .readLatency(new InMemorySiteRepository.Latency(Duration.ofMillis(4), Duration.ofMillis(25)))
+                .writeLatency(new InMemorySiteRepository.Latency(Duration.ofMillis(8), Duration.ofMillis(50)))
+                .build();
+        for (int i = 0; i < SITES; i++)
+            repository.seed(document("site-" + i));
+
+        var meterRegistry = new SimpleMeterRegistry();
+        var siteEventMetrics = new SiteEventMetrics(meterRegistry);
+        var siteMapper = Mappers.getMapper(SiteMapper.class);
+        var retryFirestore = Retry.of("firestore", RetryConfig.custom()
+                .maxAttempts(3)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(100), 2.0, 0.5, Duration.ofSeconds(2)))
+                .retryExceptions(IOException.class, TimeoutException.class)
+                .ignoreExceptions(ResponseStatusException.class, RetryDeniedException.class)
+                .build());
+        var retryCache = Retry.ofDefaults("cache");
+        var redisKeyProperties = new RedisKeyProperties();
+        var siteCacheProperties = new SiteCacheProperties();
+        siteCacheProperties.setEnabled(false);
+        siteCacheProperties.getNegative().setRedisEnabled(false);
+        var idempotencyProperties = new IdempotencyProperties();
+        idempotencyProperties.setEnabled(false);
+        var firestoreWriteProperties = new FirestoreWriteProperties();
+
+        var siteService = new SiteServiceImpl(repository, passThroughCircuitBreaker(), retryFirestore, TimeLimiter.of(Duration.ofSeconds(1)), TimeLimiter.of(Duration.ofSeconds(2)), siteMapper,
+                new SiteWritePipeline(null, siteMapper, firestoreWriteProperties), new SiteDocumentOperations(null), firestoreWriteProperties,
+                new SiteDocumentCache(null, retryCache, siteCacheProperties, redisKeyProperties, meterRegistry),
+                new MissingSiteCache(null, retryCache, siteCacheProperties, redisKeyProperties, meterRegistry),
+                siteEventMetrics,
+                new SiteEventBulkheads(BulkheadRegistry.ofDefaults(), new BulkheadProperties(), meterRegistry),
+                new HedgedReads(new HedgingProperties(), meterRegistry), new RetryBudget(new RetryBudgetProperties(), meterRegistry),
+                new SiteSpillover(new SpilloverProperties(), meterRegistry));
+        var payloadBudget = new PayloadBudget(new PayloadBudgetProperties(), meterRegistry);
+        var cloudEventService = new PubSubCloudEventServiceImpl(new PubSubPushDecoder(), siteService, new BatchProperties(),
+                new SiteEventSequencer(new SequencerProperties(), meterRegistry),
+                new IdempotencyService(null, retryCache, idempotencyProperties, redisKeyProperties, meterRegistry),
+                new SiteEventRouter(), siteEventMetrics,
+                new EventFreshness(new FreshnessProperties(), meterRegistry),
+                new EventLogSampler(new LoggingProperties()), payloadBudget);
+        var controller = new ControllerSiteEvents(cloudEventService, new CloudEventBatchReader(new BatchProperties()),
+                new SiteEventQueue(new AsyncProcessingProperties(), new ShutdownWindow(new ShutdownProperties()), meterRegistry), payloadBudget);
+
+        webTestClient = WebTestClient.bindToController(controller)
+                .httpMessageCodecs(new WebFluxConfig(new CloudEventCodecProperties(), new BatchProperties())::configureHttpMessageCodecs)
+                .configureClient()
+                .responseTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Test
+    void events_underConcurrentLoad_shouldAllBeAppliedToTheRepository() {
+        int total = Math.min(RATE * DURATION_SECONDS, 2_000);
+        var failures = new AtomicInteger();
+
+        Flux.range(0, total)
+                .flatMap(i -> Mono.fromRunnable(() -> {
+                            if (!send(i))
+                                failures.incrementAndGet();
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()), MAX_IN_FLIGHT)
+                .blockLast(Duration.ofMinutes(2));
+
+        assertThat(failures.get()).isZero();
+        assertThat(repository.size()).isEqualTo(SITES + (total + 9) / 10);
+    }
+
+    @Test
+    @Tag("load")
+    void events_atTargetRate_shouldBeSustainedAgainstLatencyModel() {
+        int total = RATE * DURATION_SECONDS;
+        long periodNanos = 1_000_000_000L / RATE;
+        long[] latencies = new long[total];
+        var failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        Flux.interval(Duration.ofNanos(periodNanos))
+                .take(total)
+                .onBackpressureBuffer()
+                .flatMap(i -> Mono.fromRunnable(() -> {
+                            if (!send(i.intValue()))
+                                failures.incrementAndGet();
+                            latencies[i.intValue()] = System.nanoTime() - (start + (i + 1) * periodNanos);
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()), MAX_IN_FLIGHT)
+                .blockLast(Duration.ofSeconds(DURATION_SECONDS * 10L));
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        double sustained = total / elapsedSeconds;
+
+        Arrays.sort(latencies);
+        log.info("Load: target={} ev/s, sustained={} ev/s, events={}, failures={}, p50={}ms, p95={}ms, p99={}ms, max={}ms, reads={}, writes={}",
+                RATE, String.format("%.1f", sustained), total, failures.get(),
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.95)), millis(percentile(latencies, 0.99)),
+                millis(latencies[total - 1]), repository.getReads().get(), repository.getWrites().get());
+
+        assertThat(failures.get()).isZero();
+        assertThat(sustained).isGreaterThanOrEqualTo(RATE * 0.9);
+    }
+
+    private boolean send(int sequence) {
+        var create = sequence % 10 == 0;
+        var siteId = create ? "new-site-" + sequence : "site-" + sequence % SITES;
+        var eventType = create ? SiteEventType.CREATE : SiteEventType.UPDATE;
+        return webTestClient.post()
+                .uri("/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("ce-specversion", "1.0")
+                .header("ce-id", "event-" + sequence)
+                .header("ce-source", "//pubsub.googleapis.com/projects/test-project/topics/site-events")
+                .header("ce-type", "google.cloud.pubsub.topic.v1.messagePublished")
+                .bodyValue(pushEnvelope(sequence, siteId, eventType))
+                .exchange()
+                .returnResult(Void.class)
+                .getStatus()
+                .is2xxSuccessful();
+    }
+
+    private byte[] pushEnvelope(int sequence, String siteId, SiteEventType eventType) {
+        var site = Site.newBuilder()
+                .setId(siteId)
+                .setName("Site " + sequence)
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder().setLatitude(40.7128).setLongitude(-74.0060).build())
+                .build();
+        return ("{\"message\":{\"data\":\"" + Base64.getEncoder().encodeToString(site.toByteArray()) + "\","
+                + "\"attributes\":{\"entity_id\":\"" + siteId + "\",\"event_type\":\"" + eventType.name() + "\"},"
+                + "\"messageId\":\"message-" + sequence + "\",\"publishTime\":\"" + Instant.now() + "\"},"
+                + "\"subscription\":\"projects/test-project/subscriptions/site-events\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private SiteWriteDocument document(String siteId) {
+        return SiteWriteDocument.builder()
+                .id(siteId)
+                .name("Site")
+                .userId("user-456")
+                .address("123 Test Street")
+                .location(GeoLocationWrite.builder().latitude(40.7128).longitude(-74.0060).build())
+                .build();
+    }
+
+    private long percentile(long[] sorted, double percentile) {
+        return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private String millis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+
+    private ReactiveCircuitBreaker passThroughCircuitBreaker() {
+        return new ReactiveCircuitBreaker() {
+            @Override
+            public <T> Mono<T> run(Mono<T> toRun, Function<Throwable, Mono<T>> fallback) {
+                return toRun.onErrorResume(fallback);
+            }
+
+            @Override
+            public <T> Flux<T> run(Flux<T> toRun, Function<Throwable, Flux<T>> fallback) {
+                return toRun.onErrorResume(fallback);
+            }
+        };
+    }
+}
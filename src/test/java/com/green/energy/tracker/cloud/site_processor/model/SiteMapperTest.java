@@ -1,5 +1,6 @@
 package com.green.energy.tracker.cloud.site_processor.model;
 
+import com.google.cloud.firestore.FieldValue;
 import com.green.energy.tracker.cloud.common.v1.GeoLocation;
 import com.green.energy.tracker.cloud.site.v1.Site;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
 import java.util.Date;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -209,4 +211,29 @@ class SiteMapperTest {
 
         assertSame(existingDoc, result); // @MappingTarget should return the same instance
     }
+
+    @Test
+    void toUpdateFields_shouldContainOnlyMappedFieldsAndServerTimestamp() {
+        Site site = Site.newBuilder()
+                .setId("site-123")
+                .setName("Name")
+                .setUserId("user-456")
+                .setAddress("Address")
+                .setLocation(GeoLocation.newBuilder()
+                        .setLatitude(45.0)
+                        .setLongitude(-75.0)
+                        .build())
+                .build();
+
+        Map<String, Object> fields = siteMapper.toUpdateFields(site);
+
+        assertEquals(5, fields.size());
+        assertEquals("Name", fields.get("name"));
+        assertEquals("user-456", fields.get("userId"));
+        assertEquals("Address", fields.get("address"));
+        assertEquals(Map.of("latitude", 45.0, "longitude", -75.0), fields.get("location"));
+        assertEquals(FieldValue.serverTimestamp(), fields.get("updatedAt"));
+        assertFalse(fields.containsKey("id"));
+        assertFalse(fields.containsKey("createdAt"));
+    }
 }
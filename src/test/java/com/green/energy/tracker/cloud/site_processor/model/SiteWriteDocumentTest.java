@@ -502,4 +502,22 @@ class SiteWriteDocumentTest {
         document.setUpdatedAt(newTime);
         assertEquals(newTime, document.getUpdatedAt());
     }
+
+    @Test
+    void copy_shouldCreateIndependentDeepCopy() {
+        Date now = new Date();
+        SiteWriteDocument document = SiteWriteDocument.builder()
+            .id("site-123")
+            .name("Test Site")
+            .location(new GeoLocationWrite(40.7128, -74.0060))
+            .createdAt(now)
+            .build();
+        SiteWriteDocument copy = document.copy();
+        copy.getLocation().setLatitude(0);
+        copy.setName("Changed");
+        assertNotSame(document, copy);
+        assertEquals(40.7128, document.getLocation().getLatitude());
+        assertEquals("Test Site", document.getName());
+        assertEquals(now, copy.getCreatedAt());
+    }
 }
@@ -0,0 +1,177 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import lombok.Builder;
+import lombok.Getter;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Builder
+public class InMemorySiteRepository implements SiteRepository {
+
+    private static final double Z_99 = 2.326;
+
+    @Builder.Default
+    private final Latency readLatency = new Latency(Duration.ofMillis(4), Duration.ofMillis(25));
+    @Builder.Default
+    private final Latency writeLatency = new Latency(Duration.ofMillis(8), Duration.ofMillis(50));
+    @Builder.Default
+    private final double contentionAbortRate = 0.0;
+    private final Map<String, SiteWriteDocument> documents = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> busyUntilNanos = new ConcurrentHashMap<>();
+    @Getter
+    private final AtomicLong reads = new AtomicLong();
+    @Getter
+    private final AtomicLong writes = new AtomicLong();
+    @Getter
+    private final AtomicLong aborts = new AtomicLong();
+
+    public record Latency(Duration median, Duration p99) {
+        Duration sample() {
+            double mu = Math.log(median.toNanos());
+            double sigma = p99.compareTo(median) > 0 ? Math.log((double) p99.toNanos() / median.toNanos()) / Z_99 : 0.0;
+            return Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+
+    public void seed(SiteWriteDocument document) {
+        documents.put(document.getId(), document.copy());
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @Override
+    public <S extends SiteWriteDocument> Mono<S> save(S document) {
+        return write(document.getId(), () -> documents.put(document.getId(), document.copy())).thenReturn(document);
+    }
+
+    @Override
+    public <S extends SiteWriteDocument> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends SiteWriteDocument> Flux<S> saveAll(Publisher<S> entities) {
+        return Flux.from(entities).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<SiteWriteDocument> findById(String siteId) {
+        return Mono.delay(readLatency.sample())
+                .flatMap(ignored -> {
+                    reads.incrementAndGet();
+                    return Mono.justOrEmpty(documents.get(siteId)).map(SiteWriteDocument::copy);
+                });
+    }
+
+    @Override
+    public Mono<SiteWriteDocument> findById(Publisher<String> siteId) {
+        return Mono.from(siteId).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String siteId) {
+        return findById(siteId).hasElement();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> siteId) {
+        return Mono.from(siteId).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<SiteWriteDocument> findAll() {
+        return Mono.delay(readLatency.sample())
+                .thenMany(Flux.defer(() -> Flux.fromIterable(List.copyOf(documents.values()))))
+                .map(SiteWriteDocument::copy);
+    }
+
+    @Override
+    public Flux<SiteWriteDocument> findAll(Sort sort) {
+        if (sort.isSorted())
+            return Flux.error(new UnsupportedOperationException("Sorted queries are not modelled: " + sort));
+        return findAll();
+    }
+
+    @Override
+    public Flux<SiteWriteDocument> findAllById(Iterable<String> siteIds) {
+        return Flux.fromIterable(siteIds).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<SiteWriteDocument> findAllById(Publisher<String> siteIds) {
+        return Flux.from(siteIds).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.delay(readLatency.sample()).then(Mono.fromSupplier(() -> (long) documents.size()));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String siteId) {
+        return write(siteId, () -> documents.remove(siteId));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> siteId) {
+        return Mono.from(siteId).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(SiteWriteDocument document) {
+        return deleteById(document.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends String> siteIds) {
+        return Flux.fromIterable(siteIds).concatMap(this::deleteById).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends SiteWriteDocument> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends SiteWriteDocument> entities) {
+        return Flux.from(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Flux.defer(() -> Flux.fromIterable(List.copyOf(documents.keySet()))).concatMap(this::deleteById).then();
+    }
+
+    private Mono<Void> write(String siteId, Runnable mutation) {
+        return Mono.defer(() -> {
+            var busyUntil = busyUntilNanos.computeIfAbsent(siteId, id -> new AtomicLong(Long.MIN_VALUE));
+            long now = System.nanoTime();
+            if (busyUntil.get() > now && contentionAbortRate > 0 && ThreadLocalRandom.current().nextDouble() < contentionAbortRate) {
+                aborts.incrementAndGet();
+                return Mono.error(new StatusRuntimeException(Status.ABORTED.withDescription("Too much contention on document " + siteId)));
+            }
+            long service = writeLatency.sample().toNanos();
+            long previous = busyUntil.getAndUpdate(current -> Math.max(current, now) + service);
+            return Mono.delay(Duration.ofNanos(Math.max(previous, now) + service - now))
+                    .doOnNext(ignored -> {
+                        writes.incrementAndGet();
+                        mutation.run();
+                    })
+                    .then();
+        });
+    }
+}
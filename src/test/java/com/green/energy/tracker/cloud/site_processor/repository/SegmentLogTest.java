@@ -0,0 +1,149 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties.FsyncPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    private SpilloverProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SpilloverProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofBytes(64));
+        properties.setMaxSegments(3);
+        properties.setFsync(FsyncPolicy.ALWAYS);
+    }
+
+    @Test
+    void append_shouldReadBackRecordsInOrderAfterSeal() throws IOException {
+        var log = new SegmentLog(properties);
+        log.append(bytes("first"));
+        log.append(bytes("second"));
+
+        var segments = log.seal();
+
+        assertThat(segments).containsExactly(0L);
+        assertThat(strings(log.read(0))).containsExactly("first", "second");
+        assertThat(log.isEmpty()).isTrue();
+    }
+
+    @Test
+    void append_whenSegmentIsFull_shouldRollToNextSegment() throws IOException {
+        var log = new SegmentLog(properties);
+        for (int i = 0; i < 5; i++)
+            log.append(bytes("record-" + "x".repeat(10) + i));
+
+        var segments = log.seal();
+
+        assertThat(segments).hasSizeGreaterThan(1);
+        assertThat(segments.stream().flatMap(segment -> strings(read(log, segment)).stream()))
+                .containsExactly("record-xxxxxxxxxx0", "record-xxxxxxxxxx1", "record-xxxxxxxxxx2", "record-xxxxxxxxxx3", "record-xxxxxxxxxx4");
+    }
+
+    @Test
+    void append_whenMaxSegmentsReached_shouldRefuseRecord() throws IOException {
+        properties.setMaxSegments(1);
+        var log = new SegmentLog(properties);
+
+        assertThat(log.append(new byte[40])).isTrue();
+        assertThat(log.append(new byte[40])).isFalse();
+    }
+
+    @Test
+    void append_withRecordLargerThanSegment_shouldThrow() throws IOException {
+        var log = new SegmentLog(properties);
+
+        assertThatThrownBy(() -> log.append(new byte[64]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sync_withIntervalPolicy_shouldOnlyForceAfterAppend() throws IOException {
+        properties.setFsync(FsyncPolicy.INTERVAL);
+        var log = new SegmentLog(properties);
+
+        log.append(bytes("first"));
+
+        assertThat(log.sync()).isTrue();
+        assertThat(log.sync()).isFalse();
+    }
+
+    @Test
+    void compact_shouldDeleteReplayedSegment() throws IOException {
+        var log = new SegmentLog(properties);
+        log.append(bytes("first"));
+        var segment = log.seal().get(0);
+
+        log.compact(segment);
+
+        assertThat(log.seal()).isEmpty();
+        assertThat(Files.exists(directory.resolve("00000000000000000000.seg"))).isFalse();
+        assertThat(log.segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reopen_shouldResumeAppendingAfterLastRecord() throws IOException {
+        var log = new SegmentLog(properties);
+        log.append(bytes("before restart"));
+        log.close();
+
+        var reopened = new SegmentLog(properties);
+        reopened.append(bytes("after"));
+
+        assertThat(strings(reopened.read(reopened.seal().get(0)))).containsExactly("before restart", "after");
+    }
+
+    @Test
+    void read_withCorruptChecksum_shouldStopAtDamagedRecord() throws IOException {
+        var log = new SegmentLog(properties);
+        log.append(bytes("good"));
+        log.append(bytes("bad"));
+        log.close();
+        try (var channel = FileChannel.open(directory.resolve("00000000000000000000.seg"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 8 + 4 + 8);
+        }
+
+        var reopened = new SegmentLog(properties);
+
+        assertThat(strings(reopened.read(0))).containsExactly("good");
+        assertThat(reopened.corruptedRecords()).isPositive();
+        assertThat(reopened.seal()).containsExactly(0L);
+    }
+
+    private List<byte[]> read(SegmentLog log, long segment) {
+        try {
+            return log.read(segment);
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<byte[]> records) {
+        return records.stream().map(record -> new String(record, StandardCharsets.UTF_8)).toList();
+    }
+}
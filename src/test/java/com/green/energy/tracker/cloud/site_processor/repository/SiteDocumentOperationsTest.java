@@ -0,0 +1,232 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.NotFoundException;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteResult;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SiteDocumentOperationsTest {
+
+    @Mock
+    private Firestore firestore;
+
+    @Mock
+    private CollectionReference collection;
+
+    @Mock
+    private DocumentReference documentReference;
+
+    @Mock
+    private WriteResult writeResult;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private DocumentSnapshot snapshot;
+
+    @Mock
+    private CollectionReference tombstones;
+
+    @Mock
+    private DocumentReference tombstoneReference;
+
+    @Mock
+    private DocumentSnapshot tombstoneSnapshot;
+
+    private SiteDocumentOperations operations;
+
+    @BeforeEach
+    void setUp() {
+        operations = new SiteDocumentOperations(firestore);
+        when(firestore.collection(SiteWriteDocument.COLLECTION)).thenReturn(collection);
+        when(collection.document("site-123")).thenReturn(documentReference);
+    }
+
+    @Test
+    void updateIfExists_shouldUpdateWithExistsPrecondition() {
+        Map<String, Object> fields = Map.of("name", "Test Site");
+        when(documentReference.update(fields, SiteDocumentOperations.MUST_EXIST)).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(operations.updateIfExists("site-123", fields))
+                .expectNext(writeResult)
+                .verifyComplete();
+
+        verify(documentReference).update(fields, SiteDocumentOperations.MUST_EXIST);
+        verify(documentReference, never()).get();
+    }
+
+    @Test
+    void updateIfExists_whenPreconditionFails_shouldCompleteEmpty() {
+        Map<String, Object> fields = Map.of("name", "Test Site");
+        when(documentReference.update(fields, SiteDocumentOperations.MUST_EXIST)).thenReturn(ApiFutures.immediateFailedFuture(
+                new NotFoundException(new IllegalStateException("No document to update"), GrpcStatusCode.of(Status.Code.NOT_FOUND), false)));
+
+        StepVerifier.create(operations.updateIfExists("site-123", fields))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateIfExists_whenRpcFails_shouldPropagateError() {
+        Map<String, Object> fields = Map.of("name", "Test Site");
+        when(documentReference.update(fields, SiteDocumentOperations.MUST_EXIST))
+                .thenReturn(ApiFutures.immediateFailedFuture(new IllegalStateException("Deadline exceeded")));
+
+        StepVerifier.create(operations.updateIfExists("site-123", fields))
+                .expectErrorMessage("Deadline exceeded")
+                .verify();
+    }
+
+    @Test
+    void deleteIfExists_shouldDeleteWithExistsPrecondition() {
+        when(documentReference.delete(SiteDocumentOperations.MUST_EXIST)).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(operations.deleteIfExists("site-123"))
+                .expectNext(writeResult)
+                .verifyComplete();
+
+        verify(documentReference, never()).get();
+    }
+
+    @Test
+    void deleteIfExists_whenPreconditionFails_shouldCompleteEmpty() {
+        when(documentReference.delete(SiteDocumentOperations.MUST_EXIST)).thenReturn(ApiFutures.immediateFailedFuture(
+                new NotFoundException(new IllegalStateException("No document to delete"), GrpcStatusCode.of(Status.Code.NOT_FOUND), false)));
+
+        StepVerifier.create(operations.deleteIfExists("site-123"))
+                .verifyComplete();
+    }
+
+    @Test
+    void delete_shouldDeleteWithoutPrecondition() {
+        when(documentReference.delete()).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(operations.delete("site-123"))
+                .expectNext(writeResult)
+                .verifyComplete();
+
+        verify(documentReference).delete();
+    }
+
+    @Test
+    void writeUnlessNewer_whenDocumentChangedAfterSpill_shouldSkipWrite() {
+        var spilledAt = Instant.parse("2024-05-01T10:00:00Z");
+        inTransaction(true, spilledAt.plusSeconds(1));
+
+        StepVerifier.create(operations.writeUnlessNewer("site-123", spilledAt, (tx, document) -> {
+                    tx.delete(document.getReference());
+                    return true;
+                }))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(transaction, never()).delete(any(DocumentReference.class));
+    }
+
+    @Test
+    void writeUnlessNewer_whenDocumentIsOlderThanSpill_shouldWriteInTransaction() {
+        var spilledAt = Instant.parse("2024-05-01T10:00:00Z");
+        inTransaction(true, spilledAt.minusSeconds(1));
+
+        StepVerifier.create(operations.writeUnlessNewer("site-123", spilledAt, (tx, document) -> {
+                    tx.delete(documentReference);
+                    return true;
+                }))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(transaction).delete(documentReference);
+    }
+
+    @Test
+    void writeUnlessNewer_whenDocumentIsMissing_shouldLeaveDecisionToWrite() {
+        inTransaction(false, null);
+        tombstoned(null);
+
+        StepVerifier.create(operations.writeUnlessNewer("site-123", Instant.now(), (tx, document) -> !document.exists()))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void writeUnlessNewer_whenSiteWasDeletedAfterSpill_shouldNotRecreateIt() {
+        var spilledAt = Instant.parse("2024-05-01T10:00:00Z");
+        inTransaction(false, null);
+        tombstoned(spilledAt.plusSeconds(1));
+
+        StepVerifier.create(operations.writeUnlessNewer("site-123", spilledAt, (tx, document) -> {
+                    tx.set(documentReference, Map.of("name", "Test Site"));
+                    return true;
+                }))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(transaction, never()).set(any(DocumentReference.class), any(Map.class));
+    }
+
+    @Test
+    void writeUnlessNewer_whenSiteWasDeletedBeforeSpill_shouldWrite() {
+        var spilledAt = Instant.parse("2024-05-01T10:00:00Z");
+        inTransaction(false, null);
+        tombstoned(spilledAt.minusSeconds(1));
+
+        StepVerifier.create(operations.writeUnlessNewer("site-123", spilledAt, (tx, document) -> true))
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void tombstone_shouldRecordDeletionWithExpiry() {
+        when(firestore.collection(SiteDocumentOperations.TOMBSTONE_COLLECTION)).thenReturn(tombstones);
+        when(tombstones.document("site-123")).thenReturn(tombstoneReference);
+        when(tombstoneReference.set(anyMap())).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(operations.tombstone("site-123", Duration.ofDays(7)))
+                .expectNext(writeResult)
+                .verifyComplete();
+
+        verify(tombstoneReference).set(argThat((Map<String, Object> fields) -> fields.containsKey("deletedAt")
+                && fields.get("expireAt") instanceof Timestamp expireAt
+                && expireAt.toSqlTimestamp().toInstant().isAfter(Instant.now().plus(Duration.ofDays(6)))));
+    }
+
+    private void tombstoned(Instant deletedAt) {
+        when(firestore.collection(SiteDocumentOperations.TOMBSTONE_COLLECTION)).thenReturn(tombstones);
+        when(tombstones.document("site-123")).thenReturn(tombstoneReference);
+        when(transaction.get(tombstoneReference)).thenReturn(ApiFutures.immediateFuture(tombstoneSnapshot));
+        when(tombstoneSnapshot.exists()).thenReturn(deletedAt != null);
+        if (deletedAt != null)
+            when(tombstoneSnapshot.getTimestamp("deletedAt")).thenReturn(Timestamp.ofTimeSecondsAndNanos(deletedAt.getEpochSecond(), deletedAt.getNano()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void inTransaction(boolean exists, Instant updatedAt) {
+        when(transaction.get(documentReference)).thenReturn(ApiFutures.immediateFuture(snapshot));
+        when(snapshot.exists()).thenReturn(exists);
+        if (exists)
+            when(snapshot.getTimestamp("updatedAt")).thenReturn(Timestamp.ofTimeSecondsAndNanos(updatedAt.getEpochSecond(), updatedAt.getNano()));
+        when(firestore.runTransaction(any(Transaction.Function.class))).thenAnswer(invocation ->
+                ApiFutures.immediateFuture(invocation.<Transaction.Function<Boolean>>getArgument(0).updateFunction(transaction)));
+    }
+}
@@ -0,0 +1,321 @@
+package com.green.energy.tracker.cloud.site_processor.repository;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.NotFoundException;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteResult;
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties;
+import com.green.energy.tracker.cloud.site_processor.model.GeoLocationWrite;
+import com.green.energy.tracker.cloud.site_processor.model.SiteMapper;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import io.grpc.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SiteWritePipelineTest {
+
+    @Mock
+    private Firestore firestore;
+
+    @Mock
+    private CollectionReference collection;
+
+    @Mock
+    private DocumentReference documentReference;
+
+    @Mock
+    private BulkWriter bulkWriter;
+
+    @Mock
+    private WriteResult writeResult;
+
+    private FirestoreWriteProperties properties;
+
+    private SiteWritePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FirestoreWriteProperties();
+        properties.getBatching().setEnabled(true);
+        properties.getBatching().setMaxDelay(Duration.ofMillis(50));
+
+        lenient().when(firestore.collection(SiteWriteDocument.COLLECTION)).thenReturn(collection);
+        lenient().when(collection.document(anyString())).thenReturn(documentReference);
+        lenient().when(firestore.bulkWriter()).thenReturn(bulkWriter);
+        lenient().when(bulkWriter.flush()).thenReturn(ApiFutures.immediateFuture(null));
+
+        pipeline = new SiteWritePipeline(firestore, Mappers.getMapper(SiteMapper.class), properties);
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void create_shouldSetDocumentWithoutExistenceCheck() {
+        SiteWriteDocument document = createTestDocument("site-123");
+        when(bulkWriter.set(documentReference, document)).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(pipeline.create(document))
+                .expectNext(true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(bulkWriter).set(documentReference, document);
+        verify(firestore, never()).getAll(any(DocumentReference[].class));
+    }
+
+    @Test
+    void update_withConcurrentWrites_shouldGroupExistenceChecksIntoSingleGetAll() {
+        DocumentSnapshot existing = existingSnapshot("site-1");
+        DocumentSnapshot missing = mock(DocumentSnapshot.class);
+        when(missing.exists()).thenReturn(false);
+        when(firestore.getAll(any(DocumentReference[].class))).thenReturn(ApiFutures.immediateFuture(List.of(existing, missing)));
+        when(bulkWriter.set(eq(documentReference), any(SiteWriteDocument.class))).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        Mono<Boolean> first = pipeline.update(createTestSite("site-1"));
+        Mono<Boolean> second = pipeline.update(createTestSite("site-2"));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).isTrue();
+                    assertThat(results.getT2()).isFalse();
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(firestore, times(1)).getAll(any(DocumentReference[].class));
+        verify(bulkWriter, times(1)).set(eq(documentReference), argThat((SiteWriteDocument document) ->
+                document.getName().equals("Updated Site") && document.getId().equals("site-1")));
+    }
+
+    @Test
+    void update_inReadModifyWriteMode_shouldLetServerRefreshUpdatedAt() {
+        SiteWriteDocument stored = createTestDocument("site-1");
+        stored.setUpdatedAt(new Date(0));
+        DocumentSnapshot existing = mock(DocumentSnapshot.class);
+        when(existing.exists()).thenReturn(true);
+        when(existing.getId()).thenReturn("site-1");
+        when(existing.toObject(SiteWriteDocument.class)).thenReturn(stored);
+        when(firestore.getAll(any(DocumentReference[].class))).thenReturn(ApiFutures.immediateFuture(List.of(existing)));
+        when(bulkWriter.set(eq(documentReference), any(SiteWriteDocument.class))).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(pipeline.update(createTestSite("site-1")))
+                .expectNext(true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(bulkWriter).set(eq(documentReference), argThat((SiteWriteDocument document) ->
+                document.getName().equals("Updated Site") && document.getUpdatedAt() == null));
+    }
+
+    @Test
+    void update_inConsecutiveBatches_shouldNotStartNextBatchUntilPreviousFlushCompletes() {
+        properties.getBatching().setMaxOps(1);
+        properties.setUpdateMode(FirestoreWriteProperties.UpdateMode.PRECONDITION);
+        SettableApiFuture<Void> firstFlush = SettableApiFuture.create();
+        when(bulkWriter.flush()).thenReturn(firstFlush, ApiFutures.immediateFuture(null));
+        when(bulkWriter.update(eq(documentReference), anyMap(), eq(SiteDocumentOperations.MUST_EXIST)))
+                .thenReturn(ApiFutures.immediateFuture(writeResult));
+        pipeline.stop();
+        pipeline = new SiteWritePipeline(firestore, Mappers.getMapper(SiteMapper.class), properties);
+        pipeline.start();
+
+        var first = pipeline.update(createTestSite("site-1")).toFuture();
+        var second = pipeline.update(createTestSite("site-1")).toFuture();
+
+        verify(bulkWriter, timeout(1000).times(1)).update(eq(documentReference), anyMap(), eq(SiteDocumentOperations.MUST_EXIST));
+        verify(bulkWriter, after(200).times(1)).update(eq(documentReference), anyMap(), eq(SiteDocumentOperations.MUST_EXIST));
+
+        firstFlush.set(null);
+
+        assertThat(first).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(true);
+        assertThat(second).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(true);
+        verify(bulkWriter, times(2)).update(eq(documentReference), anyMap(), eq(SiteDocumentOperations.MUST_EXIST));
+    }
+
+    @Test
+    void delete_withMissingSite_shouldReportNotWritten() {
+        DocumentSnapshot missing = mock(DocumentSnapshot.class);
+        when(missing.exists()).thenReturn(false);
+        when(firestore.getAll(any(DocumentReference[].class))).thenReturn(ApiFutures.immediateFuture(List.of(missing)));
+
+        StepVerifier.create(pipeline.delete("site-123"))
+                .expectNext(false)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(bulkWriter, never()).delete(any(DocumentReference.class));
+    }
+
+    @Test
+    void delete_withExistingSite_shouldDeleteDocument() {
+        DocumentSnapshot existing = existingSnapshot("site-123");
+        when(firestore.getAll(any(DocumentReference[].class))).thenReturn(ApiFutures.immediateFuture(List.of(existing)));
+        when(bulkWriter.delete(documentReference)).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(pipeline.delete("site-123"))
+                .expectNext(true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(bulkWriter).delete(documentReference);
+    }
+
+    @Test
+    void delete_withBlindMode_shouldDeleteWithoutExistenceCheck() {
+        properties.setDeleteMode(FirestoreWriteProperties.DeleteMode.BLIND);
+        pipeline.stop();
+        pipeline = new SiteWritePipeline(firestore, Mappers.getMapper(SiteMapper.class), properties);
+        pipeline.start();
+        when(bulkWriter.delete(documentReference)).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        StepVerifier.create(pipeline.delete("site-123"))
+                .expectNext(true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(firestore, never()).getAll(any(DocumentReference[].class));
+    }
+
+    @Test
+    void update_withPreconditionMode_shouldSkipExistenceCheck() {
+        properties.setUpdateMode(FirestoreWriteProperties.UpdateMode.PRECONDITION);
+        pipeline.stop();
+        pipeline = new SiteWritePipeline(firestore, Mappers.getMapper(SiteMapper.class), properties);
+        pipeline.start();
+        when(bulkWriter.update(eq(documentReference), anyMap(), eq(SiteDocumentOperations.MUST_EXIST)))
+                .thenReturn(ApiFutures.immediateFailedFuture(new NotFoundException(
+                        new IllegalStateException("No document to update"), GrpcStatusCode.of(Status.Code.NOT_FOUND), false)));
+
+        StepVerifier.create(pipeline.update(createTestSite("site-123")))
+                .expectNext(false)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(firestore, never()).getAll(any(DocumentReference[].class));
+    }
+
+    @Test
+    void create_whenWriteFails_shouldPropagateErrorToCaller() {
+        SiteWriteDocument document = createTestDocument("site-123");
+        when(bulkWriter.set(documentReference, document))
+                .thenReturn(ApiFutures.immediateFailedFuture(new IllegalStateException("Write rejected")));
+
+        StepVerifier.create(pipeline.create(document))
+                .expectErrorMessage("Write rejected")
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void stop_shouldFlushQueuedWritesBeforeClosing() {
+        properties.getBatching().setMaxDelay(Duration.ofSeconds(30));
+        pipeline.stop();
+        pipeline = new SiteWritePipeline(firestore, Mappers.getMapper(SiteMapper.class), properties);
+        pipeline.start();
+        SiteWriteDocument document = createTestDocument("site-123");
+        when(bulkWriter.set(documentReference, document)).thenReturn(ApiFutures.immediateFuture(writeResult));
+
+        var result = pipeline.create(document).toFuture();
+        pipeline.stop();
+
+        assertThat(result).succeedsWithin(Duration.ofSeconds(1)).isEqualTo(true);
+        StepVerifier.create(pipeline.create(document))
+                .expectErrorSatisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode())
+                        .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void stop_whenFlushDoesNotFinish_shouldFailPendingWritesWithServiceUnavailable() {
+        properties.getBatching().setDrainTimeout(Duration.ofMillis(100));
+        pipeline.stop();
+        pipeline = new SiteWritePipeline(firestore, Mappers.getMapper(SiteMapper.class), properties);
+        pipeline.start();
+        SiteWriteDocument document = createTestDocument("site-123");
+        when(bulkWriter.set(documentReference, document)).thenReturn(SettableApiFuture.create());
+        when(bulkWriter.flush()).thenReturn(SettableApiFuture.create());
+
+        var result = pipeline.create(document).toFuture();
+        verify(bulkWriter, timeout(1000)).flush();
+        pipeline.stop();
+
+        assertThat(result).failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(ResponseStatusException.class)
+                .withMessageContaining("503 SERVICE_UNAVAILABLE");
+    }
+
+    @Test
+    void isEnabled_shouldReflectBatchingProperty() {
+        FirestoreWriteProperties disabled = new FirestoreWriteProperties();
+        SiteWritePipeline disabledPipeline = new SiteWritePipeline(firestore, Mappers.getMapper(SiteMapper.class), disabled);
+
+        assertThat(pipeline.isEnabled()).isTrue();
+        assertThat(disabledPipeline.isEnabled()).isFalse();
+    }
+
+    private DocumentSnapshot existingSnapshot(String siteId) {
+        DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+        when(snapshot.exists()).thenReturn(true);
+        when(snapshot.getId()).thenReturn(siteId);
+        when(snapshot.toObject(SiteWriteDocument.class)).thenReturn(createTestDocument(siteId));
+        return snapshot;
+    }
+
+    private Site createTestSite(String siteId) {
+        return Site.newBuilder()
+                .setId(siteId)
+                .setName("Updated Site")
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder()
+                        .setLatitude(40.7128)
+                        .setLongitude(-74.0060)
+                        .build())
+                .build();
+    }
+
+    private SiteWriteDocument createTestDocument(String siteId) {
+        return SiteWriteDocument.builder()
+                .id(siteId)
+                .name("Test Site")
+                .userId("user-456")
+                .address("123 Test Street")
+                .location(GeoLocationWrite.builder()
+                        .latitude(40.7128)
+                        .longitude(-74.0060)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.WriteResult;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.FreshnessProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventFreshnessTest {
+
+    private static final Instant PUBLISHED = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private WriteResult writeResult;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FreshnessProperties freshnessProperties;
+    private EventFreshness eventFreshness;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        freshnessProperties = new FreshnessProperties();
+        freshnessProperties.setSlo(Duration.ofSeconds(5));
+        eventFreshness = new EventFreshness(freshnessProperties, meterRegistry, Clock.fixed(PUBLISHED.plusSeconds(2), ZoneOffset.UTC));
+    }
+
+    @Test
+    void track_withoutCommitTimestamp_shouldMeasureAgainstCompletionClock() {
+        StepVerifier.create(eventFreshness.track(SiteEventType.UPDATE, PUBLISHED, Mono.empty()))
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("site.events.freshness").tag("event_type", "UPDATE").timer().totalTime(TimeUnit.SECONDS)).isEqualTo(2.0);
+        assertThat(meterRegistry.get("site.events.freshness.last").tag("event_type", "UPDATE").timeGauge().value(TimeUnit.SECONDS)).isEqualTo(2.0);
+        assertThat(meterRegistry.get("site.events.freshness.slo.breaches").tag("event_type", "UPDATE").counter().count()).isZero();
+    }
+
+    @Test
+    void track_shouldPreferFirestoreCommitTimestampAndCountBreaches() {
+        when(writeResult.getUpdateTime()).thenReturn(Timestamp.ofTimeSecondsAndNanos(PUBLISHED.getEpochSecond() + 7, 0));
+
+        StepVerifier.create(eventFreshness.track(SiteEventType.DELETE, PUBLISHED, Mono.just(writeResult).flatMap(EventFreshness::committed).then()))
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("site.events.freshness").tag("event_type", "DELETE").timer().totalTime(TimeUnit.SECONDS)).isEqualTo(7.0);
+        assertThat(meterRegistry.get("site.events.freshness.slo.breaches").tag("event_type", "DELETE").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void track_withFailedWriteOrMissingPublishTime_shouldNotRecord() {
+        StepVerifier.create(eventFreshness.track(SiteEventType.CREATE, PUBLISHED, Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(eventFreshness.track(SiteEventType.CREATE, null, Mono.empty()))
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("site.events.freshness").tag("event_type", "CREATE").timer().count()).isZero();
+    }
+
+    @Test
+    void committed_outsideTrackedWrite_shouldPassResultThrough() {
+        StepVerifier.create(EventFreshness.committed(writeResult))
+                .expectNext(writeResult)
+                .verifyComplete();
+    }
+}
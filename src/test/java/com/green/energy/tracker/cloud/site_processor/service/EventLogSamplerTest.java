@@ -0,0 +1,44 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.LoggingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventLogSamplerTest {
+
+    private LoggingProperties loggingProperties;
+    private EventLogSampler eventLogSampler;
+
+    @BeforeEach
+    void setUp() {
+        loggingProperties = new LoggingProperties();
+        eventLogSampler = new EventLogSampler(loggingProperties);
+    }
+
+    @Test
+    void sampled_withDefaults_shouldLogEveryEvent() {
+        assertThat(IntStream.range(0, 100).allMatch(i -> eventLogSampler.sampled(SiteEventType.UPDATE))).isTrue();
+    }
+
+    @Test
+    void sampled_withZeroRate_shouldNeverLogThatType() {
+        loggingProperties.getSampleRates().put(SiteEventType.UPDATE, 0.0);
+
+        assertThat(IntStream.range(0, 100).noneMatch(i -> eventLogSampler.sampled(SiteEventType.UPDATE))).isTrue();
+        assertThat(eventLogSampler.sampled(SiteEventType.CREATE)).isTrue();
+    }
+
+    @Test
+    void sampled_withFractionalRate_shouldLogRoughlyThatShare() {
+        loggingProperties.setDefaultSampleRate(0.1);
+
+        long sampled = IntStream.range(0, 20_000).filter(i -> eventLogSampler.sampled(SiteEventType.DELETE)).count();
+
+        assertThat(sampled).isBetween(1_500L, 2_500L);
+    }
+}
@@ -0,0 +1,116 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site_processor.config.HedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgedReadsTest {
+
+    private HedgingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private HedgedReads hedgedReads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setInitialDelay(Duration.ofMillis(20));
+        properties.setMinDelay(Duration.ofMillis(5));
+        properties.setMaxDelay(Duration.ofMillis(50));
+        properties.setMinSamples(3);
+        meterRegistry = new SimpleMeterRegistry();
+        hedgedReads = new HedgedReads(properties, meterRegistry);
+    }
+
+    @Test
+    void read_withFastPrimary_shouldNotSendHedge() {
+        AtomicInteger reads = new AtomicInteger();
+
+        StepVerifier.create(hedgedReads.read(() -> Mono.fromSupplier(() -> "value-" + reads.incrementAndGet())))
+                .expectNext("value-1")
+                .verifyComplete();
+
+        assertThat(reads).hasValue(1);
+        assertThat(counter("sent")).isZero();
+    }
+
+    @Test
+    void read_withSlowPrimary_shouldTakeFirstAnswer() {
+        AtomicInteger reads = new AtomicInteger();
+
+        StepVerifier.create(hedgedReads.read(() -> reads.incrementAndGet() == 1 ? Mono.<String>never() : Mono.just("hedged")))
+                .expectNext("hedged")
+                .verifyComplete();
+
+        assertThat(reads).hasValue(2);
+        assertThat(counter("sent")).isEqualTo(1.0);
+        assertThat(counter("won")).isEqualTo(1.0);
+    }
+
+    @Test
+    void read_whenHedgeWins_shouldNotRecordCancelledPrimaryLatency() {
+        AtomicInteger reads = new AtomicInteger();
+
+        StepVerifier.create(hedgedReads.read(() -> reads.incrementAndGet() == 1 ? Mono.<String>never() : Mono.just("hedged")))
+                .expectNext("hedged")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("site.firestore.read.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void read_withEmptyPrimary_shouldCompleteEmptyWithoutHedge() {
+        AtomicInteger reads = new AtomicInteger();
+
+        StepVerifier.create(hedgedReads.read(() -> Mono.<String>empty().doOnSubscribe(subscription -> reads.incrementAndGet())))
+                .verifyComplete();
+
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void read_whenDisabled_shouldReadOnce() {
+        properties.setEnabled(false);
+        AtomicInteger reads = new AtomicInteger();
+
+        StepVerifier.create(hedgedReads.read(() -> Mono.<String>never().doOnSubscribe(subscription -> reads.incrementAndGet())))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify();
+
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void delay_beforeMinSamples_shouldUseInitialDelay() {
+        assertThat(hedgedReads.delay()).isEqualTo(Duration.ofMillis(20));
+    }
+
+    @Test
+    void delay_afterMinSamples_shouldFollowObservedPercentileWithinBounds() {
+        for (int i = 0; i < 3; i++)
+            StepVerifier.create(hedgedReads.read(() -> Mono.just("fast"))).expectNext("fast").verifyComplete();
+
+        assertThat(hedgedReads.delay()).isEqualTo(Duration.ofMillis(5));
+
+        for (int i = 0; i < 10; i++)
+            StepVerifier.create(hedgedReads.read(() -> Mono.delay(Duration.ofMillis(80)).thenReturn("slow")))
+                    .expectNext("slow")
+                    .verifyComplete();
+
+        assertThat(hedgedReads.delay()).isEqualTo(Duration.ofMillis(50));
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("site.firestore.read.hedged").tag("outcome", outcome).counter().count();
+    }
+}
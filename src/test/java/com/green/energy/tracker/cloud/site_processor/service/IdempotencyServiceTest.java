@@ -0,0 +1,149 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site_processor.config.IdempotencyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private IdempotencyProperties idempotencyProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyProperties = new IdempotencyProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        Retry retryCache = Retry.of("cache", RetryConfig.custom().maxAttempts(1).build());
+        idempotencyService = new IdempotencyService(redisTemplate, retryCache, idempotencyProperties, new RedisKeyProperties(), meterRegistry);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void tryAcquire_withNewMessage_shouldSetInProgressMarkerWithShortTtl() {
+        when(valueOperations.setIfAbsent("site:msg:message-1", "pending", Duration.ofSeconds(60))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(idempotencyService.tryAcquire("message-1"))
+                .expectNext(IdempotencyService.Claim.ACQUIRED)
+                .verifyComplete();
+    }
+
+    @Test
+    void tryAcquire_withMessageCompletedInRedis_shouldReportDone() {
+        when(valueOperations.setIfAbsent(any(), any(), any(Duration.class))).thenReturn(Mono.just(false));
+        when(valueOperations.get("site:msg:message-1")).thenReturn(Mono.just("done"));
+
+        StepVerifier.create(idempotencyService.tryAcquire("message-1"))
+                .expectNext(IdempotencyService.Claim.DONE)
+                .verifyComplete();
+
+        assertThat(meterRegistry.counter("site.events.duplicates", "tier", "redis", "state", "done").count()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_withMessageInProgressElsewhere_shouldReportInProgress() {
+        when(valueOperations.setIfAbsent(any(), any(), any(Duration.class))).thenReturn(Mono.just(false));
+        when(valueOperations.get("site:msg:message-1")).thenReturn(Mono.just("pending"));
+
+        StepVerifier.create(idempotencyService.tryAcquire("message-1"))
+                .expectNext(IdempotencyService.Claim.IN_PROGRESS)
+                .verifyComplete();
+
+        assertThat(meterRegistry.counter("site.events.duplicates", "tier", "redis", "state", "in_progress").count()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_withMessageCompletedLocally_shouldNotCallRedis() {
+        when(valueOperations.set("site:msg:message-1", "done", Duration.ofSeconds(3600))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(idempotencyService.complete("message-1")).verifyComplete();
+        StepVerifier.create(idempotencyService.tryAcquire("message-1")).expectNext(IdempotencyService.Claim.DONE).verifyComplete();
+
+        verify(valueOperations, never()).setIfAbsent(any(), any(), any(Duration.class));
+        assertThat(meterRegistry.counter("site.events.duplicates", "tier", "local", "state", "done").count()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_withInProgressMessage_shouldNotBeAnsweredLocally() {
+        when(valueOperations.setIfAbsent(any(), any(), any(Duration.class))).thenReturn(Mono.just(true), Mono.just(false));
+        when(valueOperations.get("site:msg:message-1")).thenReturn(Mono.just("pending"));
+
+        StepVerifier.create(idempotencyService.tryAcquire("message-1")).expectNext(IdempotencyService.Claim.ACQUIRED).verifyComplete();
+        StepVerifier.create(idempotencyService.tryAcquire("message-1")).expectNext(IdempotencyService.Claim.IN_PROGRESS).verifyComplete();
+
+        verify(valueOperations, times(2)).setIfAbsent(any(), any(), any(Duration.class));
+    }
+
+    @Test
+    void tryAcquire_whenRedisFails_shouldFailOpen() {
+        when(valueOperations.setIfAbsent(any(), any(), any(Duration.class)))
+                .thenReturn(Mono.error(new RedisConnectionFailureException("Connection refused")));
+
+        StepVerifier.create(idempotencyService.tryAcquire("message-1"))
+                .expectNext(IdempotencyService.Claim.ACQUIRED)
+                .verifyComplete();
+    }
+
+    @Test
+    void tryAcquire_withoutMessageId_shouldSkipCheck() {
+        StepVerifier.create(idempotencyService.tryAcquire("")).expectNext(IdempotencyService.Claim.ACQUIRED).verifyComplete();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void tryAcquire_whenDisabled_shouldSkipCheck() {
+        idempotencyProperties.setEnabled(false);
+
+        StepVerifier.create(idempotencyService.tryAcquire("message-1")).expectNext(IdempotencyService.Claim.ACQUIRED).verifyComplete();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void complete_whenRedisFails_shouldStillRememberMessageLocally() {
+        when(valueOperations.set(any(), any(), any(Duration.class)))
+                .thenReturn(Mono.error(new RedisConnectionFailureException("Connection refused")));
+
+        StepVerifier.create(idempotencyService.complete("message-1")).verifyComplete();
+        StepVerifier.create(idempotencyService.tryAcquire("message-1")).expectNext(IdempotencyService.Claim.DONE).verifyComplete();
+    }
+
+    @Test
+    void release_shouldDeleteKeyAndForgetLocalEntry() {
+        when(valueOperations.set(any(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(valueOperations.setIfAbsent(any(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(redisTemplate.delete("site:msg:message-1")).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(idempotencyService.complete("message-1")).verifyComplete();
+        StepVerifier.create(idempotencyService.release("message-1")).verifyComplete();
+        StepVerifier.create(idempotencyService.tryAcquire("message-1")).expectNext(IdempotencyService.Claim.ACQUIRED).verifyComplete();
+
+        verify(valueOperations).setIfAbsent(any(), any(), any(Duration.class));
+    }
+}
@@ -0,0 +1,177 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SiteCacheProperties;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MissingSiteCacheTest {
+
+    private static final String KEY = "site:missing:site-123";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    private SiteCacheProperties siteCacheProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private MissingSiteCache missingSiteCache;
+
+    @BeforeEach
+    void setUp() {
+        siteCacheProperties = new SiteCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        missingSiteCache = newCache();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void isMissing_withUnknownSite_shouldReturnFalse() {
+        siteCacheProperties.getNegative().setRedisEnabled(false);
+        missingSiteCache = newCache();
+
+        StepVerifier.create(missingSiteCache.isMissing("site-123"))
+                .expectNext(false)
+                .verifyComplete();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void markMissing_shouldAnswerFromLocalTier() {
+        siteCacheProperties.getNegative().setRedisEnabled(false);
+        missingSiteCache = newCache();
+
+        StepVerifier.create(missingSiteCache.markMissing("site-123")).verifyComplete();
+
+        StepVerifier.create(missingSiteCache.isMissing("site-123"))
+                .expectNext(true)
+                .verifyComplete();
+
+        assertThat(meterRegistry.counter("site.cache.negative.hits", "tier", "local").count()).isEqualTo(1);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void forget_shouldClearMissingSite() {
+        siteCacheProperties.getNegative().setRedisEnabled(false);
+        missingSiteCache = newCache();
+
+        StepVerifier.create(missingSiteCache.markMissing("site-123")).verifyComplete();
+        StepVerifier.create(missingSiteCache.forget("site-123")).verifyComplete();
+
+        StepVerifier.create(missingSiteCache.isMissing("site-123"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void markMissing_withRedisEnabled_shouldWriteKeyWithNegativeTtl() {
+        siteCacheProperties.getNegative().setRedisEnabled(true);
+        missingSiteCache = newCache();
+        when(valueOperations.set(KEY, "1", Duration.ofSeconds(30))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(missingSiteCache.markMissing("site-123")).verifyComplete();
+
+        verify(valueOperations).set(KEY, "1", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void isMissing_withRedisEnabled_shouldConsultRedisOnLocalMiss() {
+        siteCacheProperties.getNegative().setRedisEnabled(true);
+        missingSiteCache = newCache();
+        when(redisTemplate.hasKey(KEY)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(missingSiteCache.isMissing("site-123")).expectNext(true).verifyComplete();
+        StepVerifier.create(missingSiteCache.isMissing("site-123")).expectNext(true).verifyComplete();
+
+        verify(redisTemplate, times(1)).hasKey(KEY);
+        assertThat(meterRegistry.counter("site.cache.negative.hits", "tier", "redis").count()).isEqualTo(1);
+    }
+
+    @Test
+    void isMissing_whenRedisFails_shouldReturnFalse() {
+        siteCacheProperties.getNegative().setRedisEnabled(true);
+        missingSiteCache = newCache();
+        when(redisTemplate.hasKey(KEY)).thenReturn(Mono.error(new RedisConnectionFailureException("Connection refused")));
+
+        StepVerifier.create(missingSiteCache.isMissing("site-123"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void forget_withRedisEnabled_shouldDeleteKey() {
+        siteCacheProperties.getNegative().setRedisEnabled(true);
+        missingSiteCache = newCache();
+        when(redisTemplate.delete(KEY)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(missingSiteCache.forget("site-123")).verifyComplete();
+
+        verify(redisTemplate).delete(KEY);
+    }
+
+    @Test
+    void isMissing_whenDisabled_shouldAlwaysReturnFalse() {
+        siteCacheProperties.getNegative().setEnabled(false);
+        missingSiteCache = newCache();
+
+        StepVerifier.create(missingSiteCache.markMissing("site-123")).verifyComplete();
+        StepVerifier.create(missingSiteCache.isMissing("site-123"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void forget_onAnotherInstance_shouldStopAnswering404OnceLocalEntryExpires() throws InterruptedException {
+        siteCacheProperties.getNegative().setLocalTtl(Duration.ofMillis(100));
+        Map<String, String> redis = new ConcurrentHashMap<>();
+        when(valueOperations.set(eq(KEY), eq("1"), any(Duration.class))).thenAnswer(invocation -> Mono.fromSupplier(() -> redis.put(KEY, "1") == null));
+        when(redisTemplate.delete(KEY)).thenAnswer(invocation -> Mono.fromSupplier(() -> redis.remove(KEY) == null ? 0L : 1L));
+        when(redisTemplate.hasKey(KEY)).thenAnswer(invocation -> Mono.fromSupplier(() -> redis.containsKey(KEY)));
+        var updatingInstance = newCache();
+        var creatingInstance = newCache();
+
+        StepVerifier.create(updatingInstance.markMissing("site-123")).verifyComplete();
+        StepVerifier.create(creatingInstance.isMissing("site-123")).expectNext(true).verifyComplete();
+        StepVerifier.create(creatingInstance.forget("site-123")).verifyComplete();
+        Thread.sleep(150);
+
+        StepVerifier.create(updatingInstance.isMissing("site-123")).expectNext(false).verifyComplete();
+        StepVerifier.create(creatingInstance.isMissing("site-123")).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    void defaults_shouldShareNegativeEntriesThroughRedis() {
+        var negative = new SiteCacheProperties().getNegative();
+
+        assertThat(negative.isRedisEnabled()).isTrue();
+        assertThat(negative.getLocalTtl()).isLessThan(negative.getTtl());
+    }
+
+    private MissingSiteCache newCache() {
+        Retry retryCache = Retry.of("cache", RetryConfig.custom().maxAttempts(1).build());
+        return new MissingSiteCache(redisTemplate, retryCache, siteCacheProperties, new RedisKeyProperties(), meterRegistry);
+    }
+}
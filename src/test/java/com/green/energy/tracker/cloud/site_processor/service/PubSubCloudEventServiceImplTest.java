@@ -1,14 +1,20 @@
 package com.green.energy.tracker.cloud.site_processor.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.events.cloud.pubsub.v1.MessagePublishedData;
-import com.google.events.cloud.pubsub.v1.PubsubMessage;
-import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.PubsubMessage;
 import com.green.energy.tracker.cloud.common.v1.GeoLocation;
 import com.green.energy.tracker.cloud.site.v1.Site;
 import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.BatchProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FreshnessProperties;
+import com.green.energy.tracker.cloud.site_processor.config.LoggingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.PayloadBudgetProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SequencerProperties;
+import com.green.energy.tracker.cloud.site_processor.events.PayloadBudget;
+import com.green.energy.tracker.cloud.site_processor.events.PubSubPushDecoder;
+import com.green.energy.tracker.cloud.site_processor.model.SiteEventResult;
 import io.cloudevents.CloudEvent;
 import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,34 +22,48 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PubSubCloudEventServiceImplTest {
 
     @Mock
-    private ObjectMapper objectMapper;
+    private SiteService siteService;
 
     @Mock
-    private SiteService siteService;
+    private IdempotencyService idempotencyService;
 
     private PubSubCloudEventServiceImpl pubSubCloudEventService;
 
+    private SimpleMeterRegistry meterRegistry;
+
+    private PayloadBudget payloadBudget;
+
     @BeforeEach
     void setUp() {
-        pubSubCloudEventService = new PubSubCloudEventServiceImpl(objectMapper, siteService);
+        meterRegistry = new SimpleMeterRegistry();
+        payloadBudget = new PayloadBudget(new PayloadBudgetProperties(), meterRegistry);
+        pubSubCloudEventService = new PubSubCloudEventServiceImpl(new PubSubPushDecoder(), siteService, new BatchProperties(),
+                new SiteEventSequencer(new SequencerProperties(), meterRegistry), idempotencyService, new SiteEventRouter(),
+                new SiteEventMetrics(meterRegistry), new EventFreshness(new FreshnessProperties(), meterRegistry),
+                new EventLogSampler(new LoggingProperties()), payloadBudget);
+
+        lenient().when(idempotencyService.tryAcquire(any())).thenReturn(Mono.just(IdempotencyService.Claim.ACQUIRED));
+        lenient().when(idempotencyService.complete(any())).thenReturn(Mono.empty());
+        lenient().when(idempotencyService.release(any())).thenReturn(Mono.empty());
     }
 
     // ==================== CREATE EVENT TESTS ====================
@@ -52,10 +72,7 @@ class PubSubCloudEventServiceImplTest {
     void handleSiteEvents_withCreateEvent_shouldReturnOkStatusWithNoBody() throws Exception {
         Site site = createTestSite();
         CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.CREATE);
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, SiteEventType.CREATE);
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenReturn(messagePublishedData);
         when(siteService.create(any(Site.class)))
                 .thenReturn(Mono.empty());
 
@@ -69,7 +86,6 @@ class PubSubCloudEventServiceImplTest {
                 })
                 .verifyComplete();
 
-        verify(objectMapper).readValue(any(byte[].class), eq(MessagePublishedData.class));
         verify(siteService).create(any(Site.class));
     }
 
@@ -77,11 +93,8 @@ class PubSubCloudEventServiceImplTest {
     void handleSiteEvents_withCreateEventAndServiceError_shouldPropagateError() throws Exception {
         Site site = createTestSite();
         CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.CREATE);
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, SiteEventType.CREATE);
         RuntimeException serviceException = new RuntimeException("Database error");
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenReturn(messagePublishedData);
         when(siteService.create(any(Site.class)))
                 .thenReturn(Mono.error(serviceException));
 
@@ -100,10 +113,7 @@ class PubSubCloudEventServiceImplTest {
     void handleSiteEvents_withUpdateEvent_shouldReturnOkStatusWithNoBody() throws Exception {
         Site site = createTestSite();
         CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.UPDATE);
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, SiteEventType.UPDATE);
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenReturn(messagePublishedData);
         when(siteService.update(any(Site.class)))
                 .thenReturn(Mono.empty());
 
@@ -116,7 +126,6 @@ class PubSubCloudEventServiceImplTest {
                 })
                 .verifyComplete();
 
-        verify(objectMapper).readValue(any(byte[].class), eq(MessagePublishedData.class));
         verify(siteService).update(any(Site.class));
     }
 
@@ -124,11 +133,8 @@ class PubSubCloudEventServiceImplTest {
     void handleSiteEvents_withUpdateEventAndServiceError_shouldPropagateError() throws Exception {
         Site site = createTestSite();
         CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.UPDATE);
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, SiteEventType.UPDATE);
         RuntimeException serviceException = new RuntimeException("Update failed");
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenReturn(messagePublishedData);
         when(siteService.update(any(Site.class)))
                 .thenReturn(Mono.error(serviceException));
 
@@ -147,10 +153,7 @@ class PubSubCloudEventServiceImplTest {
     void handleSiteEvents_withDeleteEvent_shouldReturnAcceptedStatusWithNoBody() throws Exception {
         Site site = createTestSite();
         CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.DELETE);
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, SiteEventType.DELETE);
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenReturn(messagePublishedData);
         when(siteService.delete("site-123"))
                 .thenReturn(Mono.empty());
 
@@ -163,7 +166,6 @@ class PubSubCloudEventServiceImplTest {
                 })
                 .verifyComplete();
 
-        verify(objectMapper).readValue(any(byte[].class), eq(MessagePublishedData.class));
         verify(siteService).delete("site-123");
     }
 
@@ -171,49 +173,61 @@ class PubSubCloudEventServiceImplTest {
     void handleSiteEvents_shouldExtractEntityIdFromAttributesForDelete() throws Exception {
         Site site = createTestSite();
         CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.DELETE);
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, SiteEventType.DELETE);
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenReturn(messagePublishedData);
         when(siteService.delete(anyString()))
                 .thenReturn(Mono.empty());
 
-        pubSubCloudEventService.handleSiteEvents(cloudEvent);
+        pubSubCloudEventService.handleSiteEvents(cloudEvent).block();
 
         verify(siteService).delete("site-123");
     }
 
     @Test
-    void handleSiteEvents_withUnrecognizedEventType_shouldReturnEmpty() throws Exception {
-        Site site = createTestSite();
-        CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.UNRECOGNIZED);
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, SiteEventType.UNRECOGNIZED);
+    void handleSiteEvents_withUnrecognizedEventType_shouldRejectBeforeAnyWork() {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.UNRECOGNIZED);
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenReturn(messagePublishedData);
+        assertThatThrownBy(() -> pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
 
-        Mono<ResponseEntity<Void>> result = pubSubCloudEventService.handleSiteEvents(cloudEvent);
+        verifyNoInteractions(siteService, idempotencyService);
+    }
 
-        StepVerifier.create(result)
-                .verifyComplete();
+    @Test
+    void handleSiteEvents_withDeleteEvent_shouldNotDecodeSitePayload() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(Base64.getEncoder().encodeToString(new byte[]{(byte) 0xFF, 0x01}), SiteEventType.DELETE);
 
-        verify(objectMapper).readValue(any(byte[].class), eq(MessagePublishedData.class));
-        verifyNoInteractions(siteService);
+        when(siteService.delete("site-123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED))
+                .verifyComplete();
     }
 
     @Test
-    void handleSiteEvents_whenObjectMapperThrowsIOException_shouldThrowException() throws Exception {
-        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.CREATE);
-        IOException ioException = new IOException("Deserialization failed");
-
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenThrow(ioException);
+    void handleSiteEvents_withNonObjectEnvelope_shouldThrowIOException() {
+        CloudEvent cloudEvent = CloudEventBuilder.v1()
+                .withId("test-id")
+                .withSource(URI.create("test-source"))
+                .withType("test-type")
+                .withData("application/json", "[]".getBytes())
+                .build();
 
         assertThatThrownBy(() -> pubSubCloudEventService.handleSiteEvents(cloudEvent))
                 .isInstanceOf(IOException.class)
-                .hasMessage("Deserialization failed");
+                .hasMessageContaining("Pub/Sub push envelope must be a JSON object");
+
+        verifyNoInteractions(siteService);
+    }
+
+    @Test
+    void handleSiteEvents_withCorruptSitePayload_shouldFailBeforeCallingService() {
+        CloudEvent cloudEvent = createCloudEvent(Base64.getEncoder().encodeToString(new byte[]{(byte) 0xFF, 0x01}), SiteEventType.CREATE);
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectError(IOException.class)
+                .verify();
 
-        verify(objectMapper).readValue(any(byte[].class), eq(MessagePublishedData.class));
         verifyNoInteractions(siteService);
     }
 
@@ -226,12 +240,8 @@ class PubSubCloudEventServiceImplTest {
                 .withData("application/json", "invalid-json-data".getBytes())
                 .build();
 
-        when(objectMapper.readValue(any(byte[].class), eq(MessagePublishedData.class)))
-                .thenThrow(new IOException("Invalid JSON"));
-
         assertThatThrownBy(() -> pubSubCloudEventService.handleSiteEvents(cloudEvent))
-                .isInstanceOf(IOException.class)
-                .hasMessage("Invalid JSON");
+                .isInstanceOf(IOException.class);
     }
 
     @Test
@@ -248,6 +258,315 @@ class PubSubCloudEventServiceImplTest {
         verifyNoInteractions(siteService);
     }
 
+    // ==================== PROTOBUF BINARY MODE TESTS ====================
+
+    @Test
+    void handleSiteEvents_withProtobufUpdate_shouldParseSiteWithoutPushEnvelope() throws Exception {
+        Site site = createTestSite();
+        CloudEvent cloudEvent = CloudEventBuilder.v1()
+                .withId("event-7")
+                .withSource(URI.create("//site-publisher"))
+                .withType("com.green.energy.tracker.site.v1")
+                .withExtension("eventtype", "UPDATE")
+                .withExtension("entityid", "site-123")
+                .withData("application/protobuf", site.toByteArray())
+                .build();
+
+        when(siteService.update(site)).thenReturn(Mono.empty());
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK))
+                .verifyComplete();
+
+        verify(siteService).update(site);
+        verify(idempotencyService).tryAcquire("ce://site-publisher:event-7");
+    }
+
+    @Test
+    void handleSiteEvents_withProtobufDeleteWithoutData_shouldUseEntityIdExtension() throws Exception {
+        CloudEvent cloudEvent = CloudEventBuilder.v1()
+                .withId("event-8")
+                .withSource(URI.create("//site-publisher"))
+                .withType("com.green.energy.tracker.site.v1")
+                .withDataContentType("application/protobuf")
+                .withExtension("eventtype", "DELETE")
+                .withExtension("entityid", "site-123")
+                .build();
+
+        when(siteService.delete("site-123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED))
+                .verifyComplete();
+    }
+
+    // ==================== METRICS TESTS ====================
+
+    @Test
+    void handleSiteEvents_shouldTimeDecodeAndParseStagesByEventType() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.UPDATE);
+
+        when(siteService.update(any(Site.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(meterRegistry.find(SiteEventMetrics.STAGE_TIMER)
+                .tags("stage", SiteEventMetrics.DECODE, "event_type", "UPDATE", "outcome", SiteEventMetrics.SUCCESS)
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(SiteEventMetrics.STAGE_TIMER)
+                .tags("stage", SiteEventMetrics.PARSE, "event_type", "UPDATE", "outcome", SiteEventMetrics.SUCCESS)
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void handleSiteEvents_shouldRecordPublishToCommitFreshness() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.CREATE);
+
+        when(siteService.create(any(Site.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("site.events.freshness").tag("event_type", "CREATE").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("site.events.freshness.slo.breaches").tag("event_type", "CREATE").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void handleSiteEvents_withMalformedEnvelope_shouldRecordFailedDecode() {
+        CloudEvent cloudEvent = CloudEventBuilder.v1()
+                .withId("test-event-id")
+                .withSource(URI.create("//pubsub.googleapis.com/projects/test-project/topics/test-topic"))
+                .withType("google.cloud.pubsub.topic.v1.messagePublished")
+                .withData("application/json", "[]".getBytes())
+                .build();
+
+        assertThatThrownBy(() -> pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .isInstanceOf(IOException.class);
+
+        assertThat(meterRegistry.find(SiteEventMetrics.STAGE_TIMER)
+                .tags("stage", SiteEventMetrics.DECODE, "event_type", "UNKNOWN", "outcome", SiteEventMetrics.ERROR)
+                .timer().count()).isEqualTo(1);
+    }
+
+    // ==================== PAYLOAD BUDGET TESTS ====================
+
+    @Test
+    void handleSiteEvents_shouldChargeDecodedSiteUntilWriteCompletes() throws Exception {
+        Site site = createTestSite();
+        CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.UPDATE);
+        var reservedDuringWrite = new AtomicLong();
+
+        when(siteService.update(any(Site.class))).thenReturn(Mono.fromRunnable(() -> reservedDuringWrite.set(payloadBudget.getReserved())));
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(reservedDuringWrite.get()).isEqualTo(site.getSerializedSize() * 4L);
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+
+    @Test
+    void handleSiteEvents_forDuplicateDelivery_shouldNotChargeBudget() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.UPDATE);
+
+        when(idempotencyService.tryAcquire(any())).thenReturn(Mono.just(IdempotencyService.Claim.DONE));
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(payloadBudget.getReserved()).isZero();
+    }
+
+    // ==================== IDEMPOTENCY TESTS ====================
+
+    @Test
+    void handleSiteEvents_withDuplicateMessage_shouldAcknowledgeWithoutProcessing() throws Exception {
+        Site site = createTestSite();
+        CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.CREATE);
+
+        when(idempotencyService.tryAcquire("message-1")).thenReturn(Mono.just(IdempotencyService.Claim.DONE));
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK))
+                .verifyComplete();
+
+        verify(siteService, never()).create(any(Site.class));
+    }
+
+    @Test
+    void handleSiteEvents_whenProcessingFails_shouldReleaseMessageForRedelivery() throws Exception {
+        Site site = createTestSite();
+        CloudEvent cloudEvent = createCloudEvent(site, SiteEventType.UPDATE);
+
+        when(siteService.update(any(Site.class))).thenReturn(Mono.error(new RuntimeException("Update failed")));
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectErrorMessage("Update failed")
+                .verify();
+
+        verify(idempotencyService).tryAcquire("message-1");
+        verify(idempotencyService).release("message-1");
+        verify(idempotencyService, never()).complete(any());
+    }
+
+    @Test
+    void handleSiteEvents_whenProcessingSucceeds_shouldMarkMessageDone() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.UPDATE);
+
+        when(siteService.update(any(Site.class))).thenReturn(Mono.empty());
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(idempotencyService).complete("message-1");
+        verify(idempotencyService, never()).release(any());
+    }
+
+    @Test
+    void handleSiteEvents_withDeliveryInProgressElsewhere_shouldRejectWithConflictForRedelivery() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.UPDATE);
+
+        when(idempotencyService.tryAcquire("message-1")).thenReturn(Mono.just(IdempotencyService.Claim.IN_PROGRESS));
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.CONFLICT)
+                .verify();
+
+        verifyNoInteractions(siteService);
+        verify(idempotencyService, never()).release(any());
+    }
+
+    @Test
+    void handleSiteEvents_whenCancelledBeforeWriteCompletes_shouldReleaseMessage() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.UPDATE);
+
+        when(siteService.update(any(Site.class))).thenReturn(Mono.never());
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .thenCancel()
+                .verify();
+
+        verify(idempotencyService).release("message-1");
+        verify(idempotencyService, never()).complete(any());
+    }
+
+    @Test
+    void handleSiteEvents_forDuplicateDelivery_shouldSkipPayloadParsing() throws Exception {
+        CloudEvent cloudEvent = createCloudEvent(createTestSite(), SiteEventType.UPDATE);
+
+        when(idempotencyService.tryAcquire("message-1")).thenReturn(Mono.just(IdempotencyService.Claim.DONE));
+
+        StepVerifier.create(pubSubCloudEventService.handleSiteEvents(cloudEvent))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(meterRegistry.find(SiteEventMetrics.STAGE_TIMER).tags("stage", SiteEventMetrics.PARSE).timer()).isNull();
+    }
+
+    // ==================== STREAMING PULL TESTS ====================
+
+    @Test
+    void handlePulledMessage_withUpdate_shouldDispatchDecodedSite() {
+        Site site = createTestSite();
+        PubsubMessage message = PubsubMessage.newBuilder()
+                .setMessageId("message-1")
+                .putAttributes("event_type", "UPDATE")
+                .putAttributes("entity_id", "site-123")
+                .setData(site.toByteString())
+                .build();
+
+        when(siteService.update(site)).thenReturn(Mono.empty());
+
+        StepVerifier.create(pubSubCloudEventService.handlePulledMessage(message))
+                .assertNext(response -> assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK))
+                .verifyComplete();
+
+        verify(idempotencyService).tryAcquire("message-1");
+    }
+
+    @Test
+    void handlePulledMessage_withUnsupportedType_shouldFailWithBadRequest() {
+        PubsubMessage message = PubsubMessage.newBuilder()
+                .setMessageId("message-1")
+                .putAttributes("event_type", "ARCHIVE")
+                .build();
+
+        StepVerifier.create(pubSubCloudEventService.handlePulledMessage(message))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.BAD_REQUEST)
+                .verify();
+
+        verifyNoInteractions(siteService);
+    }
+
+    // ==================== BATCH TESTS ====================
+
+    @Test
+    void handleSiteEventsBatch_shouldReturnPerEventStatusInOrder() throws Exception {
+        Site site = createTestSite();
+
+        when(siteService.create(any(Site.class))).thenReturn(Mono.empty());
+        when(siteService.delete("site-123")).thenReturn(Mono.empty());
+
+        Mono<List<SiteEventResult>> result = pubSubCloudEventService.handleSiteEventsBatch(List.of(
+                structuredCloudEvent("event-1", site, SiteEventType.CREATE), structuredCloudEvent("event-2", site, SiteEventType.DELETE)));
+
+        StepVerifier.create(result)
+                .assertNext(results -> {
+                    assertThat(results).extracting(SiteEventResult::getIndex).containsExactly(0, 1);
+                    assertThat(results).extracting(SiteEventResult::getId).containsExactly("event-1", "event-2");
+                    assertThat(results).extracting(SiteEventResult::getStatus).containsExactlyInAnyOrder(200, 202);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void handleSiteEventsBatch_whenOneEventFails_shouldReportFailureWithoutFailingBatch() throws Exception {
+        Site site = createTestSite();
+
+        when(siteService.update(any(Site.class)))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Site to update not found")));
+
+        Mono<List<SiteEventResult>> result = pubSubCloudEventService.handleSiteEventsBatch(List.of(structuredCloudEvent("event-1", site, SiteEventType.UPDATE)));
+
+        StepVerifier.create(result)
+                .assertNext(results -> {
+                    assertThat(results).hasSize(1);
+                    assertThat(results.get(0).getStatus()).isEqualTo(404);
+                    assertThat(results.get(0).getReason()).isEqualTo("Site to update not found");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void handleSiteEventsBatch_withUndecodableEvent_shouldReportBadRequest() {
+        Mono<List<SiteEventResult>> result = pubSubCloudEventService.handleSiteEventsBatch(List.of("{\"not\":\"a cloud event\"}".getBytes()));
+
+        StepVerifier.create(result)
+                .assertNext(results -> {
+                    assertThat(results).hasSize(1);
+                    assertThat(results.get(0).getId()).isNull();
+                    assertThat(results.get(0).getStatus()).isEqualTo(400);
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(siteService);
+    }
+
+    private byte[] structuredCloudEvent(String eventId, Site site, SiteEventType eventType) {
+        return ("{\"specversion\":\"1.0\",\"id\":\"" + eventId + "\","
+                + "\"source\":\"//pubsub.googleapis.com/projects/test-project/topics/test-topic\","
+                + "\"type\":\"google.cloud.pubsub.topic.v1.messagePublished\","
+                + "\"datacontenttype\":\"application/json\",\"data\":" + pushEnvelope(encode(site), eventType) + "}").getBytes();
+    }
+
     private Site createTestSite() {
         return Site.newBuilder()
                 .setId("site-123")
@@ -262,37 +581,27 @@ class PubSubCloudEventServiceImplTest {
     }
 
     private CloudEvent createCloudEvent(Site site, SiteEventType eventType) {
-        MessagePublishedData messagePublishedData = createMessagePublishedData(site, eventType);
-        byte[] eventData = new byte[0];
-
-        try {
-            ObjectMapper mapper = new ObjectMapper();
-            eventData = mapper.writeValueAsBytes(messagePublishedData);
-        } catch (Exception e) {
-            // Ignore for test setup
-        }
+        return createCloudEvent(encode(site), eventType);
+    }
 
+    private CloudEvent createCloudEvent(String data, SiteEventType eventType) {
         return CloudEventBuilder.v1()
                 .withId("test-event-id")
                 .withSource(URI.create("//pubsub.googleapis.com/projects/test-project/topics/test-topic"))
                 .withType("google.cloud.pubsub.topic.v1.messagePublished")
-                .withData("application/json", eventData)
+                .withData("application/json", pushEnvelope(data, eventType).getBytes())
                 .build();
     }
 
-    private MessagePublishedData createMessagePublishedData(Site site, SiteEventType eventType) {
-        Map<String, String> attributes = new HashMap<>();
-        attributes.put("entity_id", site.getId());
-        attributes.put("event_type", eventType.name());
-
-        PubsubMessage message = PubsubMessage.newBuilder()
-                .setData(ByteString.copyFrom(site.toByteArray()))
-                .putAllAttributes(attributes)
-                .build();
+    private String encode(Site site) {
+        return Base64.getEncoder().encodeToString(site.toByteArray());
+    }
 
-        return MessagePublishedData.newBuilder()
-                .setMessage(message)
-                .build();
+    private String pushEnvelope(String data, SiteEventType eventType) {
+        return "{\"message\":{\"data\":\"" + data + "\","
+                + "\"attributes\":{\"entity_id\":\"site-123\",\"event_type\":\"" + eventType.name() + "\"},"
+                + "\"messageId\":\"message-1\",\"publishTime\":\"2024-01-01T00:00:00Z\"},"
+                + "\"subscription\":\"projects/test-project/subscriptions/site-events\"}";
     }
 
 }
@@ -0,0 +1,167 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.RetryBudgetProperties;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    private RetryBudgetProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private Retry retry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RetryBudgetProperties();
+        properties.setMaxTokens(2);
+        properties.setRatio(0.5);
+        meterRegistry = new SimpleMeterRegistry();
+        retry = Retry.of("firestore", RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .ignoreExceptions(ResponseStatusException.class, RetryDeniedException.class)
+                .build());
+    }
+
+    @Test
+    void retry_withTokensAvailable_shouldRetryUntilSuccess() {
+        var budget = new RetryBudget(properties, meterRegistry);
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(budget.retry(retry, failingTimes(2, calls)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(3);
+        assertThat(retries("granted")).isEqualTo(2.0);
+        assertThat(meterRegistry.get("site.resilience.retry.budget.calls").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("site.resilience.retry.budget.attempts").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void retry_whenBudgetIsExhausted_shouldFailWithOriginalError() {
+        var budget = new RetryBudget(properties, meterRegistry);
+        budget.retry(retry, failingTimes(2, new AtomicInteger())).block();
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(budget.retry(retry, failingTimes(2, calls)))
+                .expectError(IOException.class)
+                .verify();
+
+        assertThat(calls).hasValue(1);
+        assertThat(retries("denied_budget")).isEqualTo(1.0);
+    }
+
+    @Test
+    void retry_shouldRefillBudgetFromSuccessfulCalls() {
+        var budget = new RetryBudget(properties, meterRegistry);
+        budget.retry(retry, failingTimes(2, new AtomicInteger())).block();
+        budget.retry(retry, Mono.just("ok")).block();
+        budget.retry(retry, Mono.just("ok")).block();
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(budget.retry(retry, failingTimes(1, calls)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void retry_withHighDeliveryAttempt_shouldLeaveRetriesToPubSub() {
+        var budget = new RetryBudget(properties, meterRegistry);
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(RetryBudget.withDeliveryAttempt(3, budget.retry(retry, failingTimes(1, calls))))
+                .expectError(IOException.class)
+                .verify();
+
+        assertThat(calls).hasValue(1);
+        assertThat(retries("denied_delivery_attempt")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("site.resilience.retry.budget.tokens").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void retry_withNonRetryableError_shouldNotSpendTokens() {
+        var budget = new RetryBudget(properties, meterRegistry);
+
+        StepVerifier.create(budget.retry(retry, Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND))))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        assertThat(retries("granted") + retries("denied_budget")).isZero();
+        assertThat(meterRegistry.get("site.resilience.retry.budget.tokens").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void retry_whenDisabled_shouldApplyPlainRetry() {
+        properties.setEnabled(false);
+        properties.setMaxTokens(0);
+        var budget = new RetryBudget(properties, meterRegistry);
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(budget.retry(retry, failingTimes(2, calls)))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void retry_withEventType_shouldTagRetriesAndOutcomeByEventType() {
+        var budget = new RetryBudget(properties, meterRegistry);
+
+        StepVerifier.create(budget.retry(SiteEventType.UPDATE, retry, failingTimes(1, new AtomicInteger())))
+                .expectNext("ok")
+                .verifyComplete();
+        StepVerifier.create(budget.retry(SiteEventType.DELETE, retry, failingTimes(0, new AtomicInteger())))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("site.events.retry.attempts").tag("event_type", "UPDATE").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("site.events.retry.attempts").tag("event_type", "DELETE").counter()).isNull();
+        assertThat(eventCalls("UPDATE", "success_after_retry")).isEqualTo(1.0);
+        assertThat(eventCalls("DELETE", "success")).isEqualTo(1.0);
+    }
+
+    @Test
+    void retry_withEventTypeWhenDisabled_shouldRecordExhaustedRetries() {
+        properties.setEnabled(false);
+        var budget = new RetryBudget(properties, meterRegistry);
+
+        StepVerifier.create(budget.retry(SiteEventType.CREATE, retry, failingTimes(3, new AtomicInteger())))
+                .expectError(IOException.class)
+                .verify();
+
+        assertThat(meterRegistry.get("site.events.retry.attempts").tag("event_type", "CREATE").counter().count()).isEqualTo(2.0);
+        assertThat(eventCalls("CREATE", "exhausted")).isEqualTo(1.0);
+    }
+
+    private Mono<String> failingTimes(int failures, AtomicInteger calls) {
+        return Mono.defer(() -> calls.incrementAndGet() <= failures
+                ? Mono.error(new IOException("unavailable"))
+                : Mono.just("ok"));
+    }
+
+    private double eventCalls(String eventType, String outcome) {
+        return meterRegistry.get("site.events.retry.calls").tag("event_type", eventType).tag("outcome", outcome).counter().count();
+    }
+
+    private double retries(String outcome) {
+        return meterRegistry.get("site.resilience.retry.budget.retries").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,207 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site_processor.config.RedisKeyProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SiteCacheProperties;
+import com.green.energy.tracker.cloud.site_processor.model.GeoLocationWrite;
+import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SiteDocumentCacheTest {
+
+    private static final String KEY = "site:doc:site-123";
+
+    @Mock
+    private ReactiveRedisTemplate<String, SiteWriteDocument> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, SiteWriteDocument> valueOperations;
+
+    private SiteCacheProperties siteCacheProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private SiteDocumentCache siteDocumentCache;
+
+    @BeforeEach
+    void setUp() {
+        siteCacheProperties = new SiteCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        Retry retryCache = Retry.of("cache", RetryConfig.custom().maxAttempts(1).build());
+        siteDocumentCache = new SiteDocumentCache(redisTemplate, retryCache, siteCacheProperties, new RedisKeyProperties(), meterRegistry);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.set(any(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+    }
+
+    @Test
+    void get_withMiss_shouldLoadFromFirestoreAndPopulateBothTiers() {
+        SiteWriteDocument document = createTestDocument();
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.just(document)))
+                .assertNext(cached -> assertThat(cached).isEqualTo(document).isNotSameAs(document))
+                .verifyComplete();
+
+        verify(valueOperations).set(KEY, document, Duration.ofSeconds(3600));
+        assertThat(meterRegistry.counter("site.cache.gets", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_afterLocalTtl_shouldRevalidateAgainstRedis() {
+        siteCacheProperties.setLocalTtl(Duration.ZERO);
+        siteDocumentCache = new SiteDocumentCache(redisTemplate, Retry.of("cache", RetryConfig.custom().maxAttempts(1).build()),
+                siteCacheProperties, new RedisKeyProperties(), meterRegistry);
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+        StepVerifier.create(siteDocumentCache.put(createTestDocument())).verifyComplete();
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.empty()))
+                .verifyComplete();
+
+        verify(valueOperations).get(KEY);
+    }
+
+    @Test
+    void get_withLocalHit_shouldNotCallRedisOrLoader() {
+        SiteWriteDocument document = createTestDocument();
+        StepVerifier.create(siteDocumentCache.put(document)).verifyComplete();
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.error(new IllegalStateException("unexpected load"))))
+                .expectNext(document)
+                .verifyComplete();
+
+        verify(valueOperations, never()).get(any());
+        assertThat(meterRegistry.counter("site.cache.gets", "result", "local").count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_withRedisHit_shouldNotCallLoader() {
+        SiteWriteDocument document = createTestDocument();
+        when(valueOperations.get(KEY)).thenReturn(Mono.just(document));
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.error(new IllegalStateException("unexpected load"))))
+                .expectNext(document)
+                .verifyComplete();
+
+        assertThat(meterRegistry.counter("site.cache.gets", "result", "redis").count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_withConcurrentMisses_shouldCollapseIntoSingleLoad() {
+        SiteWriteDocument document = createTestDocument();
+        Sinks.One<SiteWriteDocument> firestore = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+
+        var first = siteDocumentCache.get("site-123", id -> {
+            loads.incrementAndGet();
+            return firestore.asMono();
+        }).toFuture();
+        var second = siteDocumentCache.get("site-123", id -> {
+            loads.incrementAndGet();
+            return firestore.asMono();
+        }).toFuture();
+        firestore.tryEmitValue(document);
+
+        assertThat(first.join()).isEqualTo(document);
+        assertThat(second.join()).isEqualTo(document);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_withMissingSite_shouldNotCacheAbsence() {
+        AtomicInteger loads = new AtomicInteger();
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.fromRunnable(loads::incrementAndGet))).verifyComplete();
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.fromRunnable(loads::incrementAndGet))).verifyComplete();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_whenRedisFails_shouldFallBackToLoader() {
+        SiteWriteDocument document = createTestDocument();
+        when(valueOperations.get(KEY)).thenReturn(Mono.error(new RedisConnectionFailureException("Connection refused")));
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.just(document)))
+                .expectNext(document)
+                .verifyComplete();
+    }
+
+    @Test
+    void get_shouldReturnCopiesThatDoNotLeakMutationsIntoCache() {
+        SiteWriteDocument document = createTestDocument();
+        StepVerifier.create(siteDocumentCache.put(document)).verifyComplete();
+
+        siteDocumentCache.get("site-123", id -> Mono.empty()).block().getLocation().setLatitude(0);
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.empty()))
+                .assertNext(cached -> assertThat(cached.getLocation().getLatitude()).isEqualTo(40.7128))
+                .verifyComplete();
+    }
+
+    @Test
+    void invalidate_shouldEvictBothTiers() {
+        SiteWriteDocument document = createTestDocument();
+        when(redisTemplate.delete(KEY)).thenReturn(Mono.just(1L));
+        when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+        StepVerifier.create(siteDocumentCache.put(document)).verifyComplete();
+
+        StepVerifier.create(siteDocumentCache.invalidate("site-123")).verifyComplete();
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.empty())).verifyComplete();
+        verify(redisTemplate).delete(KEY);
+    }
+
+    @Test
+    void put_whenRedisFails_shouldDropStaleRemoteEntry() {
+        SiteWriteDocument document = createTestDocument();
+        when(valueOperations.set(any(), any(), any(Duration.class))).thenReturn(Mono.error(new RedisConnectionFailureException("Connection refused")));
+        when(redisTemplate.delete(KEY)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(siteDocumentCache.put(document)).verifyComplete();
+
+        verify(redisTemplate).delete(KEY);
+    }
+
+    @Test
+    void get_whenDisabled_shouldDelegateToLoader() {
+        siteCacheProperties.setEnabled(false);
+        SiteWriteDocument document = createTestDocument();
+
+        StepVerifier.create(siteDocumentCache.get("site-123", id -> Mono.just(document)))
+                .expectNext(document)
+                .verifyComplete();
+        StepVerifier.create(siteDocumentCache.put(document)).verifyComplete();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private SiteWriteDocument createTestDocument() {
+        return SiteWriteDocument.builder()
+                .id("site-123")
+                .name("Test Site")
+                .userId("user-456")
+                .address("123 Test Street")
+                .location(GeoLocationWrite.builder().latitude(40.7128).longitude(-74.0060).build())
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.BulkheadProperties;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SiteEventBulkheadsTest {
+
+    private BulkheadProperties properties;
+    private BulkheadRegistry bulkheadRegistry;
+    private SimpleMeterRegistry meterRegistry;
+    private SiteEventBulkheads bulkheads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BulkheadProperties();
+        bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        bulkheadRegistry.bulkhead("site-update", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ofMillis(200))
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        bulkheads = new SiteEventBulkheads(bulkheadRegistry, properties, meterRegistry);
+    }
+
+    @Test
+    void isolate_withFreePermit_shouldRunAndReleaseIt() {
+        StepVerifier.create(bulkheads.isolate(SiteEventType.CREATE, Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(available("site-create")).isEqualTo(1);
+    }
+
+    @Test
+    void isolate_whenSaturatedWithoutWait_shouldRejectWithTooManyRequests() {
+        Sinks.Empty<Void> blocked = Sinks.empty();
+        bulkheads.isolate(SiteEventType.CREATE, blocked.asMono()).subscribe();
+
+        StepVerifier.create(bulkheads.isolate(SiteEventType.CREATE, Mono.<Void>empty()))
+                .expectErrorSatisfies(throwable -> assertThat(throwable)
+                        .isInstanceOf(ResponseStatusException.class)
+                        .extracting(error -> ((ResponseStatusException) error).getStatusCode())
+                        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS))
+                .verify();
+
+        assertThat(meterRegistry.get("site.events.bulkhead.rejected").tag("event_type", "CREATE").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void isolate_whenSaturated_shouldWaitUpToMaxWaitDurationForAPermit() throws Exception {
+        Sinks.Empty<Void> blocked = Sinks.empty();
+        AtomicInteger secondSubscriptions = new AtomicInteger();
+        bulkheads.isolate(SiteEventType.UPDATE, blocked.asMono()).subscribe();
+
+        var second = bulkheads.isolate(SiteEventType.UPDATE,
+                Mono.just("second").doOnSubscribe(subscription -> secondSubscriptions.incrementAndGet())).toFuture();
+        Thread.sleep(50);
+        assertThat(secondSubscriptions).hasValue(0);
+
+        blocked.tryEmitEmpty();
+
+        assertThat(second.get(1, TimeUnit.SECONDS)).isEqualTo("second");
+        assertThat(available("site-update")).isEqualTo(1);
+    }
+
+    @Test
+    void isolate_whenWaitExpires_shouldRejectWithTooManyRequests() {
+        Sinks.Empty<Void> blocked = Sinks.empty();
+        bulkheads.isolate(SiteEventType.UPDATE, blocked.asMono()).subscribe();
+
+        StepVerifier.create(bulkheads.isolate(SiteEventType.UPDATE, Mono.<Void>empty()))
+                .expectErrorSatisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode())
+                        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS))
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void isolate_whenOneTypeIsSaturated_shouldNotBlockOtherTypes() {
+        Sinks.Empty<Void> blocked = Sinks.empty();
+        bulkheads.isolate(SiteEventType.CREATE, blocked.asMono()).subscribe();
+
+        StepVerifier.create(bulkheads.isolate(SiteEventType.DELETE, Mono.just("deleted")))
+                .expectNext("deleted")
+                .verifyComplete();
+    }
+
+    @Test
+    void isolate_whenCancelled_shouldReleaseThePermit() {
+        var running = bulkheads.isolate(SiteEventType.CREATE, Mono.never()).subscribe();
+        assertThat(available("site-create")).isZero();
+
+        running.dispose();
+
+        assertThat(available("site-create")).isEqualTo(1);
+    }
+
+    @Test
+    void isolate_whenDisabled_shouldPassThrough() {
+        properties.setEnabled(false);
+        Sinks.Empty<Void> blocked = Sinks.empty();
+        bulkheads.isolate(SiteEventType.CREATE, blocked.asMono()).subscribe();
+
+        StepVerifier.create(bulkheads.isolate(SiteEventType.CREATE, Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    private int available(String name) {
+        return bulkheadRegistry.bulkhead(name).getMetrics().getAvailableConcurrentCalls();
+    }
+}
@@ -0,0 +1,84 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SiteEventMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FirestoreLatencyListener firestoreLatencyListener;
+    private SiteEventMetrics siteEventMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        firestoreLatencyListener = mock(FirestoreLatencyListener.class);
+        siteEventMetrics = new SiteEventMetrics(meterRegistry, List.of(firestoreLatencyListener));
+    }
+
+    @Test
+    void timed_shouldTagSuccessEmptyAndErrorOutcomes() {
+        StepVerifier.create(siteEventMetrics.timed(SiteEventMetrics.SAVE, SiteEventType.CREATE, Mono.just("saved")))
+                .expectNext("saved")
+                .verifyComplete();
+        StepVerifier.create(siteEventMetrics.timed(SiteEventMetrics.FIND_BY_ID, SiteEventType.UPDATE, Mono.empty()))
+                .verifyComplete();
+        StepVerifier.create(siteEventMetrics.timed(SiteEventMetrics.DELETE_BY_ID, SiteEventType.DELETE, Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertThat(timer(SiteEventMetrics.SAVE, "CREATE", SiteEventMetrics.SUCCESS).count()).isEqualTo(1);
+        assertThat(timer(SiteEventMetrics.FIND_BY_ID, "UPDATE", SiteEventMetrics.EMPTY).count()).isEqualTo(1);
+        assertThat(timer(SiteEventMetrics.DELETE_BY_ID, "DELETE", SiteEventMetrics.ERROR).count()).isEqualTo(1);
+    }
+
+    @Test
+    void timed_shouldStartTheClockOnSubscription() {
+        var timed = siteEventMetrics.timed(SiteEventMetrics.SAVE, SiteEventType.CREATE, Mono.just(1));
+
+        assertThat(meterRegistry.find(SiteEventMetrics.STAGE_TIMER).timer()).isNull();
+        StepVerifier.create(timed.repeat(1))
+                .expectNext(1, 1)
+                .verifyComplete();
+        assertThat(timer(SiteEventMetrics.SAVE, "CREATE", SiteEventMetrics.SUCCESS).count()).isEqualTo(2);
+    }
+
+    @Test
+    void record_shouldNotifyListenersOnlyForFirestoreStages() {
+        siteEventMetrics.record(siteEventMetrics.start(), SiteEventMetrics.DECODE, SiteEventType.CREATE, SiteEventMetrics.SUCCESS);
+        siteEventMetrics.record(siteEventMetrics.start(), SiteEventMetrics.PARSE, SiteEventType.CREATE, SiteEventMetrics.SUCCESS);
+        verifyNoInteractions(firestoreLatencyListener);
+
+        siteEventMetrics.record(siteEventMetrics.start(), SiteEventMetrics.FIND_BY_ID, SiteEventType.UPDATE, SiteEventMetrics.SUCCESS);
+        siteEventMetrics.record(siteEventMetrics.start(), SiteEventMetrics.SAVE, SiteEventType.UPDATE, SiteEventMetrics.ERROR);
+        siteEventMetrics.record(siteEventMetrics.start(), SiteEventMetrics.DELETE_BY_ID, SiteEventType.DELETE, SiteEventMetrics.SUCCESS);
+        verify(firestoreLatencyListener, times(3)).onFirestoreLatency(anyLong());
+    }
+
+    @Test
+    void record_shouldMapNotFoundAndMissingEventType() {
+        siteEventMetrics.record(siteEventMetrics.start(), SiteEventMetrics.DECODE, null,
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "missing"));
+
+        assertThat(timer(SiteEventMetrics.DECODE, "UNKNOWN", SiteEventMetrics.NOT_FOUND).count()).isEqualTo(1);
+    }
+
+    private Timer timer(String stage, String eventType, String outcome) {
+        return meterRegistry.get(SiteEventMetrics.STAGE_TIMER)
+                .tags("stage", stage, "event_type", eventType, "outcome", outcome)
+                .timer();
+    }
+}
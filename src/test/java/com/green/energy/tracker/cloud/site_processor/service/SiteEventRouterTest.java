@@ -0,0 +1,191 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.google.protobuf.Timestamp;
+import com.google.pubsub.v1.PubsubMessage;
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.events.PubSubPushMessage;
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SiteEventRouterTest {
+
+    private final SiteEventRouter siteEventRouter = new SiteEventRouter();
+
+    @Test
+    void route_withSupportedType_shouldExposeTypeAndEntityId() {
+        SiteEventRouter.Route route = siteEventRouter.route(message(Map.of("event_type", "UPDATE", "entity_id", "site-123")));
+
+        assertThat(route.eventType()).isEqualTo(SiteEventType.UPDATE);
+        assertThat(route.entityId()).isEqualTo("site-123");
+    }
+
+    @Test
+    void route_withCreateWithoutEntityId_shouldBeAccepted() {
+        SiteEventRouter.Route route = siteEventRouter.route(message(Map.of("event_type", "CREATE")));
+
+        assertThat(route.eventType()).isEqualTo(SiteEventType.CREATE);
+        assertThat(route.entityId()).isNull();
+    }
+
+    @Test
+    void route_withUnknownType_shouldRejectAsBadRequest() {
+        assertBadRequest(Map.of("event_type", "ARCHIVE", "entity_id", "site-123"));
+        assertBadRequest(Map.of("event_type", "UNRECOGNIZED", "entity_id", "site-123"));
+        assertBadRequest(Map.of("entity_id", "site-123"));
+    }
+
+    @Test
+    void route_withDeleteWithoutEntityId_shouldRejectAsBadRequest() {
+        assertBadRequest(Map.of("event_type", "DELETE"));
+    }
+
+    @Test
+    void route_withProtobufCloudEvent_shouldReadExtensionsAndParseSiteFromData() throws Exception {
+        CloudEvent event = protobufEvent("CREATE", "site-123", createTestSite().toByteArray());
+
+        assertThat(siteEventRouter.isProtobuf(event)).isTrue();
+        SiteEventRouter.Route route = siteEventRouter.route(event);
+
+        assertThat(route.eventType()).isEqualTo(SiteEventType.CREATE);
+        assertThat(route.entityId()).isEqualTo("site-123");
+        assertThat(route.messageId()).isEqualTo("event-1");
+        assertThat(route.idempotencyKey()).isEqualTo("ce://site-publisher:event-1");
+        assertThat(route.site()).isEqualTo(createTestSite());
+    }
+
+    @Test
+    void route_withProtobufCloudEventWithoutType_shouldRejectAsBadRequest() {
+        CloudEvent event = CloudEventBuilder.v1()
+                .withId("event-1")
+                .withSource(URI.create("//site-publisher"))
+                .withType("com.green.energy.tracker.site.v1")
+                .withData("application/protobuf", createTestSite().toByteArray())
+                .build();
+
+        assertThatThrownBy(() -> siteEventRouter.route(event))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void route_shouldCarryPublishTimeFromPushMessageOrCloudEventTime() {
+        var message = new PubSubPushMessage("message-1", "2024-01-01T00:00:01.500Z", 0,
+                Map.of("event_type", "UPDATE", "entity_id", "site-123"), ByteBuffer.allocate(0), -1);
+        var malformed = new PubSubPushMessage("message-1", "yesterday", 0,
+                Map.of("event_type", "UPDATE", "entity_id", "site-123"), ByteBuffer.allocate(0), -1);
+        var time = OffsetDateTime.parse("2024-01-01T00:00:02Z");
+        CloudEvent event = CloudEventBuilder.v1(protobufEvent("UPDATE", "site-123", createTestSite().toByteArray()))
+                .withTime(time)
+                .build();
+
+        assertThat(siteEventRouter.route(message).publishTime()).isEqualTo(Instant.parse("2024-01-01T00:00:01.500Z"));
+        assertThat(siteEventRouter.route(malformed).publishTime()).isNull();
+        assertThat(siteEventRouter.route(event).publishTime()).isEqualTo(time.toInstant());
+    }
+
+    @Test
+    void route_shouldCarryDeliveryAttemptFromPushMessage() {
+        var message = new PubSubPushMessage("message-1", null, 3,
+                Map.of("event_type", "DELETE", "entity_id", "site-123"), ByteBuffer.allocate(0), -1);
+
+        assertThat(siteEventRouter.route(message).deliveryAttempt()).isEqualTo(3);
+        assertThat(siteEventRouter.route(protobufEvent("DELETE", "site-123", new byte[0])).deliveryAttempt()).isZero();
+    }
+
+    @Test
+    void route_shouldMapPulledMessage() throws Exception {
+        var message = PubsubMessage.newBuilder()
+                .setMessageId("message-9")
+                .setPublishTime(Timestamp.newBuilder().setSeconds(1704067201).setNanos(500_000_000))
+                .putAttributes("event_type", "CREATE")
+                .putAttributes("googclient_deliveryattempt", "2")
+                .setData(createTestSite().toByteString())
+                .build();
+
+        var route = siteEventRouter.route(message);
+
+        assertThat(route.eventType()).isEqualTo(SiteEventType.CREATE);
+        assertThat(route.messageId()).isEqualTo("message-9");
+        assertThat(route.idempotencyKey()).isEqualTo("message-9");
+        assertThat(route.publishTime()).isEqualTo(Instant.parse("2024-01-01T00:00:01.500Z"));
+        assertThat(route.deliveryAttempt()).isEqualTo(2);
+        assertThat(route.site()).isEqualTo(createTestSite());
+    }
+
+    @Test
+    void isProtobuf_shouldRecogniseProtobufContentTypesOnly() {
+        assertThat(siteEventRouter.isProtobuf(eventWithContentType("application/x-protobuf"))).isTrue();
+        assertThat(siteEventRouter.isProtobuf(eventWithContentType("application/json"))).isFalse();
+        assertThat(siteEventRouter.isProtobuf(eventWithContentType("not a media type"))).isFalse();
+        assertThat(siteEventRouter.isProtobuf(eventWithContentType(null))).isFalse();
+    }
+
+    @Test
+    void protobufPayload_shouldBeAtLeastAThirdSmallerThanPushEnvelope() {
+        byte[] protobuf = createTestSite().toByteArray();
+        String envelope = "{\"message\":{\"data\":\"" + Base64.getEncoder().encodeToString(protobuf) + "\","
+                + "\"attributes\":{\"entity_id\":\"site-123\",\"event_type\":\"CREATE\"},"
+                + "\"messageId\":\"message-1\",\"publishTime\":\"2024-01-01T00:00:00Z\"},"
+                + "\"subscription\":\"projects/test-project/subscriptions/site-events\"}";
+
+        assertThat(protobuf.length).isLessThan(envelope.getBytes(StandardCharsets.UTF_8).length * 2 / 3);
+    }
+
+    private CloudEvent protobufEvent(String eventType, String entityId, byte[] data) {
+        return CloudEventBuilder.v1()
+                .withId("event-1")
+                .withSource(URI.create("//site-publisher"))
+                .withType("com.green.energy.tracker.site.v1")
+                .withExtension("eventtype", eventType)
+                .withExtension("entityid", entityId)
+                .withData("application/protobuf", data)
+                .build();
+    }
+
+    private CloudEvent eventWithContentType(String contentType) {
+        return CloudEventBuilder.v1()
+                .withId("event-1")
+                .withSource(URI.create("//site-publisher"))
+                .withType("com.green.energy.tracker.site.v1")
+                .withDataContentType(contentType)
+                .build();
+    }
+
+    private Site createTestSite() {
+        return Site.newBuilder()
+                .setId("site-123")
+                .setName("Test Site")
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder()
+                        .setLatitude(40.7128)
+                        .setLongitude(-74.0060)
+                        .build())
+                .build();
+    }
+
+    private void assertBadRequest(Map<String, String> attributes) {
+        assertThatThrownBy(() -> siteEventRouter.route(message(attributes)))
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private PubSubPushMessage message(Map<String, String> attributes) {
+        return new PubSubPushMessage("message-1", null, 0, attributes, ByteBuffer.allocate(0), -1);
+    }
+}
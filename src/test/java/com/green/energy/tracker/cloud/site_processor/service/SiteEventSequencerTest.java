@@ -0,0 +1,160 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.SequencerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SiteEventSequencerTest {
+
+    private SequencerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SiteEventSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SequencerProperties();
+        properties.setLanes(4);
+        meterRegistry = new SimpleMeterRegistry();
+        sequencer = new SiteEventSequencer(properties, meterRegistry);
+    }
+
+    @Test
+    void submit_forSameSite_shouldRunEventsOneAtATime() {
+        Sinks.Empty<Void> firstWrite = Sinks.empty();
+        AtomicInteger secondSubscriptions = new AtomicInteger();
+
+        var first = sequencer.submit("site-1", SiteEventType.CREATE, firstWrite.asMono()).toFuture();
+        var second = sequencer.submit("site-1", SiteEventType.UPDATE,
+                Mono.<Void>empty().doOnSubscribe(subscription -> secondSubscriptions.incrementAndGet())).toFuture();
+
+        assertThat(secondSubscriptions).hasValue(0);
+        assertThat(first).isNotDone();
+
+        firstWrite.tryEmitEmpty();
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(secondSubscriptions).hasValue(1);
+    }
+
+    @Test
+    void submit_withLongQueueOfSynchronousWork_shouldNotGrowTheStack() {
+        int events = 50_000;
+        properties.setMaxPendingPerLane(events);
+        Sinks.Empty<Void> firstWrite = Sinks.empty();
+        AtomicInteger completed = new AtomicInteger();
+
+        sequencer.submit("site-1", SiteEventType.CREATE, firstWrite.asMono()).subscribe();
+        for (int i = 0; i < events; i++) {
+            var eventType = i % 2 == 0 ? SiteEventType.UPDATE : SiteEventType.DELETE;
+            sequencer.submit("site-1", eventType, Mono.<Void>empty()).subscribe(null, null, completed::incrementAndGet);
+        }
+
+        firstWrite.tryEmitEmpty();
+
+        assertThat(completed).hasValue(events);
+    }
+
+    @Test
+    void submit_forDifferentSites_shouldRunConcurrently() {
+        Sinks.Empty<Void> blocked = Sinks.empty();
+
+        var first = sequencer.submit("site-1", SiteEventType.UPDATE, blocked.asMono()).toFuture();
+
+        StepVerifier.create(sequencer.submit("site-2", SiteEventType.UPDATE, Mono.empty()))
+                .verifyComplete();
+        assertThat(first).isNotDone();
+    }
+
+    @Test
+    void submit_withQueuedUpdates_shouldCollapseIntoLatest() {
+        Sinks.Empty<Void> running = Sinks.empty();
+        AtomicInteger staleWrites = new AtomicInteger();
+        AtomicInteger latestWrites = new AtomicInteger();
+
+        sequencer.submit("site-1", SiteEventType.UPDATE, running.asMono()).subscribe();
+        var stale = sequencer.submit("site-1", SiteEventType.UPDATE,
+                Mono.<Void>empty().doOnSubscribe(subscription -> staleWrites.incrementAndGet())).toFuture();
+        var latest = sequencer.submit("site-1", SiteEventType.UPDATE,
+                Mono.<Void>empty().doOnSubscribe(subscription -> latestWrites.incrementAndGet())).toFuture();
+
+        running.tryEmitEmpty();
+
+        assertThat(stale).isCompleted();
+        assertThat(latest).isCompleted();
+        assertThat(staleWrites).hasValue(0);
+        assertThat(latestWrites).hasValue(1);
+        assertThat(meterRegistry.counter("site.events.coalesced", "outcome", "superseded").count()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_withSupersededUpdate_shouldShareErrorOfLatest() {
+        Sinks.Empty<Void> running = Sinks.empty();
+
+        sequencer.submit("site-1", SiteEventType.UPDATE, running.asMono()).subscribe();
+        var stale = sequencer.submit("site-1", SiteEventType.UPDATE, Mono.empty()).toFuture();
+        sequencer.submit("site-1", SiteEventType.UPDATE, Mono.error(new IllegalStateException("Write failed"))).subscribe(null, throwable -> { });
+
+        running.tryEmitEmpty();
+
+        assertThat(stale).isCompletedExceptionally();
+    }
+
+    @Test
+    void submit_withQueuedCreateFollowedByDelete_shouldCancelBoth() {
+        Sinks.Empty<Void> running = Sinks.empty();
+        AtomicInteger writes = new AtomicInteger();
+
+        sequencer.submit("site-1", SiteEventType.DELETE, running.asMono()).subscribe();
+        var create = sequencer.submit("site-1", SiteEventType.CREATE,
+                Mono.<Void>empty().doOnSubscribe(subscription -> writes.incrementAndGet())).toFuture();
+        var delete = sequencer.submit("site-1", SiteEventType.DELETE,
+                Mono.<Void>empty().doOnSubscribe(subscription -> writes.incrementAndGet())).toFuture();
+
+        assertThat(create).isCompleted();
+        assertThat(delete).isCompleted();
+
+        running.tryEmitEmpty();
+
+        assertThat(writes).hasValue(0);
+        assertThat(meterRegistry.counter("site.events.coalesced", "outcome", "cancelled").count()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_whenLaneIsFull_shouldRejectWithTooManyRequests() {
+        properties.setLanes(1);
+        properties.setMaxPendingPerLane(1);
+        sequencer = new SiteEventSequencer(properties, meterRegistry);
+        Sinks.Empty<Void> running = Sinks.empty();
+
+        sequencer.submit("site-1", SiteEventType.CREATE, running.asMono()).subscribe();
+        sequencer.submit("site-1", SiteEventType.UPDATE, Mono.empty()).subscribe();
+
+        StepVerifier.create(sequencer.submit("site-2", SiteEventType.CREATE, Mono.empty()).then(
+                        sequencer.submit("site-1", SiteEventType.DELETE, Mono.empty())))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof ResponseStatusException &&
+                    ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.TOO_MANY_REQUESTS)
+                .verify();
+        assertThat(meterRegistry.counter("site.events.sequencer.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_whenDisabled_shouldReturnWorkUnchanged() {
+        properties.setEnabled(false);
+        Mono<Void> work = Mono.empty();
+
+        assertThat(sequencer.submit("site-1", SiteEventType.UPDATE, work)).isSameAs(work);
+    }
+}
@@ -1,28 +1,57 @@
 package com.green.energy.tracker.cloud.site_processor.service;
 
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Transaction;
 import com.green.energy.tracker.cloud.common.v1.GeoLocation;
 import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.BulkheadProperties;
+import com.green.energy.tracker.cloud.site_processor.config.FirestoreWriteProperties;
+import com.green.energy.tracker.cloud.site_processor.config.HedgingProperties;
+import com.green.energy.tracker.cloud.site_processor.config.RetryBudgetProperties;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
 import com.green.energy.tracker.cloud.site_processor.model.GeoLocationWrite;
 import com.green.energy.tracker.cloud.site_processor.model.SiteMapper;
 import com.green.energy.tracker.cloud.site_processor.model.SiteWriteDocument;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteDocumentOperations;
 import com.green.energy.tracker.cloud.site_processor.repository.SiteRepository;
+import com.green.energy.tracker.cloud.site_processor.repository.SiteWritePipeline;
+import com.google.cloud.firestore.WriteResult;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -38,10 +67,43 @@ class SiteServiceImplTest {
     @Mock
     private SiteMapper siteMapper;
 
+    @Mock
+    private SiteWritePipeline siteWritePipeline;
+
+    @Mock
+    private SiteDocumentOperations siteDocumentOperations;
+
+    @Mock
+    private WriteResult writeResult;
+
+    @Mock
+    private SiteDocumentCache siteDocumentCache;
+
+    @Mock
+    private MissingSiteCache missingSiteCache;
+
+    private FirestoreWriteProperties firestoreWriteProperties;
+
     private Retry retryFirestore;
 
+    private TimeLimiter timeLimiterFirestoreRead;
+
+    private TimeLimiter timeLimiterFirestoreWrite;
+
+    private HedgingProperties hedgingProperties;
+
+    private RetryBudgetProperties retryBudgetProperties;
+
+    private SpilloverProperties spilloverProperties;
+
+    private SiteSpillover siteSpillover;
+
+    private BulkheadRegistry bulkheadRegistry;
+
     private SiteServiceImpl siteService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         RetryConfig retryConfig = RetryConfig.custom()
@@ -51,9 +113,29 @@ class SiteServiceImplTest {
         RetryRegistry retryRegistry = RetryRegistry.of(retryConfig);
         retryFirestore = retryRegistry.retry("firestore");
 
-        siteService = new SiteServiceImpl(siteRepository, cbFirestore, retryFirestore, siteMapper);
+        timeLimiterFirestoreRead = TimeLimiter.of(Duration.ofMillis(200));
+        timeLimiterFirestoreWrite = TimeLimiter.of(Duration.ofMillis(400));
+        hedgingProperties = new HedgingProperties();
+        retryBudgetProperties = new RetryBudgetProperties();
+        spilloverProperties = new SpilloverProperties();
+        firestoreWriteProperties = new FirestoreWriteProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        siteSpillover = new SiteSpillover(spilloverProperties, meterRegistry);
+        bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        siteService = new SiteServiceImpl(siteRepository, cbFirestore, retryFirestore, timeLimiterFirestoreRead, timeLimiterFirestoreWrite, siteMapper, siteWritePipeline,
+                siteDocumentOperations, firestoreWriteProperties, siteDocumentCache, missingSiteCache, new SiteEventMetrics(meterRegistry),
+                new SiteEventBulkheads(bulkheadRegistry, new BulkheadProperties(), meterRegistry),
+                new HedgedReads(hedgingProperties, meterRegistry), new RetryBudget(retryBudgetProperties, meterRegistry),
+                siteSpillover);
 
         lenient().when(cbFirestore.run(any(Mono.class), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(siteDocumentCache.get(anyString(), any())).thenAnswer(invocation ->
+                invocation.<Function<String, Mono<SiteWriteDocument>>>getArgument(1).apply(invocation.getArgument(0)));
+        lenient().when(siteDocumentCache.put(any())).thenReturn(Mono.empty());
+        lenient().when(siteDocumentCache.invalidate(anyString())).thenReturn(Mono.empty());
+        lenient().when(missingSiteCache.isMissing(anyString())).thenReturn(Mono.just(false));
+        lenient().when(missingSiteCache.markMissing(anyString())).thenReturn(Mono.empty());
+        lenient().when(missingSiteCache.forget(anyString())).thenReturn(Mono.empty());
     }
 
     // ==================== CREATE TESTS ====================
@@ -332,6 +414,650 @@ class SiteServiceImplTest {
                 .verify();
     }
 
+    // ==================== CACHE TESTS ====================
+
+    @Test
+    void create_shouldEvictCachedCopyInsteadOfCachingClientTimestamps() {
+        Site site = createTestSite();
+
+        when(siteRepository.save(any(SiteWriteDocument.class))).thenReturn(Mono.just(createTestDocument()));
+
+        StepVerifier.create(siteService.create(site))
+                .verifyComplete();
+
+        verify(siteDocumentCache).invalidate("site-123");
+        verify(siteDocumentCache, never()).put(any());
+    }
+
+    @Test
+    void create_whenRepositoryFails_shouldNotPopulateCache() {
+        Site site = createTestSite();
+
+        when(siteRepository.save(any(SiteWriteDocument.class))).thenReturn(Mono.error(new RuntimeException("Firestore connection error")));
+
+        StepVerifier.create(siteService.create(site))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        verify(siteDocumentCache, never()).put(any());
+    }
+
+    @Test
+    void update_withCachedSite_shouldSkipRepositoryReadAndWriteOnlyIfSiteExists() {
+        Site site = createTestSite();
+        SiteWriteDocument cachedDocument = createTestDocument();
+        SiteWriteDocument updatedDocument = createTestDocument();
+        Map<String, Object> fields = Map.of("name", "Test Site");
+
+        when(siteDocumentCache.get(eq("site-123"), any())).thenReturn(Mono.just(cachedDocument));
+        when(siteMapper.updateDoc(site, cachedDocument)).thenReturn(updatedDocument);
+        when(siteMapper.toUpdateFields(site)).thenReturn(fields);
+        when(siteDocumentOperations.updateIfExists("site-123", fields)).thenReturn(Mono.just(writeResult));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        verify(siteRepository, never()).findById(anyString());
+        verify(siteRepository, never()).save(any());
+        verify(siteDocumentCache).put(updatedDocument);
+    }
+
+    @Test
+    void update_withCachedSiteDeletedElsewhere_shouldReturnNotFoundInsteadOfRecreatingIt() {
+        Site site = createTestSite();
+        SiteWriteDocument cachedDocument = createTestDocument();
+
+        when(siteDocumentCache.get(eq("site-123"), any())).thenReturn(Mono.just(cachedDocument));
+        when(siteMapper.updateDoc(site, cachedDocument)).thenReturn(createTestDocument());
+        when(siteMapper.toUpdateFields(site)).thenReturn(Map.of("name", "Test Site"));
+        when(siteDocumentOperations.updateIfExists(eq("site-123"), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.update(site))
+                .expectErrorSatisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode())
+                        .isEqualTo(HttpStatus.NOT_FOUND))
+                .verify();
+
+        verify(siteRepository, never()).save(any());
+        verify(siteDocumentCache).invalidate("site-123");
+        verify(missingSiteCache).markMissing("site-123");
+    }
+
+    @Test
+    void update_withReadModifyWrite_shouldLeaveUpdatedAtToTheServer() {
+        Site site = createTestSite();
+        SiteWriteDocument updatedDocument = createTestDocument().toBuilder()
+                .createdAt(new Date(1_000L))
+                .updatedAt(new Date(2_000L))
+                .build();
+
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(createTestDocument()));
+        when(siteMapper.updateDoc(eq(site), any(SiteWriteDocument.class))).thenReturn(updatedDocument);
+        when(siteRepository.save(updatedDocument)).thenReturn(Mono.just(updatedDocument));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        verify(siteRepository).save(argThat(document -> document.getUpdatedAt() == null && new Date(1_000L).equals(document.getCreatedAt())));
+    }
+
+    @Test
+    void update_whenRepositorySaveFails_shouldEvictCachedSite() {
+        Site site = createTestSite();
+        SiteWriteDocument updatedDocument = createTestDocument();
+
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(createTestDocument()));
+        when(siteMapper.updateDoc(eq(site), any(SiteWriteDocument.class))).thenReturn(updatedDocument);
+        when(siteRepository.save(updatedDocument)).thenReturn(Mono.error(new RuntimeException("Save failed")));
+
+        StepVerifier.create(siteService.update(site))
+                .expectErrorMessage("Save failed")
+                .verify();
+
+        verify(siteDocumentCache).invalidate("site-123");
+        verify(siteDocumentCache, never()).put(any());
+    }
+
+    @Test
+    void delete_withExistingSite_shouldEvictCachedSite() {
+        String siteId = "site-123";
+
+        when(siteRepository.findById(siteId)).thenReturn(Mono.just(createTestDocument()));
+        when(siteRepository.deleteById(siteId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.delete(siteId))
+                .verifyComplete();
+
+        verify(siteDocumentCache).invalidate(siteId);
+    }
+
+    @Test
+    void update_withPreconditionMode_shouldEvictCachedSite() {
+        Site site = createTestSite();
+        firestoreWriteProperties.setUpdateMode(FirestoreWriteProperties.UpdateMode.PRECONDITION);
+
+        when(siteMapper.toUpdateFields(site)).thenReturn(Map.of("name", "Test Site"));
+        when(siteDocumentOperations.updateIfExists(eq("site-123"), any())).thenReturn(Mono.just(writeResult));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        verify(siteDocumentCache).invalidate("site-123");
+        verify(siteDocumentCache, never()).get(anyString(), any());
+    }
+
+    // ==================== NEGATIVE CACHE TESTS ====================
+
+    @Test
+    void update_withKnownMissingSite_shouldReturnNotFoundWithoutFirestoreRead() {
+        Site site = createTestSite();
+
+        when(missingSiteCache.isMissing("site-123")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(siteService.update(site))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof ResponseStatusException &&
+                    ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.NOT_FOUND)
+                .verify();
+
+        verifyNoInteractions(siteRepository, siteDocumentCache);
+    }
+
+    @Test
+    void update_withNonExistingSite_shouldRememberMissingSite() {
+        Site site = createTestSite();
+
+        when(siteRepository.findById("site-123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.update(site))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(missingSiteCache).markMissing("site-123");
+    }
+
+    @Test
+    void delete_whenRepositoryFails_shouldNotRememberMissingSite() {
+        String siteId = "site-123";
+
+        when(siteRepository.findById(siteId)).thenReturn(Mono.error(new RuntimeException("Database error")));
+
+        StepVerifier.create(siteService.delete(siteId))
+                .expectErrorMessage("Database error")
+                .verify();
+
+        verify(missingSiteCache, never()).markMissing(anyString());
+    }
+
+    @Test
+    void delete_withBlindMode_shouldIgnoreNegativeCache() {
+        String siteId = "site-123";
+        firestoreWriteProperties.setDeleteMode(FirestoreWriteProperties.DeleteMode.BLIND);
+
+        when(siteDocumentOperations.delete(siteId)).thenReturn(Mono.just(writeResult));
+
+        StepVerifier.create(siteService.delete(siteId))
+                .verifyComplete();
+
+        verify(missingSiteCache, never()).isMissing(anyString());
+    }
+
+    @Test
+    void create_shouldForgetMissingSiteBeforeWriting() {
+        Site site = createTestSite();
+        AtomicBoolean forgotten = new AtomicBoolean();
+
+        when(missingSiteCache.forget("site-123")).thenReturn(Mono.fromRunnable(() -> forgotten.set(true)));
+        when(siteRepository.save(any(SiteWriteDocument.class))).thenReturn(Mono.defer(() -> {
+            assertThat(forgotten).isTrue();
+            return Mono.just(createTestDocument());
+        }));
+
+        StepVerifier.create(siteService.create(site))
+                .verifyComplete();
+    }
+
+    // ==================== WRITE PIPELINE TESTS ====================
+
+    @Test
+    void create_withWritePipelineEnabled_shouldSubmitToPipeline() {
+        Site site = createTestSite();
+
+        when(siteWritePipeline.isEnabled()).thenReturn(true);
+        when(siteWritePipeline.create(any(SiteWriteDocument.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(siteService.create(site))
+                .verifyComplete();
+
+        verify(siteWritePipeline).create(argThat(document -> document.getId().equals("site-123")));
+        verifyNoInteractions(siteRepository);
+    }
+
+    @Test
+    void create_withWritePipelineEnabledWhenBatchHangs_shouldFailWithinWriteDeadline() {
+        when(siteWritePipeline.isEnabled()).thenReturn(true);
+        when(siteWritePipeline.create(any(SiteWriteDocument.class))).thenReturn(Mono.never());
+
+        StepVerifier.create(siteService.create(createTestSite()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void update_withWritePipelineEnabled_shouldSubmitToPipeline() {
+        Site site = createTestSite();
+
+        when(siteWritePipeline.isEnabled()).thenReturn(true);
+        when(siteWritePipeline.update(site)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        verify(siteWritePipeline).update(site);
+        verifyNoInteractions(siteRepository);
+    }
+
+    @Test
+    void delete_withWritePipelineEnabled_shouldPropagatePipelineNotFound() {
+        when(siteWritePipeline.isEnabled()).thenReturn(true);
+        when(siteWritePipeline.delete("site-123")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof ResponseStatusException &&
+                    ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.NOT_FOUND &&
+                    ((ResponseStatusException) throwable).getReason().equals("Site to delete not found"))
+                .verify();
+
+        verifyNoInteractions(siteRepository);
+    }
+
+    // ==================== PRECONDITION UPDATE TESTS ====================
+
+    @Test
+    void update_withPreconditionMode_shouldWriteFieldMaskWithoutRead() {
+        Site site = createTestSite();
+        Map<String, Object> fields = Map.of("name", "Test Site");
+        firestoreWriteProperties.setUpdateMode(FirestoreWriteProperties.UpdateMode.PRECONDITION);
+
+        when(siteMapper.toUpdateFields(site)).thenReturn(fields);
+        when(siteDocumentOperations.updateIfExists("site-123", fields)).thenReturn(Mono.just(writeResult));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        verify(siteDocumentOperations).updateIfExists("site-123", fields);
+        verifyNoInteractions(siteRepository);
+    }
+
+    @Test
+    void update_withPreconditionModeAndMissingSite_shouldReturnNotFoundError() {
+        Site site = createTestSite();
+        firestoreWriteProperties.setUpdateMode(FirestoreWriteProperties.UpdateMode.PRECONDITION);
+
+        when(siteMapper.toUpdateFields(site)).thenReturn(Map.of());
+        when(siteDocumentOperations.updateIfExists(eq("site-123"), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.update(site))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof ResponseStatusException &&
+                    ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.NOT_FOUND &&
+                    ((ResponseStatusException) throwable).getReason().equals("Site to update not found"))
+                .verify();
+
+        verifyNoInteractions(siteRepository);
+    }
+
+    // ==================== PRECONDITION DELETE TESTS ====================
+
+    @Test
+    void delete_withPreconditionMode_shouldDeleteWithoutRead() {
+        firestoreWriteProperties.setDeleteMode(FirestoreWriteProperties.DeleteMode.PRECONDITION);
+
+        when(siteDocumentOperations.deleteIfExists("site-123")).thenReturn(Mono.just(writeResult));
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .verifyComplete();
+
+        verify(siteDocumentOperations).deleteIfExists("site-123");
+        verifyNoInteractions(siteRepository);
+    }
+
+    @Test
+    void delete_withPreconditionModeAndMissingSite_shouldReturnNotFoundError() {
+        firestoreWriteProperties.setDeleteMode(FirestoreWriteProperties.DeleteMode.PRECONDITION);
+
+        when(siteDocumentOperations.deleteIfExists("site-123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof ResponseStatusException &&
+                    ((ResponseStatusException) throwable).getStatusCode() == HttpStatus.NOT_FOUND &&
+                    ((ResponseStatusException) throwable).getReason().equals("Site to delete not found"))
+                .verify();
+    }
+
+    @Test
+    void delete_withBlindMode_shouldTreatMissingSiteAsSuccess() {
+        firestoreWriteProperties.setDeleteMode(FirestoreWriteProperties.DeleteMode.BLIND);
+
+        when(siteDocumentOperations.delete("site-123")).thenReturn(Mono.just(writeResult));
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .verifyComplete();
+
+        verify(siteDocumentOperations).delete("site-123");
+        verify(siteDocumentOperations, never()).deleteIfExists(anyString());
+        verifyNoInteractions(siteRepository);
+    }
+
+    // ==================== METRICS TESTS ====================
+
+    @Test
+    void update_shouldTimeFindAndSaveStagesByEventType() {
+        Site site = createTestSite();
+        SiteWriteDocument document = createTestDocument();
+
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(document));
+        when(siteMapper.updateDoc(eq(site), any(SiteWriteDocument.class))).thenReturn(document);
+        when(siteRepository.save(document)).thenReturn(Mono.just(document));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        assertThat(stageCount(SiteEventMetrics.FIND_BY_ID, "UPDATE", SiteEventMetrics.SUCCESS)).isEqualTo(1);
+        assertThat(stageCount(SiteEventMetrics.SAVE, "UPDATE", SiteEventMetrics.SUCCESS)).isEqualTo(1);
+    }
+
+    @Test
+    void delete_withMissingSite_shouldRecordEmptyFindOutcome() {
+        when(siteRepository.findById("site-123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        assertThat(stageCount(SiteEventMetrics.FIND_BY_ID, "DELETE", SiteEventMetrics.EMPTY)).isEqualTo(1);
+        assertThat(meterRegistry.find(SiteEventMetrics.STAGE_TIMER).tag("stage", SiteEventMetrics.DELETE_BY_ID).timer()).isNull();
+    }
+
+    private long stageCount(String stage, String eventType, String outcome) {
+        var timer = meterRegistry.find(SiteEventMetrics.STAGE_TIMER)
+                .tags("stage", stage, "event_type", eventType, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    // ==================== DEADLINE AND HEDGING TESTS ====================
+
+    @Test
+    void update_whenFindByIdHangs_shouldFailWithTimeout() {
+        when(siteRepository.findById("site-123")).thenReturn(Mono.never());
+
+        StepVerifier.create(siteService.update(createTestSite()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        verify(siteRepository, never()).save(any());
+    }
+
+    @Test
+    void create_whenSaveHangs_shouldFailWithTimeout() {
+        when(siteRepository.save(any(SiteWriteDocument.class))).thenReturn(Mono.never());
+
+        StepVerifier.create(siteService.create(createTestSite()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        verify(siteDocumentCache, never()).put(any());
+    }
+
+    @Test
+    void create_whenSaveIsSlowerThanReadDeadline_shouldStillCompleteWithinWriteDeadline() {
+        when(siteRepository.save(any(SiteWriteDocument.class)))
+                .thenReturn(Mono.delay(Duration.ofMillis(300)).thenReturn(createTestDocument()));
+
+        StepVerifier.create(siteService.create(createTestSite()))
+                .verifyComplete();
+    }
+
+    @Test
+    void update_whenFindByIdIsSlowerThanReadDeadline_shouldFailWithTimeout() {
+        when(siteRepository.findById("site-123")).thenReturn(Mono.delay(Duration.ofMillis(300)).thenReturn(createTestDocument()));
+
+        StepVerifier.create(siteService.update(createTestSite()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void update_withHedgingEnabledAndSlowRead_shouldTakeHedgedRead() {
+        hedgingProperties.setEnabled(true);
+        hedgingProperties.setInitialDelay(Duration.ofMillis(20));
+        Site site = createTestSite();
+        SiteWriteDocument document = createTestDocument();
+
+        when(siteRepository.findById("site-123")).thenReturn(Mono.never(), Mono.just(document));
+        when(siteMapper.updateDoc(eq(site), any(SiteWriteDocument.class))).thenReturn(document);
+        when(siteRepository.save(document)).thenReturn(Mono.just(document));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        verify(siteRepository, times(2)).findById("site-123");
+        assertThat(meterRegistry.get("site.firestore.read.hedged").tag("outcome", "won").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void delete_withHedgingEnabledAndFastRead_shouldNotSendHedgedRead() {
+        hedgingProperties.setEnabled(true);
+        hedgingProperties.setInitialDelay(Duration.ofSeconds(1));
+        SiteWriteDocument document = createTestDocument();
+
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(document));
+        when(siteRepository.deleteById("site-123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .verifyComplete();
+
+        verify(siteRepository, times(1)).findById("site-123");
+        assertThat(meterRegistry.get("site.firestore.read.hedged").tag("outcome", "sent").counter().count()).isZero();
+    }
+
+    // ==================== BULKHEAD TESTS ====================
+
+    @Test
+    void update_whenBulkheadIsFull_shouldAnswerTooManyRequestsThroughCircuitBreaker() {
+        var bulkhead = bulkheadRegistry.bulkhead(SiteEventBulkheads.instanceName(SiteEventType.UPDATE));
+        for (int i = 0; i < bulkhead.getBulkheadConfig().getMaxConcurrentCalls(); i++)
+            bulkhead.tryAcquirePermission();
+        lenient().when(siteRepository.findById("site-123")).thenReturn(Mono.just(createTestDocument()));
+        when(cbFirestore.run(any(Mono.class), any())).thenAnswer(invocation -> invocation.<Mono<?>>getArgument(0)
+                .onErrorResume(invocation.<Function<Throwable, Mono<?>>>getArgument(1)));
+
+        StepVerifier.create(siteService.update(createTestSite()))
+                .expectErrorSatisfies(throwable -> assertThat(((ResponseStatusException) throwable).getStatusCode())
+                        .isEqualTo(HttpStatus.TOO_MANY_REQUESTS))
+                .verify();
+
+        assertThat(siteSpillover.hasBacklog()).isFalse();
+    }
+
+    // ==================== SPILLOVER TESTS ====================
+
+    @Test
+    void update_whenCircuitBreakerRejectsAndSpilloverEnabled_shouldSpillAndComplete(@TempDir Path directory) throws Exception {
+        enableSpillover(directory);
+        Site site = createTestSite();
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(createTestDocument()));
+        when(cbFirestore.run(any(Mono.class), any())).thenAnswer(invocation -> invocation.<Function<Throwable, Mono<?>>>getArgument(1)
+                .apply(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("firestore"))));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        var segments = siteSpillover.seal();
+        assertThat(segments).hasSize(1);
+        assertThat(siteSpillover.read(segments.get(0)))
+                .extracting(SiteSpillover.SpilledEvent::eventType, SiteSpillover.SpilledEvent::siteId, SiteSpillover.SpilledEvent::site)
+                .containsExactly(tuple(SiteEventType.UPDATE, "site-123", site));
+        verify(missingSiteCache, never()).markMissing(anyString());
+    }
+
+    @Test
+    void delete_whenFirestoreFailsWithBreakerClosed_shouldNotSpill(@TempDir Path directory) throws Exception {
+        enableSpillover(directory);
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(createTestDocument()));
+        when(cbFirestore.run(any(Mono.class), any())).thenAnswer(invocation -> invocation.<Function<Throwable, Mono<?>>>getArgument(1)
+                .apply(new RuntimeException("Database error")));
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .expectErrorMatches(throwable -> throwable instanceof ResponseStatusException exception
+                        && exception.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE)
+                .verify();
+
+        assertThat(siteSpillover.hasBacklog()).isFalse();
+    }
+
+    @Test
+    void update_whenSiteHasSpilledEvents_shouldAppendBehindThemInsteadOfWriting(@TempDir Path directory) throws Exception {
+        enableSpillover(directory);
+        StepVerifier.create(siteSpillover.spill(SiteEventType.DELETE, "site-123", null, new IllegalStateException("open")))
+                .verifyComplete();
+        Site site = createTestSite();
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        var segments = siteSpillover.seal();
+        assertThat(siteSpillover.read(segments.get(0)))
+                .extracting(SiteSpillover.SpilledEvent::eventType, SiteSpillover.SpilledEvent::siteId)
+                .containsExactly(tuple(SiteEventType.DELETE, "site-123"), tuple(SiteEventType.UPDATE, "site-123"));
+        verifyNoInteractions(siteRepository, cbFirestore);
+    }
+
+    @Test
+    void update_afterSpilledEventsAreReplayed_shouldWriteDirectlyAgain(@TempDir Path directory) throws Exception {
+        enableSpillover(directory);
+        StepVerifier.create(siteSpillover.spill(SiteEventType.UPDATE, "site-123", createTestSite(), new IllegalStateException("open")))
+                .verifyComplete();
+        siteSpillover.replayed("site-123");
+        Site site = createTestSite();
+        SiteWriteDocument document = createTestDocument();
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(document));
+        when(siteMapper.updateDoc(eq(site), any(SiteWriteDocument.class))).thenReturn(document);
+        when(siteRepository.save(document)).thenReturn(Mono.just(document));
+
+        StepVerifier.create(siteService.update(site))
+                .verifyComplete();
+
+        verify(siteRepository).save(document);
+    }
+
+    @Test
+    void replay_whenCircuitBreakerRejects_shouldFailInsteadOfSpillingAgain(@TempDir Path directory) throws Exception {
+        enableSpillover(directory);
+        when(cbFirestore.run(any(Mono.class), any())).thenAnswer(invocation -> invocation.<Function<Throwable, Mono<?>>>getArgument(1)
+                .apply(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("firestore"))));
+
+        StepVerifier.create(siteService.replay(new SiteSpillover.SpilledEvent(SiteEventType.CREATE, "site-123", createTestSite(), Instant.now())))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        assertThat(siteSpillover.hasBacklog()).isFalse();
+    }
+
+    @Test
+    void replay_update_shouldWriteFieldsConditionallyAndEvictCaches() {
+        Site site = createTestSite();
+        var spilledAt = Instant.parse("2024-05-01T10:00:00Z");
+        var transaction = mock(Transaction.class);
+        var snapshot = mock(DocumentSnapshot.class);
+        var reference = mock(DocumentReference.class);
+        Map<String, Object> fields = Map.of("name", "Test Site");
+        when(snapshot.exists()).thenReturn(true);
+        when(snapshot.getReference()).thenReturn(reference);
+        when(siteMapper.toUpdateFields(site)).thenReturn(fields);
+        when(siteDocumentOperations.writeUnlessNewer(eq("site-123"), eq(spilledAt), any())).thenAnswer(invocation ->
+                Mono.just(invocation.<BiPredicate<Transaction, DocumentSnapshot>>getArgument(2).test(transaction, snapshot)));
+
+        StepVerifier.create(siteService.replay(new SiteSpillover.SpilledEvent(SiteEventType.UPDATE, "site-123", site, spilledAt)))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(transaction).update(reference, Map.of("name", "Test Site", "updatedAt", Date.from(spilledAt)));
+        verify(missingSiteCache).forget("site-123");
+        verify(siteDocumentCache).invalidate("site-123");
+    }
+
+    @Test
+    void replay_delete_whenDocumentIsAlreadyGone_shouldNotWrite() {
+        var transaction = mock(Transaction.class);
+        var snapshot = mock(DocumentSnapshot.class);
+        when(snapshot.exists()).thenReturn(false);
+        when(siteDocumentOperations.writeUnlessNewer(eq("site-123"), any(Instant.class), any())).thenAnswer(invocation ->
+                Mono.just(invocation.<BiPredicate<Transaction, DocumentSnapshot>>getArgument(2).test(transaction, snapshot)));
+
+        StepVerifier.create(siteService.replay(new SiteSpillover.SpilledEvent(SiteEventType.DELETE, "site-123", null, Instant.now())))
+                .expectNext(false)
+                .verifyComplete();
+
+        verifyNoInteractions(transaction);
+    }
+
+    @Test
+    void delete_withSpilloverEnabled_shouldTombstoneDeletedSite(@TempDir Path directory) throws Exception {
+        enableSpillover(directory);
+        when(siteRepository.findById("site-123")).thenReturn(Mono.just(createTestDocument()));
+        when(siteRepository.deleteById("site-123")).thenReturn(Mono.empty());
+        when(siteDocumentOperations.tombstone("site-123", spilloverProperties.getTombstoneRetention())).thenReturn(Mono.just(writeResult));
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .verifyComplete();
+
+        var order = inOrder(siteRepository, siteDocumentOperations);
+        order.verify(siteRepository).deleteById("site-123");
+        order.verify(siteDocumentOperations).tombstone("site-123", spilloverProperties.getTombstoneRetention());
+    }
+
+    @Test
+    void delete_whenSiteIsMissing_shouldNotTombstone(@TempDir Path directory) throws Exception {
+        enableSpillover(directory);
+        when(siteRepository.findById("site-123")).thenReturn(Mono.empty());
+
+        StepVerifier.create(siteService.delete("site-123"))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        verify(siteDocumentOperations, never()).tombstone(anyString(), any(Duration.class));
+    }
+
+    @Test
+    void replay_delete_shouldTombstoneAtSpillTime() {
+        var spilledAt = Instant.parse("2024-05-01T10:00:00Z");
+        var transaction = mock(Transaction.class);
+        var snapshot = mock(DocumentSnapshot.class);
+        var reference = mock(DocumentReference.class);
+        when(snapshot.exists()).thenReturn(true);
+        when(snapshot.getReference()).thenReturn(reference);
+        when(siteDocumentOperations.writeUnlessNewer(eq("site-123"), eq(spilledAt), any())).thenAnswer(invocation ->
+                Mono.just(invocation.<BiPredicate<Transaction, DocumentSnapshot>>getArgument(2).test(transaction, snapshot)));
+
+        StepVerifier.create(siteService.replay(new SiteSpillover.SpilledEvent(SiteEventType.DELETE, "site-123", null, spilledAt)))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(transaction).delete(reference);
+        verify(siteDocumentOperations).tombstone(transaction, "site-123", spilledAt, spilloverProperties.getTombstoneRetention());
+    }
+
+    private void enableSpillover(Path directory) throws IOException {
+        spilloverProperties.setEnabled(true);
+        spilloverProperties.setDirectory(directory.toString());
+        spilloverProperties.setAllowVolatileDirectory(true);
+        spilloverProperties.setSegmentSize(DataSize.ofKilobytes(64));
+        siteSpillover.start();
+    }
+
     // ==================== HELPER METHODS ====================
 
     private Site createTestSite() {
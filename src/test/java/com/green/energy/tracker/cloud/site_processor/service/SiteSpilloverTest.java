@@ -0,0 +1,147 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SiteSpilloverTest {
+
+    @TempDir
+    Path directory;
+
+    private SpilloverProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SiteSpillover siteSpillover;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SpilloverProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setAllowVolatileDirectory(true);
+        properties.setSegmentSize(DataSize.ofKilobytes(1));
+        properties.setMaxSegments(1);
+        meterRegistry = new SimpleMeterRegistry();
+        siteSpillover = new SiteSpillover(properties, meterRegistry);
+    }
+
+    @Test
+    void encode_shouldRoundTripSiteAndDeleteEventsWithSpillTime() throws Exception {
+        var site = createTestSite();
+        var spilledAt = Instant.parse("2024-05-01T10:00:00.123Z");
+
+        assertThat(SiteSpillover.decode(SiteSpillover.encode(SiteEventType.UPDATE, "site-123", site, spilledAt)))
+                .isEqualTo(new SiteSpillover.SpilledEvent(SiteEventType.UPDATE, "site-123", site, spilledAt));
+        assertThat(SiteSpillover.decode(SiteSpillover.encode(SiteEventType.DELETE, "site-123", null, spilledAt)))
+                .isEqualTo(new SiteSpillover.SpilledEvent(SiteEventType.DELETE, "site-123", null, spilledAt));
+    }
+
+    @Test
+    void ordered_whileSiteHasSpilledEvents_shouldAppendUntilTheyAreReplayed() throws Exception {
+        properties.setMaxSegments(4);
+        siteSpillover.start();
+        StepVerifier.create(siteSpillover.spill(SiteEventType.DELETE, "site-123", null, new IllegalStateException("open")))
+                .verifyComplete();
+
+        StepVerifier.create(siteSpillover.ordered(SiteEventType.UPDATE, "site-123", createTestSite(), Mono.error(new IllegalStateException("written"))))
+                .verifyComplete();
+        StepVerifier.create(siteSpillover.ordered(SiteEventType.DELETE, "site-456", null, Mono.error(new IllegalStateException("written"))))
+                .expectErrorMessage("written")
+                .verify();
+
+        siteSpillover.replayed("site-123");
+        siteSpillover.replayed("site-123");
+        StepVerifier.create(siteSpillover.ordered(SiteEventType.DELETE, "site-123", null, Mono.error(new IllegalStateException("written"))))
+                .expectErrorMessage("written")
+                .verify();
+    }
+
+    @Test
+    void start_withExistingSegments_shouldRestoreSitesWithBacklog() throws Exception {
+        properties.setMaxSegments(4);
+        siteSpillover.start();
+        StepVerifier.create(siteSpillover.spill(SiteEventType.DELETE, "site-123", null, new IllegalStateException("open")))
+                .verifyComplete();
+        siteSpillover.stop();
+
+        var restarted = new SiteSpillover(properties, new SimpleMeterRegistry());
+        restarted.start();
+
+        StepVerifier.create(restarted.ordered(SiteEventType.UPDATE, "site-123", createTestSite(), Mono.error(new IllegalStateException("written"))))
+                .verifyComplete();
+        restarted.stop();
+    }
+
+    @Test
+    void start_whenSegmentsExceedMappedBudget_shouldRefuseToEnable() {
+        properties.setMaxSegments(4);
+        properties.setMaxMappedSize(DataSize.ofKilobytes(2));
+
+        assertThatThrownBy(siteSpillover::start)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("max-mapped-size");
+        assertThat(siteSpillover.hasBacklog()).isFalse();
+    }
+
+    @Test
+    void accepts_shouldOnlyTakeCircuitOpenRejectionsWhenEnabled() throws Exception {
+        var open = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Service is temporarily unavailable.",
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("firestore")));
+        var failed = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Service is temporarily unavailable.",
+                new IllegalStateException("boom"));
+
+        assertThat(siteSpillover.accepts(open)).isFalse();
+
+        siteSpillover.start();
+
+        assertThat(siteSpillover.accepts(open)).isTrue();
+        assertThat(siteSpillover.accepts(failed)).isFalse();
+        assertThat(siteSpillover.accepts(new ResponseStatusException(HttpStatus.NOT_FOUND))).isFalse();
+    }
+
+    @Test
+    void spill_whenLogIsFull_shouldFailWithOriginalError() throws Exception {
+        siteSpillover.start();
+        var cause = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        var siteId = "site-" + "x".repeat(100);
+        var spilled = 0;
+        while (Boolean.TRUE.equals(siteSpillover.spill(SiteEventType.DELETE, siteId, null, cause).thenReturn(true).onErrorReturn(false).block()))
+            spilled++;
+
+        StepVerifier.create(siteSpillover.spill(SiteEventType.DELETE, siteId, null, cause))
+                .expectErrorMatches(throwable -> throwable == cause)
+                .verify();
+
+        assertThat(spilled).isPositive();
+        assertThat(meterRegistry.get("site.events.spillover.rejected").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("site.events.spillover.appended").tag("event_type", "DELETE").counter().count()).isEqualTo(spilled);
+    }
+
+    private Site createTestSite() {
+        return Site.newBuilder()
+                .setId("site-123")
+                .setName("Test Site")
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder().setLatitude(40.7128).setLongitude(-74.0060).build())
+                .build();
+    }
+}
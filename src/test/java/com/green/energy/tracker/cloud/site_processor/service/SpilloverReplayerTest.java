@@ -0,0 +1,211 @@
+package com.green.energy.tracker.cloud.site_processor.service;
+
+import com.green.energy.tracker.cloud.common.v1.GeoLocation;
+import com.green.energy.tracker.cloud.site.v1.Site;
+import com.green.energy.tracker.cloud.site.v1.SiteEventType;
+import com.green.energy.tracker.cloud.site_processor.config.SpilloverProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpilloverReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private SiteService siteService;
+
+    private SpilloverProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private SiteSpillover siteSpillover;
+    private SpilloverReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new SpilloverProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setAllowVolatileDirectory(true);
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        properties.setReplayParallelism(2);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        siteSpillover = new SiteSpillover(properties, meterRegistry);
+        siteSpillover.start();
+        replayer = new SpilloverReplayer(siteSpillover, siteService, circuitBreakerRegistry, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        siteSpillover.stop();
+    }
+
+    @Test
+    void replay_shouldApplyEventsPerSiteInOrderAndCompactSegment() throws IOException {
+        spill(SiteEventType.CREATE, "site-1");
+        spill(SiteEventType.UPDATE, "site-1");
+        spill(SiteEventType.DELETE, "site-2");
+        when(siteService.replay(any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(replayer.replay())
+                .verifyComplete();
+
+        var events = ArgumentCaptor.forClass(SiteSpillover.SpilledEvent.class);
+        verify(siteService, times(3)).replay(events.capture());
+        assertThat(events.getAllValues())
+                .filteredOn(event -> event.siteId().equals("site-1"))
+                .extracting(SiteSpillover.SpilledEvent::eventType)
+                .containsExactly(SiteEventType.CREATE, SiteEventType.UPDATE);
+        assertThat(events.getAllValues())
+                .extracting(SiteSpillover.SpilledEvent::eventType, SiteSpillover.SpilledEvent::siteId)
+                .contains(tuple(SiteEventType.DELETE, "site-2"));
+        assertThat(siteSpillover.hasBacklog()).isFalse();
+        assertThat(siteSpillover.seal()).isEmpty();
+        assertThat(replayed("success")).isEqualTo(3.0);
+    }
+
+    @Test
+    void replay_whenDocumentIsNewerThanSpilledEvent_shouldCountItStale() throws IOException {
+        spill(SiteEventType.UPDATE, "site-1");
+        when(siteService.replay(any())).thenReturn(Mono.just(false));
+
+        StepVerifier.create(replayer.replay())
+                .verifyComplete();
+
+        assertThat(replayed("stale")).isEqualTo(1.0);
+        assertThat(siteSpillover.seal()).isEmpty();
+    }
+
+    @Test
+    void replay_whenFirestoreIsStillUnavailable_shouldKeepSegmentAndSiteBacklog() throws IOException {
+        spill(SiteEventType.UPDATE, "site-1");
+        when(siteService.replay(any()))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Service is temporarily unavailable.")));
+
+        StepVerifier.create(replayer.replay())
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        assertThat(siteSpillover.seal()).hasSize(1);
+        StepVerifier.create(siteSpillover.ordered(SiteEventType.DELETE, "site-1", null, Mono.error(new IllegalStateException("not ordered"))))
+                .verifyComplete();
+    }
+
+    @Test
+    void replay_afterPartialFailure_shouldResumeWithoutReapplyingReplayedRecords() throws IOException {
+        spill(SiteEventType.UPDATE, "site-1");
+        spill(SiteEventType.UPDATE, "site-2");
+        when(siteService.replay(argThat(event -> event != null && event.siteId().equals("site-1"))))
+                .thenReturn(Mono.just(true));
+        when(siteService.replay(argThat(event -> event != null && event.siteId().equals("site-2"))))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE)), Mono.just(true));
+
+        StepVerifier.create(replayer.replay())
+                .expectError(ResponseStatusException.class)
+                .verify();
+        StepVerifier.create(replayer.replay())
+                .verifyComplete();
+
+        verify(siteService, times(1)).replay(argThat(event -> event != null && event.siteId().equals("site-1")));
+        verify(siteService, times(2)).replay(argThat(event -> event != null && event.siteId().equals("site-2")));
+        assertThat(siteSpillover.seal()).isEmpty();
+    }
+
+    @Test
+    void replay_whenEventIsRejected_shouldDropItAndCompact() throws IOException {
+        spill(SiteEventType.UPDATE, "site-1");
+        when(siteService.replay(any()))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Site to update not found")));
+
+        StepVerifier.create(replayer.replay())
+                .verifyComplete();
+
+        assertThat(replayed("rejected")).isEqualTo(1.0);
+        assertThat(siteSpillover.seal()).isEmpty();
+    }
+
+    @Test
+    void bind_shouldNotReplayWhileCircuitBreakerIsOpen() {
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker("firestore");
+        circuitBreaker.transitionToOpenState();
+        spill(SiteEventType.CREATE, "site-1");
+
+        replayer.bind();
+        verify(siteService, after(200).never()).replay(any());
+
+        when(siteService.replay(any())).thenReturn(Mono.just(true));
+        circuitBreaker.transitionToHalfOpenState();
+
+        verify(siteService, timeout(2000)).replay(any());
+    }
+
+    @Test
+    void bind_whenOnlySpilledSitesHaveTraffic_shouldReplayOnceBreakerTurnsHalfOpen() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .waitDurationInOpenState(Duration.ofMillis(100))
+                .build());
+        replayer = new SpilloverReplayer(siteSpillover, siteService, circuitBreakerRegistry, properties, meterRegistry);
+        var circuitBreaker = circuitBreakerRegistry.circuitBreaker("firestore");
+        circuitBreaker.transitionToOpenState();
+        spill(SiteEventType.CREATE, "site-1");
+        when(siteService.replay(any())).thenReturn(Mono.just(true));
+
+        replayer.bind();
+        StepVerifier.create(siteSpillover.ordered(SiteEventType.UPDATE, "site-1", site("site-1"), Mono.error(new IllegalStateException("not ordered"))))
+                .verifyComplete();
+
+        verify(siteService, timeout(2000).times(2)).replay(argThat(event -> event != null && event.siteId().equals("site-1")));
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    private void spill(SiteEventType eventType, String siteId) {
+        StepVerifier.create(siteSpillover.spill(eventType, siteId, eventType == SiteEventType.DELETE ? null : site(siteId), new IllegalStateException("open")))
+                .verifyComplete();
+    }
+
+    private double replayed(String outcome) {
+        return meterRegistry.get("site.events.spillover.replayed").tag("outcome", outcome).counter().count();
+    }
+
+    private Site site(String siteId) {
+        return Site.newBuilder()
+                .setId(siteId)
+                .setName("Test Site")
+                .setUserId("user-456")
+                .setAddress("123 Test Street")
+                .setLocation(GeoLocation.newBuilder().setLatitude(40.7128).setLongitude(-74.0060).build())
+                .build();
+    }
+}